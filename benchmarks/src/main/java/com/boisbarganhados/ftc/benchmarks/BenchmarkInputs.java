@@ -0,0 +1,97 @@
+package com.boisbarganhados.ftc.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.boisbarganhados.ftc.dfa.RegexDFElement;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+/**
+ * Seeded inputs shared by the benchmarks, so every run measures the same
+ * regexes, automata and sentences.
+ */
+public final class BenchmarkInputs {
+
+    public static final long SEED = 42;
+
+    private static final String[] REGEX_BLOCKS = { "(a+b)*", "c", "(ab+ba)", "d*", "(a+c)(b+d)", "(λ+d)" };
+    private static final String SENTENCE_SYMBOLS = "abcd";
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Build a regex with at least the given number of symbols, by concatenating
+     * blocks of stars, unions and plain symbols.
+     *
+     * @param symbols The minimum number of symbols of the regex.
+     * @return The regex.
+     */
+    public static String regex(int symbols) {
+        var regex = new StringBuilder();
+        var total = 0;
+        for (int block = 0; total < symbols; block++) {
+            var item = REGEX_BLOCKS[block % REGEX_BLOCKS.length];
+            regex.append(item);
+            total += item.chars().filter(character -> character >= 'a' && character <= 'd').count();
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Build random sentences over the symbols of the benchmark regexes.
+     *
+     * @param count  The number of sentences.
+     * @param length The length of every sentence.
+     * @return The sentences.
+     */
+    public static List<String> sentences(int count, int length) {
+        var random = new Random(SEED);
+        var sentences = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            var sentence = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                sentence.append(SENTENCE_SYMBOLS.charAt(random.nextInt(SENTENCE_SYMBOLS.length())));
+            }
+            sentences.add(sentence.toString());
+        }
+        return sentences;
+    }
+
+    /**
+     * Build a random NFA with lambda transitions, as the ones Thompson's
+     * construction builds before they are removed. Every state has a symbol
+     * transition to the next state, and some states have lambda transitions
+     * forward or back.
+     *
+     * @param states The number of states.
+     * @return The NFA, with initial state 0 and the last state final.
+     */
+    public static RegexDFElement lambdaNfa(int states) {
+        var random = new Random(SEED);
+        Set<String> alphabet = new HashSet<>();
+        for (int i = 0; i < SENTENCE_SYMBOLS.length(); i++) {
+            alphabet.add(String.valueOf(SENTENCE_SYMBOLS.charAt(i)));
+        }
+        var nfa = RegexDFElement.builder().alphabetSet(alphabet).finalStates(new HashSet<>())
+                .transitions(new ArrayList<>()).deterministic(false).build();
+        for (int state = 0; state < states; state++) {
+            nfa.addNewState();
+        }
+        for (int state = 0; state + 1 < states; state++) {
+            var symbol = String.valueOf(SENTENCE_SYMBOLS.charAt(random.nextInt(SENTENCE_SYMBOLS.length())));
+            nfa.addNewTransition(state, state + 1, symbol);
+            if (random.nextInt(3) == 0) {
+                nfa.addNewTransition(state, Math.min(states - 1, state + 1 + random.nextInt(4)), RegexUtils.LAMBDA);
+            }
+            if (random.nextInt(8) == 0) {
+                nfa.addNewTransition(state + 1, Math.max(0, state - random.nextInt(4)), RegexUtils.LAMBDA);
+            }
+        }
+        nfa.getFinalStates().add(states - 1);
+        return nfa;
+    }
+}
@@ -0,0 +1,22 @@
+package com.boisbarganhados.ftc.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks with the GC profiler, which reports the allocation rate
+ * and the bytes allocated per operation next to the times.
+ *
+ * Usage: java -jar target/benchmarks.jar [benchmark name regex]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        var options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
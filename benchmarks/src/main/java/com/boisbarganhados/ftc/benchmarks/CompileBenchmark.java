@@ -0,0 +1,88 @@
+package com.boisbarganhados.ftc.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.RegexDFElement;
+import com.boisbarganhados.ftc.regex.LambdaSolver;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+import com.boisbarganhados.ftc.regex.Thompson;
+
+/**
+ * Regex compilation steps over regexes of growing size: Thompson's
+ * construction, lambda removal, the subset construction and the whole compile
+ * pipeline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompileBenchmark {
+
+    @Param({ "8", "32", "128" })
+    public int regexSize;
+
+    private String regex;
+    private RegexDFElement nfa;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        regex = BenchmarkInputs.regex(regexSize);
+        nfa = Thompson.getNfaFromRegex(regex);
+    }
+
+    @Benchmark
+    public RegexDFElement thompson() throws Exception {
+        return Thompson.getNfaFromRegex(regex);
+    }
+
+    @Benchmark
+    public RegexDFElement convertToDeterministic() throws Exception {
+        return RegexUtils.convertToDeterministic(nfa);
+    }
+
+    @Benchmark
+    public CompiledDFA compile() throws Exception {
+        return RegexUtils.compile(regex, NfaConstruction.THOMPSON);
+    }
+
+    /**
+     * Lambda removal on NFAs of growing size. It changes the NFA in place, so a
+     * fresh NFA is built before every call, outside of the measurement.
+     */
+    @State(Scope.Thread)
+    public static class LambdaNfa {
+
+        @Param({ "100", "1000", "10000" })
+        public int states;
+
+        private RegexDFElement nfa;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            nfa = BenchmarkInputs.lambdaNfa(states);
+        }
+    }
+
+    @Benchmark
+    public RegexDFElement removeLambda(LambdaNfa lambdaNfa) throws Exception {
+        LambdaSolver.removeLambda(lambdaNfa.nfa);
+        return lambdaNfa.nfa;
+    }
+}
@@ -0,0 +1,179 @@
+package com.boisbarganhados.ftc.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boisbarganhados.ftc.dfa.BitParallelNFA;
+import com.boisbarganhados.ftc.dfa.CompactNFA;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+import com.boisbarganhados.ftc.dfa.LazyDFA;
+import com.boisbarganhados.ftc.dfa.RegexDFElement;
+import com.boisbarganhados.ftc.dfa.SentenceMatcher;
+import com.boisbarganhados.ftc.dfa.StreamingMatcher;
+import com.boisbarganhados.ftc.regex.Glushkov;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+import com.boisbarganhados.ftc.regex.Thompson;
+
+/**
+ * Matching of a batch of sentences of growing length with the three DFA
+ * forms: the regex element, the DFA model and the compiled DFA. The lazy DFA
+ * runs with a warm cache and with a fresh one per batch, which pays for the
+ * visited states as {@code compileAndMatch} pays for the whole subset
+ * construction. The bit-parallel NFA is the Glushkov matcher that
+ * {@code compileMatcherAndMatch} builds with no subset construction. The
+ * streaming matcher reads every sentence in chunks of {@value #CHUNK_SIZE}
+ * characters. Each call returns the number of accepted sentences.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchBenchmark {
+
+    private static final String REGEX = "(a+b+c+d)*a(a+b+c+d)(a+b+c+d)";
+    private static final int SENTENCES = 64;
+    private static final int CHUNK_SIZE = 64;
+
+    @Param({ "16", "256", "4096" })
+    public int sentenceLength;
+
+    private List<String> sentences;
+    private List<char[]> sentenceChars;
+    private RegexDFElement regexDfa;
+    private DFA dfa;
+    private CompiledDFA compiledDfa;
+    private CompactNFA compactNfa;
+    private LazyDFA lazyDfa;
+    private BitParallelNFA bitParallelNfa;
+    private StreamingMatcher streamingMatcher;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        sentences = BenchmarkInputs.sentences(SENTENCES, sentenceLength);
+        sentenceChars = sentences.stream().map(String::toCharArray).toList();
+        regexDfa = RegexUtils.convertToDeterministic(Thompson.getNfaFromRegex(REGEX));
+        dfa = RegexUtils.parseToJFlapDFA(regexDfa);
+        compiledDfa = RegexUtils.compile(REGEX, NfaConstruction.THOMPSON);
+        compactNfa = CompactNFA.of(Thompson.getNfaFromRegex(REGEX));
+        lazyDfa = new LazyDFA(compactNfa);
+        bitParallelNfa = BitParallelNFA.of(Glushkov.getNfaFromRegex(REGEX));
+        streamingMatcher = new StreamingMatcher(compiledDfa);
+    }
+
+    @Benchmark
+    public int simulate() throws Exception {
+        var accepted = 0;
+        for (var sentence : sentences) {
+            if (regexDfa.simulate(sentence)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public int runDFA() {
+        var accepted = 0;
+        for (var sentence : sentences) {
+            if (dfa.runDFA(sentence)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public int compiledMatches() {
+        var accepted = 0;
+        for (var sentence : sentences) {
+            if (compiledDfa.matches(sentence)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public int lazySimulate() throws Exception {
+        return lazySimulate(lazyDfa);
+    }
+
+    @Benchmark
+    public int lazyColdSimulate() throws Exception {
+        return lazySimulate(new LazyDFA(compactNfa));
+    }
+
+    @Benchmark
+    public int compileAndMatch() throws Exception {
+        var compiled = RegexUtils.compile(REGEX, NfaConstruction.THOMPSON);
+        var accepted = 0;
+        for (var sentence : sentences) {
+            if (compiled.matches(sentence)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public int bitParallelMatches() {
+        return countMatches(bitParallelNfa);
+    }
+
+    @Benchmark
+    public int compileMatcherAndMatch() throws Exception {
+        return countMatches(RegexUtils.compileMatcher(REGEX, NfaConstruction.GLUSHKOV));
+    }
+
+    @Benchmark
+    public int streamingMatches() {
+        var accepted = 0;
+        for (var chars : sentenceChars) {
+            streamingMatcher.reset();
+            for (int offset = 0; offset < chars.length; offset += CHUNK_SIZE) {
+                streamingMatcher.feed(chars, offset, Math.min(CHUNK_SIZE, chars.length - offset));
+            }
+            if (streamingMatcher.isAccepting()) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private int countMatches(SentenceMatcher sentenceMatcher) {
+        var accepted = 0;
+        for (var sentence : sentences) {
+            if (sentenceMatcher.matches(sentence)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private int lazySimulate(LazyDFA lazy) throws Exception {
+        var accepted = 0;
+        for (var sentence : sentences) {
+            if (lazy.simulate(sentence)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+}
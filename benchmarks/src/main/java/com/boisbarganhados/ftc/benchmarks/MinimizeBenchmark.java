@@ -0,0 +1,196 @@
+package com.boisbarganhados.ftc.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boisbarganhados.ftc.dfa.CompactNFA;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+import com.boisbarganhados.ftc.generator.RandomDFAGenerator;
+import com.boisbarganhados.ftc.generator.RegexFamilies;
+import com.boisbarganhados.ftc.minimization.AdaptiveDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.BrzozowskiDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.HopcroftDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.OptimizedDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.ParallelMooreDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.RootDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.ValmariLehtinenDFAMinimizer;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexAstParser;
+import com.boisbarganhados.ftc.regex.SubsetConstruction;
+
+/**
+ * DFA minimization with every minimizer, over three kinds of input:
+ * <ul>
+ * <li>the generated test DFAs of growing state count, as DFA models;</li>
+ * <li>the subset DFAs of word unions, the shape of the DFAs built from
+ * regexes;</li>
+ * <li>random compiled DFAs of growing size, alphabet and sparsity, the inputs
+ * that decide the thresholds of {@link AdaptiveDFAMinimizer}.</li>
+ * </ul>
+ * Brzozowski's minimizer is left out of the random DFAs, since the reversal
+ * of a random DFA of a few hundred states already runs out of memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinimizeBenchmark {
+
+    /**
+     * The generated test DFAs. The DFA model minimizers change the states of
+     * their input, so a fresh DFA is generated before every call, outside of
+     * the measurement.
+     */
+    @State(Scope.Thread)
+    public static class GeneratedInput {
+
+        @Param({ "64", "256", "1024" })
+        public int states;
+
+        private DFA dfa;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            dfa = DFA.generateDoubleStateTest(states);
+        }
+    }
+
+    /**
+     * The subset DFAs of unions of random words over four symbols, before
+     * minimization.
+     */
+    @State(Scope.Benchmark)
+    public static class RegexInput {
+
+        @Param({ "8", "32", "128" })
+        public int words;
+
+        private CompiledDFA compiledDfa;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            var regex = RegexFamilies.wordUnion(BenchmarkInputs.SEED, words, 8, 4);
+            var nfa = CompactNFA.of(NfaConstruction.GLUSHKOV.getNfaFromAst(RegexAstParser.parse(regex)));
+            compiledDfa = CompiledDFA.of(SubsetConstruction.determinize(nfa));
+        }
+    }
+
+    /**
+     * Random partial DFAs. The density is the fraction of the transitions
+     * drawn, besides the ones that keep every state reachable.
+     */
+    @State(Scope.Benchmark)
+    public static class RandomInput {
+
+        @Param({ "256", "1024", "4096" })
+        public int randomStates;
+
+        @Param({ "8", "62" })
+        public int alphabetSize;
+
+        @Param({ "0.02", "0.1", "1" })
+        public double density;
+
+        private CompiledDFA compiledDfa;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            compiledDfa = RandomDFAGenerator.partial(BenchmarkInputs.SEED, randomStates, alphabetSize, density, 0.5)
+                    .toCompiledDFA();
+        }
+    }
+
+    @Benchmark
+    public DFA root(GeneratedInput input) {
+        return RootDFAMinimizer.minimizeDFA(input.dfa);
+    }
+
+    @Benchmark
+    public DFA optimized(GeneratedInput input) {
+        return OptimizedDFAMinimizer.minimizeDFA(input.dfa);
+    }
+
+    @Benchmark
+    public DFA hopcroft(GeneratedInput input) throws Exception {
+        return HopcroftDFAMinimizer.minimizeDFA(input.dfa);
+    }
+
+    @Benchmark
+    public DFA valmariLehtinen(GeneratedInput input) throws Exception {
+        return ValmariLehtinenDFAMinimizer.minimizeDFA(input.dfa);
+    }
+
+    @Benchmark
+    public DFA parallelMoore(GeneratedInput input) throws Exception {
+        return ParallelMooreDFAMinimizer.minimizeDFA(input.dfa);
+    }
+
+    @Benchmark
+    public DFA brzozowski(GeneratedInput input) throws Exception {
+        return BrzozowskiDFAMinimizer.minimizeDFA(input.dfa);
+    }
+
+    @Benchmark
+    public DFA adaptive(GeneratedInput input) throws Exception {
+        return AdaptiveDFAMinimizer.minimizeDFA(input.dfa);
+    }
+
+    @Benchmark
+    public CompiledDFA regexHopcroft(RegexInput input) {
+        return HopcroftDFAMinimizer.minimize(input.compiledDfa);
+    }
+
+    @Benchmark
+    public CompiledDFA regexValmariLehtinen(RegexInput input) {
+        return ValmariLehtinenDFAMinimizer.minimize(input.compiledDfa);
+    }
+
+    @Benchmark
+    public CompiledDFA regexParallelMoore(RegexInput input) throws Exception {
+        return ParallelMooreDFAMinimizer.minimize(input.compiledDfa);
+    }
+
+    @Benchmark
+    public CompiledDFA regexBrzozowski(RegexInput input) throws Exception {
+        return BrzozowskiDFAMinimizer.minimize(input.compiledDfa);
+    }
+
+    @Benchmark
+    public CompiledDFA regexAdaptive(RegexInput input) throws Exception {
+        return AdaptiveDFAMinimizer.minimize(input.compiledDfa);
+    }
+
+    @Benchmark
+    public CompiledDFA randomHopcroft(RandomInput input) {
+        return HopcroftDFAMinimizer.minimize(input.compiledDfa);
+    }
+
+    @Benchmark
+    public CompiledDFA randomValmariLehtinen(RandomInput input) {
+        return ValmariLehtinenDFAMinimizer.minimize(input.compiledDfa);
+    }
+
+    @Benchmark
+    public CompiledDFA randomParallelMoore(RandomInput input) throws Exception {
+        return ParallelMooreDFAMinimizer.minimize(input.compiledDfa);
+    }
+
+    @Benchmark
+    public CompiledDFA randomAdaptive(RandomInput input) throws Exception {
+        return AdaptiveDFAMinimizer.minimize(input.compiledDfa);
+    }
+}
\ No newline at end of file
@@ -1,17 +1,30 @@
 package com.boisbarganhados.ftc;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 
 import com.boisbarganhados.ftc.dfa.DFA;
+import com.boisbarganhados.ftc.dfa.DFAEquivalence;
+import com.boisbarganhados.ftc.generator.RandomDFAGenerator;
+import com.boisbarganhados.ftc.generator.RegexFamilies;
+import com.boisbarganhados.ftc.generator.SentenceCorpus;
+import com.boisbarganhados.ftc.jflap.JFFStreamWriter;
 import com.boisbarganhados.ftc.jflap.JFlapParser;
 import com.boisbarganhados.ftc.jflap.XMLController;
+import com.boisbarganhados.ftc.minimization.AdaptiveDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.BrzozowskiDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.HopcroftDFAMinimizer;
 import com.boisbarganhados.ftc.minimization.OptimizedDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.ParallelMooreDFAMinimizer;
 import com.boisbarganhados.ftc.minimization.RootDFAMinimizer;
+import com.boisbarganhados.ftc.minimization.ValmariLehtinenDFAMinimizer;
+import com.boisbarganhados.ftc.regex.MappedSentences;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
 import com.boisbarganhados.ftc.regex.RegexUtils;
-import com.boisbarganhados.ftc.regex.Thompson;
 
 /**
  * Regex to DFA - FTC Assignment/PUC Minas - 2024/1
@@ -26,6 +39,7 @@ public class Main {
     private final static String JFLAP_PATH = "bin/JFLAP/JFLAP.jar";
     private final static String TEST_REGEX_DFA = "./tests/test_base_regex.jff";
     private final static String REGEX_TEST = "(a+b)*";
+    private final static String GENERATED_PATH = "tests";
 
     public static void main(String[] args) {
         try {
@@ -34,7 +48,9 @@ public class Main {
                 if (args.length < 2)
                     cliUsage();
                 else {
-                    runRegexTransformation(args[0], args[1]);
+                    var construction = args.length > 2 ? NfaConstruction.getByName(args[2])
+                            : NfaConstruction.THOMPSON;
+                    runRegexTransformation(args[0], args[1], construction);
                 }
             }
             while (true) {
@@ -47,8 +63,10 @@ public class Main {
     }
 
     private static void cliUsage() {
-        System.out.println("Usage: java -jar regex-to-dfa.jar <path to regex file> <path to the sentences file>");
+        System.out.println(
+                "Usage: java -jar regex-to-dfa.jar <path to regex file> <path to the sentences file> [thompson|glushkov]");
         System.out.println("Example: java -jar regex-to-dfa.jar regex.txt sentences.txt");
+        System.out.println("NFA construction is optional, default is thompson");
         System.out.println("Regex structure:");
         System.out.println("Operations allowed * (Kleene star), + (Union) and (Concatenation)");
         System.out.println("Example: a+b*");
@@ -71,9 +89,10 @@ public class Main {
         // Menu de opções
         System.out.println("1- Run regex transformation");
         System.out.println("2- Minimize DFA");
-        System.out.println("3- Generate test DFA");
+        System.out.println("3- Generate test data");
         System.out.println("4- Test");
-        System.out.println("5- Exit");
+        System.out.println("5- Check DFA equivalence");
+        System.out.println("6- Exit");
         System.out.println("Choose an option:");
         int option = scanner.nextInt();
         scanner.nextLine();
@@ -83,7 +102,7 @@ public class Main {
                 var pathToRegex = scanner.nextLine();
                 System.out.println("Enter the path to the sentences file:");
                 var pathToSentences = scanner.nextLine();
-                runRegexTransformation(pathToRegex, pathToSentences);
+                runRegexTransformation(pathToRegex, pathToSentences, NfaConstruction.THOMPSON);
                 break;
             case 2:
                 System.out.println("Enter the path to the XML file:");
@@ -97,6 +116,13 @@ public class Main {
                 test();
                 break;
             case 5:
+                System.out.println("Enter the path to the first XML file:");
+                var firstXmlFilePath = scanner.nextLine();
+                System.out.println("Enter the path to the second XML file:");
+                var secondXmlFilePath = scanner.nextLine();
+                checkEquivalence(firstXmlFilePath, secondXmlFilePath);
+                break;
+            case 6:
                 System.out.println("Exiting...");
                 System.exit(0);
                 break;
@@ -136,18 +162,37 @@ public class Main {
                 option = 0;
                 System.out.println("1- Root DFA minimization (N^2 complexity)");
                 System.out.println("2- Optimized minimization (N log N complexity)");
+                System.out.println("3- Hopcroft minimization (N log N complexity, int arrays)");
+                System.out.println("4- Valmari-Lehtinen minimization (M log N complexity, partial DFAs)");
+                System.out.println("5- Parallel Moore minimization (rounds of K N, every core)");
+                System.out.println("6- Brzozowski minimization (double reversal)");
+                System.out.println("7- Automatic selection");
                 System.out.println("Choose the minimization method:");
                 option = scanner.nextInt();
                 scanner.nextLine();
-            } while (option <= 0 || option > 2);
+            } while (option <= 0 || option > 7);
             System.out.println(xmlFilePath);
             var jflapDFA = XMLController.reader(xmlFilePath);
             var internalDfa = JFlapParser.parse(jflapDFA);
-            var minimizedDFA = option == 1 ? RootDFAMinimizer.minimizeDFA(internalDfa)
-                    : OptimizedDFAMinimizer.minimizeDFA(internalDfa);
-            var minimizedPath = xmlFilePath.replace(".jff",
-                    option == 1 ? "_root_minimized.jff" : "_optimized_minimized.jff");
-            XMLController.writer(JFlapParser.parse(minimizedDFA), minimizedPath);
+            var minimizedDFA = switch (option) {
+                case 1 -> RootDFAMinimizer.minimizeDFA(internalDfa);
+                case 2 -> OptimizedDFAMinimizer.minimizeDFA(internalDfa);
+                case 3 -> HopcroftDFAMinimizer.minimizeDFA(internalDfa);
+                case 4 -> ValmariLehtinenDFAMinimizer.minimizeDFA(internalDfa);
+                case 5 -> ParallelMooreDFAMinimizer.minimizeDFA(internalDfa);
+                case 6 -> BrzozowskiDFAMinimizer.minimizeDFA(internalDfa);
+                default -> AdaptiveDFAMinimizer.minimizeDFA(internalDfa);
+            };
+            var minimizedPath = xmlFilePath.replace(".jff", switch (option) {
+                case 1 -> "_root_minimized.jff";
+                case 2 -> "_optimized_minimized.jff";
+                case 3 -> "_hopcroft_minimized.jff";
+                case 4 -> "_valmari_minimized.jff";
+                case 5 -> "_moore_minimized.jff";
+                case 6 -> "_brzozowski_minimized.jff";
+                default -> "_auto_minimized.jff";
+            });
+            XMLController.writer(minimizedDFA, minimizedPath);
             System.out.println("Minimization finished. Result saved to " + minimizedPath);
             runJFLAP(minimizedPath);
         } catch (Exception e) {
@@ -156,6 +201,31 @@ public class Main {
         }
     }
 
+    /**
+     * Check if two XML files hold DFAs that accept the same language
+     * 
+     * @param firstXmlFilePath  Path to the first XML file
+     * @param secondXmlFilePath Path to the second XML file
+     */
+    private static void checkEquivalence(String firstXmlFilePath, String secondXmlFilePath) {
+        try {
+            long start = System.currentTimeMillis();
+            var counterexample = DFAEquivalence.findCounterexample(
+                    JFlapParser.parse(XMLController.reader(firstXmlFilePath)),
+                    JFlapParser.parse(XMLController.reader(secondXmlFilePath)));
+            long end = System.currentTimeMillis();
+            if (counterexample == null) {
+                System.out.println("The DFAs are equivalent");
+            } else {
+                System.out.println("The DFAs differ on the word: \"" + counterexample + "\"");
+            }
+            System.out.println("Equivalence check time: " + (end - start) + "ms");
+        } catch (Exception e) {
+            System.err.println("Error while checking equivalence");
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Run JFLAP with the results
      * 
@@ -174,43 +244,130 @@ public class Main {
     }
 
     /**
-     * Generate a test DFA
+     * Generate a test DFA, a random DFA or an adversarial regex with its
+     * sentences, in the chosen output folder
      */
     private static void generate() {
         try {
-            System.out.println("Generating test DFA...");
-            System.out.println("Enter the number of states for the test DFA:");
-            int nStates = scanner.nextInt();
-            scanner.nextLine();
-            var dfa = DFA.generateDoubleStateTest(nStates);
-            var dfaPath = "test/generated_" + nStates + "_states.jff";
-            XMLController.writer(JFlapParser.parse(dfa), dfaPath);
-            System.out.println("Test DFA generated. Path: " + dfaPath);
-            runJFLAP(dfaPath);
+            int option;
+            do {
+                System.out.println("1- Ladder test DFA");
+                System.out.println("2- Random DFA (streamed to the file)");
+                System.out.println("3- Adversarial regex and sentences");
+                System.out.println("Choose what to generate:");
+                option = scanner.nextInt();
+                scanner.nextLine();
+            } while (option <= 0 || option > 3);
+            System.out.println("Enter the output folder (empty for " + GENERATED_PATH + "):");
+            var outputFolder = scanner.nextLine().trim();
+            var outputPath = Path.of(outputFolder.isEmpty() ? GENERATED_PATH : outputFolder);
+            Files.createDirectories(outputPath);
+            switch (option) {
+                case 1 -> generateLadder(outputPath);
+                case 2 -> generateRandomDFA(outputPath);
+                default -> generateRegexWorkload(outputPath);
+            }
         } catch (Exception e) {
             System.err.println("Error while generating test DFA:");
             e.printStackTrace();
         }
     }
 
+    /**
+     * Generate the ladder test DFA
+     * 
+     * @param outputPath Folder of the generated file
+     * @throws Exception
+     */
+    private static void generateLadder(Path outputPath) throws Exception {
+        System.out.println("Enter the number of states for the test DFA:");
+        int nStates = scanner.nextInt();
+        scanner.nextLine();
+        var dfa = DFA.generateDoubleStateTest(nStates);
+        var dfaPath = outputPath.resolve("generated_" + nStates + "_states.jff").toString();
+        XMLController.writer(dfa, dfaPath);
+        System.out.println("Test DFA generated. Path: " + dfaPath);
+        runJFLAP(dfaPath);
+    }
+
+    /**
+     * Generate a seeded random DFA, written one state at a time
+     * 
+     * @param outputPath Folder of the generated file
+     * @throws Exception
+     */
+    private static void generateRandomDFA(Path outputPath) throws Exception {
+        System.out.println("Enter the number of states (up to " + RandomDFAGenerator.MAX_STATES + "):");
+        int nStates = scanner.nextInt();
+        System.out.println("Enter the alphabet size:");
+        int alphabetSize = scanner.nextInt();
+        System.out.println("Enter the transition density (1 for a complete DFA):");
+        double density = scanner.nextDouble();
+        System.out.println("Enter the final states ratio:");
+        double finalRatio = scanner.nextDouble();
+        System.out.println("Enter the seed:");
+        long seed = scanner.nextLong();
+        scanner.nextLine();
+        long start = System.currentTimeMillis();
+        var generator = RandomDFAGenerator.partial(seed, nStates, alphabetSize, density, finalRatio);
+        var dfaPath = outputPath.resolve("random_" + nStates + "_states_" + seed + ".jff").toString();
+        generator.writeJFF(dfaPath);
+        long end = System.currentTimeMillis();
+        System.out.println("Random DFA generated in " + (end - start) + "ms. Path: " + dfaPath);
+    }
+
+    /**
+     * Generate a regex of an adversarial family and a sentences file for it,
+     * ready for the regex transformation
+     * 
+     * @param outputPath Folder of the generated files
+     * @throws Exception
+     */
+    private static void generateRegexWorkload(Path outputPath) throws Exception {
+        System.out.println("Enter the regex family (nth-from-last, optional-chain, nested-stars, word-union):");
+        var family = scanner.nextLine().trim();
+        System.out.println("Enter the family parameter:");
+        int n = scanner.nextInt();
+        System.out.println("Enter the number of sentences:");
+        int count = scanner.nextInt();
+        System.out.println("Enter the sentence length:");
+        int length = scanner.nextInt();
+        System.out.println("Enter the accepted sentences ratio:");
+        double acceptRatio = scanner.nextDouble();
+        System.out.println("Enter the seed:");
+        long seed = scanner.nextLong();
+        scanner.nextLine();
+        var regex = RegexFamilies.build(family, seed, n);
+        var name = family.toLowerCase() + "_" + n;
+        var regexPath = outputPath.resolve(name + ".txt");
+        var sentencesPath = outputPath.resolve(name + "_sentences.txt");
+        Files.writeString(regexPath, regex + System.lineSeparator());
+        var compiledDfa = RegexUtils.compile(regex, NfaConstruction.THOMPSON);
+        System.out.println("Minimized DFA: " + compiledDfa.getStateCount() + " states");
+        SentenceCorpus.write(compiledDfa, seed, count, length, acceptRatio, sentencesPath.toString());
+        System.out.println("Regex saved to " + regexPath + ", sentences saved to " + sentencesPath);
+    }
+
     /**
      * Run the regex transformation with the given paths
      * 
      * @param pathToRegex     Path to the regex file
      * @param pathToSentences Path to the sentences file
+     * @param construction    NFA construction used to compile the regex
      */
-    private static void runRegexTransformation(String pathToRegex, String pathToSentences) {
+    private static void runRegexTransformation(String pathToRegex, String pathToSentences,
+            NfaConstruction construction) {
         try {
             System.out.println("Running regex transformation...");
             var regex = RegexUtils.readRegex(pathToRegex);
-            var sentences = RegexUtils.readSentences(pathToSentences);
-            var regexDfa = Thompson.getNfaFromRegex(regex);
-            regexDfa = RegexUtils.convertToDeterministic(regexDfa);
+            var compiledDfa = RegexUtils.compile(regex, construction);
+            System.out.println("Minimized DFA: " + compiledDfa.getStateCount() + " states");
             var regexPath = pathToRegex.substring(0, pathToRegex.lastIndexOf('.')) +
                     "_regex_dfa.jff";
-            RegexUtils.simulateDFA(regexDfa, sentences);
-            XMLController.writer(JFlapParser.parse(RegexUtils.parseToJFlapDFA(regexDfa)),
-                    regexPath);
+            var counts = MappedSentences.evaluate(pathToSentences, compiledDfa,
+                    Runtime.getRuntime().availableProcessors(), System.out);
+            System.out.println("Sentences: " + counts.sentences() + ", accepted: " + counts.accepted());
+            JFFStreamWriter.write(compiledDfa, regexPath);
             runJFLAP(regexPath);
             System.out.println("Regex transformation finished.");
         } catch (Exception e) {
@@ -228,15 +385,13 @@ public class Main {
     private static void runRegexTransformation(String regex, List<String> sentences) {
         try {
             System.out.println("Running regex transformation...");
-            var regexDfa = Thompson.getNfaFromRegex(regex);
-            var dfa = RegexUtils.convertToDeterministic(regexDfa);
-            System.out.println(dfa);
-            RegexUtils.simulateDFA(dfa, sentences);
+            var compiledDfa = RegexUtils.compile(regex, NfaConstruction.THOMPSON);
+            System.out.println("Minimized DFA: " + compiledDfa.getStateCount() + " states");
+            RegexUtils.simulateDFA(compiledDfa, sentences);
             var pathToRegex = TEST_REGEX_DFA;
             var regexPath = pathToRegex.substring(0, pathToRegex.lastIndexOf('.')) +
                     "_regex_dfa.jff";
-            XMLController.writer(JFlapParser.parse(RegexUtils.parseToJFlapDFA(dfa)),
-                    regexPath);
+            JFFStreamWriter.write(compiledDfa, regexPath);
             runJFLAP(regexPath);
             System.out.println("Regex transformation finished.");
         } catch (Exception e) {
@@ -0,0 +1,161 @@
+package com.boisbarganhados.ftc.dfa;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+/**
+ * Interned alphabet of an automaton. Every symbol gets a small class id, in
+ * lexicographic order, and input characters are mapped to class ids without
+ * creating a String per character.
+ *
+ * Only single characters and, when expansion is enabled, escaped symbols like
+ * {@code \+} can be read from an input; any other symbol keeps its id but is
+ * never matched.
+ */
+public final class Alphabet {
+
+    public static final int NO_CLASS = -1;
+    private static final int LATIN_SIZE = 256;
+
+    private final String[] symbols;
+    private final Map<String, Integer> symbolIds;
+    private final boolean expansion;
+    private final int[] plainLatin;
+    private final int[] escapedLatin;
+    private final char[] plainOthers;
+    private final int[] plainOtherIds;
+    private final char[] escapedOthers;
+    private final int[] escapedOtherIds;
+
+    private Alphabet(String[] symbols, boolean expansion) {
+        this.symbols = symbols;
+        this.expansion = expansion;
+        this.symbolIds = new HashMap<>();
+        this.plainLatin = new int[LATIN_SIZE];
+        this.escapedLatin = new int[LATIN_SIZE];
+        Arrays.fill(plainLatin, NO_CLASS);
+        Arrays.fill(escapedLatin, NO_CLASS);
+        var plainOthers = new StringBuilder();
+        var escapedOthers = new StringBuilder();
+        for (int id = 0; id < symbols.length; id++) {
+            var symbol = symbols[id];
+            symbolIds.put(symbol, id);
+            if (symbol.length() == 1 && !isExpansion(symbol.charAt(0))) {
+                if (symbol.charAt(0) < LATIN_SIZE)
+                    plainLatin[symbol.charAt(0)] = id;
+                else
+                    plainOthers.append(symbol.charAt(0));
+            } else if (expansion && symbol.length() == RegexUtils.CUT_KEY_SIZE
+                    && symbol.charAt(0) == RegexUtils.EXPANSION) {
+                if (symbol.charAt(1) < LATIN_SIZE)
+                    escapedLatin[symbol.charAt(1)] = id;
+                else
+                    escapedOthers.append(symbol.charAt(1));
+            }
+        }
+        this.plainOthers = plainOthers.toString().toCharArray();
+        this.escapedOthers = escapedOthers.toString().toCharArray();
+        Arrays.sort(this.plainOthers);
+        Arrays.sort(this.escapedOthers);
+        this.plainOtherIds = new int[this.plainOthers.length];
+        this.escapedOtherIds = new int[this.escapedOthers.length];
+        for (int i = 0; i < this.plainOthers.length; i++) {
+            plainOtherIds[i] = symbolIds.get(String.valueOf(this.plainOthers[i]));
+        }
+        for (int i = 0; i < this.escapedOthers.length; i++) {
+            escapedOtherIds[i] = symbolIds.get(String.valueOf(RegexUtils.EXPANSION) + this.escapedOthers[i]);
+        }
+    }
+
+    /**
+     * Intern the given symbols.
+     *
+     * @param symbols   The symbols of the automaton.
+     * @param expansion True if the expansion character starts an escaped symbol,
+     *                  as in regex-compiled automata.
+     * @return The interned alphabet.
+     */
+    public static Alphabet of(Collection<String> symbols, boolean expansion) {
+        return new Alphabet(new TreeSet<>(symbols).toArray(String[]::new), expansion);
+    }
+
+    /**
+     * Get the number of symbol classes.
+     *
+     * @return The number of symbol classes.
+     */
+    public int size() {
+        return symbols.length;
+    }
+
+    /**
+     * Get the symbol of a class id.
+     *
+     * @param classId The class id.
+     * @return The symbol of the class.
+     */
+    public String getSymbol(int classId) {
+        return symbols[classId];
+    }
+
+    /**
+     * Get the class id of a symbol.
+     *
+     * @param symbol The symbol.
+     * @return The class id or {@link #NO_CLASS} if the symbol is unknown.
+     */
+    public int getClassId(String symbol) {
+        var classId = symbolIds.get(symbol);
+        return classId == null ? NO_CLASS : classId;
+    }
+
+    /**
+     * Check if the character starts an escaped symbol in this alphabet.
+     *
+     * @param character The input character.
+     * @return True if the next character must be read as an escaped symbol.
+     */
+    public boolean isExpansion(char character) {
+        return expansion && character == RegexUtils.EXPANSION;
+    }
+
+    /**
+     * Check if the expansion character starts escaped symbols in this alphabet.
+     *
+     * @return True if escaped symbols are read from the input.
+     */
+    public boolean hasExpansion() {
+        return expansion;
+    }
+
+    /**
+     * Get the class id of a plain input character.
+     *
+     * @param character The input character.
+     * @return The class id or {@link #NO_CLASS} if the character is unknown.
+     */
+    public int classOf(char character) {
+        if (character < LATIN_SIZE)
+            return plainLatin[character];
+        var index = Arrays.binarySearch(plainOthers, character);
+        return index < 0 ? NO_CLASS : plainOtherIds[index];
+    }
+
+    /**
+     * Get the class id of a character read right after the expansion character.
+     *
+     * @param character The escaped input character.
+     * @return The class id or {@link #NO_CLASS} if the symbol is unknown.
+     */
+    public int escapedClassOf(char character) {
+        if (character < LATIN_SIZE)
+            return escapedLatin[character];
+        var index = Arrays.binarySearch(escapedOthers, character);
+        return index < 0 ? NO_CLASS : escapedOtherIds[index];
+    }
+}
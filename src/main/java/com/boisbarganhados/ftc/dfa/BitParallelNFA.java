@@ -0,0 +1,145 @@
+package com.boisbarganhados.ftc.dfa;
+
+import java.util.Arrays;
+
+/**
+ * Bit-parallel simulation of a small lambda-free NFA, with no determinization.
+ * The set of active states is kept in a single {@code long}, so the NFA must
+ * have at most 64 reachable states, and every state must be entered by a
+ * single symbol, as the states of a Glushkov automaton are. A step is then
+ * {@code follow(active) & symbolMask[class]}, where the follow set of the
+ * active states is the union of precomputed tables indexed by each byte of the
+ * state set, in the manner of Shift-And.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class BitParallelNFA implements SentenceMatcher {
+
+    public static final int MAX_STATES = Long.SIZE;
+
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final Alphabet alphabet;
+    private final long initialStates;
+    private final long finalStates;
+    private final long[] symbolMasks;
+    private final long[][] followTables;
+
+    private BitParallelNFA(Alphabet alphabet, long initialStates, long finalStates, long[] symbolMasks,
+            long[][] followTables) {
+        this.alphabet = alphabet;
+        this.initialStates = initialStates;
+        this.finalStates = finalStates;
+        this.symbolMasks = symbolMasks;
+        this.followTables = followTables;
+    }
+
+    /**
+     * Build the bit-parallel form of a lambda-free NFA, like the ones returned by
+     * {@link com.boisbarganhados.ftc.regex.Glushkov} and
+     * {@link com.boisbarganhados.ftc.regex.Thompson}.
+     *
+     * @param nfa The NFA structure.
+     * @return The bit-parallel NFA, or null if the NFA has more than
+     *         {@link #MAX_STATES} reachable states or a state entered by more
+     *         than one symbol.
+     * @throws Exception If the NFA still has lambda transitions.
+     */
+    public static BitParallelNFA of(RegexDFElement nfa) throws Exception {
+        return of(CompactNFA.of(nfa));
+    }
+
+    /**
+     * Build the bit-parallel form of a compact NFA.
+     *
+     * @param nfa The compact NFA.
+     * @return The bit-parallel NFA, or null if the NFA is not eligible, see
+     *         {@link #of(RegexDFElement)}.
+     */
+    public static BitParallelNFA of(CompactNFA nfa) {
+        var stateCount = nfa.getStateCount();
+        if (stateCount > MAX_STATES) {
+            return null;
+        }
+        var classCount = nfa.getAlphabet().size();
+        var incomingClasses = new int[stateCount];
+        Arrays.fill(incomingClasses, Alphabet.NO_CLASS);
+        var symbolMasks = new long[classCount];
+        var successors = new long[stateCount];
+        var finalStates = 0L;
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                for (var target : nfa.getTargets(state, classId)) {
+                    if (incomingClasses[target] != Alphabet.NO_CLASS && incomingClasses[target] != classId) {
+                        return null;
+                    }
+                    incomingClasses[target] = classId;
+                    symbolMasks[classId] |= 1L << target;
+                    successors[state] |= 1L << target;
+                }
+            }
+            if (nfa.isFinalState(state)) {
+                finalStates |= 1L << state;
+            }
+        }
+        var followTables = new long[(stateCount + CHUNK_BITS - 1) / CHUNK_BITS][CHUNK_SIZE];
+        for (int chunk = 0; chunk < followTables.length; chunk++) {
+            for (int bits = 1; bits < CHUNK_SIZE; bits++) {
+                var lowest = Integer.numberOfTrailingZeros(bits);
+                var state = chunk * CHUNK_BITS + lowest;
+                var lowestSuccessors = state < stateCount ? successors[state] : 0L;
+                followTables[chunk][bits] = followTables[chunk][bits & (bits - 1)] | lowestSuccessors;
+            }
+        }
+        return new BitParallelNFA(nfa.getAlphabet(), 1L << nfa.getInitialState(), finalStates, symbolMasks,
+                followTables);
+    }
+
+    /**
+     * Check if the NFA accepts the word, reading escaped symbols as
+     * {@link CompiledDFA#matches(CharSequence)} does.
+     *
+     * @param word The word to be matched.
+     * @return True if the NFA accepts the word, false otherwise.
+     */
+    @Override
+    public boolean matches(CharSequence word) {
+        var activeStates = initialStates;
+        var length = word.length();
+        for (int i = 0; i < length; i++) {
+            int classId;
+            if (alphabet.isExpansion(word.charAt(i))) {
+                if (++i == length) {
+                    return false;
+                }
+                classId = alphabet.escapedClassOf(word.charAt(i));
+            } else
+                classId = alphabet.classOf(word.charAt(i));
+            if (classId == Alphabet.NO_CLASS) {
+                return false;
+            }
+            activeStates = follow(activeStates) & symbolMasks[classId];
+            if (activeStates == 0) {
+                return false;
+            }
+        }
+        return (activeStates & finalStates) != 0;
+    }
+
+    /**
+     * Get the union of the successors of the active states, one table lookup per
+     * byte of the state set.
+     *
+     * @param activeStates The active states.
+     * @return The successors of the active states, on any symbol.
+     */
+    private long follow(long activeStates) {
+        var successors = 0L;
+        for (int chunk = 0; chunk < followTables.length && activeStates != 0; chunk++) {
+            successors |= followTables[chunk][(int) (activeStates & (CHUNK_SIZE - 1))];
+            activeStates >>>= CHUNK_BITS;
+        }
+        return successors;
+    }
+}
@@ -0,0 +1,166 @@
+package com.boisbarganhados.ftc.dfa;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+/**
+ * Immutable, int indexed copy of a lambda-free NFA. Symbols are interned in an
+ * {@link Alphabet} and the targets of every state and class are kept as a
+ * sorted int array, so determinization does not hash strings or box states.
+ */
+public final class CompactNFA {
+
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final Alphabet alphabet;
+    private final int initialState;
+    private final int[][][] transitions;
+    private final BitSet finalStates;
+    private final int[] sourceStates;
+
+    private CompactNFA(Alphabet alphabet, int initialState, int[][][] transitions, BitSet finalStates,
+            int[] sourceStates) {
+        this.alphabet = alphabet;
+        this.initialState = initialState;
+        this.transitions = transitions;
+        this.finalStates = finalStates;
+        this.sourceStates = sourceStates;
+    }
+
+    /**
+     * Create the compact form of a lambda-free NFA, like the ones returned by
+     * {@link com.boisbarganhados.ftc.regex.Thompson} and
+     * {@link com.boisbarganhados.ftc.regex.Glushkov}. Only the states reachable
+     * from the initial state are kept, renumbered in breadth-first order, so the
+     * initial state is always 0.
+     *
+     * @param nfa The NFA structure.
+     * @return The compact NFA.
+     * @throws Exception If the NFA still has lambda transitions.
+     */
+    public static CompactNFA of(RegexDFElement nfa) throws Exception {
+        return of(nfa, true);
+    }
+
+    /**
+     * Create the compact form of a lambda-free NFA, see {@link #of(RegexDFElement)}.
+     *
+     * @param nfa       The NFA structure.
+     * @param expansion True if the expansion character starts an escaped symbol,
+     *                  false if every symbol is a single plain character.
+     * @return The compact NFA.
+     * @throws Exception If the NFA still has lambda transitions.
+     */
+    public static CompactNFA of(RegexDFElement nfa, boolean expansion) throws Exception {
+        var stateIds = new int[nfa.getTransitionsTotal()];
+        Arrays.fill(stateIds, -1);
+        var reachableStates = new int[nfa.getTransitionsTotal()];
+        var reachableTotal = 0;
+        var symbols = new HashSet<String>();
+        stateIds[nfa.getInitialState()] = reachableTotal;
+        reachableStates[reachableTotal++] = nfa.getInitialState();
+        for (int i = 0; i < reachableTotal; i++) {
+            var stateTransitions = nfa.getTransitions().get(reachableStates[i]);
+            if (stateTransitions.containsKey(RegexUtils.LAMBDA)) {
+                throw new Exception("Could not compact an automaton with lambda transitions.");
+            }
+            symbols.addAll(stateTransitions.keySet());
+            for (var targets : stateTransitions.values()) {
+                for (var target : targets) {
+                    if (stateIds[target] < 0) {
+                        stateIds[target] = reachableTotal;
+                        reachableStates[reachableTotal++] = target;
+                    }
+                }
+            }
+        }
+        var alphabet = Alphabet.of(symbols, expansion);
+        var transitions = new int[reachableTotal][][];
+        var finalStates = new BitSet(reachableTotal);
+        for (int state = 0; state < reachableTotal; state++) {
+            transitions[state] = new int[alphabet.size()][];
+            for (var entry : nfa.getTransitions().get(reachableStates[state]).entrySet()) {
+                transitions[state][alphabet.getClassId(entry.getKey())] = toSortedIds(entry.getValue(), stateIds);
+            }
+            if (nfa.getFinalStates().contains(reachableStates[state])) {
+                finalStates.set(state);
+            }
+        }
+        return new CompactNFA(alphabet, 0, transitions, finalStates, Arrays.copyOf(reachableStates, reachableTotal));
+    }
+
+    /**
+     * Map the targets to their compact ids, sorted and without duplicates.
+     *
+     * @param targets  The original target states.
+     * @param stateIds The compact id of every original state.
+     * @return The sorted compact ids.
+     */
+    private static int[] toSortedIds(List<Integer> targets, int[] stateIds) {
+        var sortedIds = new int[targets.size()];
+        for (int i = 0; i < sortedIds.length; i++) {
+            sortedIds[i] = stateIds[targets.get(i)];
+        }
+        Arrays.sort(sortedIds);
+        var distinctTotal = 0;
+        for (int i = 0; i < sortedIds.length; i++) {
+            if (i == 0 || sortedIds[i] != sortedIds[i - 1]) {
+                sortedIds[distinctTotal++] = sortedIds[i];
+            }
+        }
+        return distinctTotal == sortedIds.length ? sortedIds : Arrays.copyOf(sortedIds, distinctTotal);
+    }
+
+    public Alphabet getAlphabet() {
+        return alphabet;
+    }
+
+    public int getInitialState() {
+        return initialState;
+    }
+
+    public int getStateCount() {
+        return transitions.length;
+    }
+
+    /**
+     * Get the sorted targets of a state for a symbol class.
+     *
+     * @param state   The source state.
+     * @param classId The symbol class id.
+     * @return The sorted target states, empty if there is no transition.
+     */
+    public int[] getTargets(int state, int classId) {
+        var targets = transitions[state][classId];
+        return targets == null ? NO_TARGETS : targets;
+    }
+
+    /**
+     * Get the state of the original NFA structure that a compact state stands
+     * for.
+     *
+     * @param state The compact state.
+     * @return The original state id.
+     */
+    public int getSourceState(int state) {
+        return sourceStates[state];
+    }
+
+    public boolean isFinalState(int state) {
+        return finalStates.get(state);
+    }
+
+    /**
+     * Check if a set of states has a final state.
+     *
+     * @param states The set of states.
+     * @return True if the set and the final states intersect.
+     */
+    public boolean intersectsFinalStates(BitSet states) {
+        return finalStates.intersects(states);
+    }
+}
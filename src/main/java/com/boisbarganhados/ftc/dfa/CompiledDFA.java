@@ -0,0 +1,566 @@
+package com.boisbarganhados.ftc.dfa;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+
+import com.boisbarganhados.ftc.regex.records.SubsetTable;
+
+/**
+ * Immutable compiled form of a DFA. Symbols are interned to class ids by an
+ * {@link Alphabet}, transitions are kept in a flat {@code int[states * classes]}
+ * table where {@link #NO_STATE} means no transition, and accepting states are
+ * kept in a bitset. Instances can be shared between threads.
+ */
+public final class CompiledDFA implements SentenceMatcher {
+
+    public static final int NO_STATE = -1;
+
+    private static final int ESCAPE_PENDING = 1 << 30;
+    private static final int REPLACEMENT = 0xFFFD;
+
+    private final Alphabet alphabet;
+    private final int[] transitions;
+    private final int stateCount;
+    private final int classCount;
+    private final long[] acceptingStates;
+    private final int initialState;
+    private final Prefilter prefilter;
+    private final long[] universalStates;
+
+    private CompiledDFA(Alphabet alphabet, int[] transitions, int stateCount, BitSet acceptingStates,
+            int initialState) {
+        this.alphabet = alphabet;
+        this.transitions = transitions;
+        this.stateCount = stateCount;
+        this.classCount = alphabet.size();
+        this.acceptingStates = Arrays.copyOf(acceptingStates.toLongArray(), (stateCount + 63) >>> 6);
+        this.initialState = initialState;
+        this.prefilter = null;
+        this.universalStates = null;
+    }
+
+    private CompiledDFA(CompiledDFA compiledDfa, Prefilter prefilter, long[] universalStates) {
+        this.alphabet = compiledDfa.alphabet;
+        this.transitions = compiledDfa.transitions;
+        this.stateCount = compiledDfa.stateCount;
+        this.classCount = compiledDfa.classCount;
+        this.acceptingStates = compiledDfa.acceptingStates;
+        this.initialState = compiledDfa.initialState;
+        this.prefilter = prefilter;
+        this.universalStates = universalStates;
+    }
+
+    /**
+     * Compile a DFA from its transition table.
+     *
+     * @param alphabet        The alphabet of the DFA.
+     * @param transitions     The {@code states * classes} table, which is not
+     *                        copied and must not be modified afterwards.
+     * @param acceptingStates The accepting states.
+     * @param initialState    The initial state.
+     * @return The compiled DFA.
+     */
+    public static CompiledDFA of(Alphabet alphabet, int[] transitions, BitSet acceptingStates, int initialState) {
+        var stateCount = alphabet.size() == 0 ? initialState + 1 : transitions.length / alphabet.size();
+        return new CompiledDFA(alphabet, transitions, stateCount, acceptingStates, initialState);
+    }
+
+    /**
+     * Compile the DFA built by the subset construction.
+     *
+     * @param subsetTable The subset construction result.
+     * @return The compiled DFA, with initial state 0.
+     */
+    public static CompiledDFA of(SubsetTable subsetTable) {
+        return new CompiledDFA(subsetTable.alphabet(), subsetTable.transitions(), subsetTable.stateSets().size(),
+                subsetTable.acceptingStates(), 0);
+    }
+
+    /**
+     * Compile a deterministic regex element, e.g. the result of
+     * {@link com.boisbarganhados.ftc.regex.RegexUtils#convertToDeterministic}.
+     * Escaped symbols are read as in {@link RegexDFElement#simulate}.
+     *
+     * @param regexDfa The deterministic regex element.
+     * @return The compiled DFA.
+     * @throws Exception If the automaton is non-deterministic.
+     */
+    public static CompiledDFA of(RegexDFElement regexDfa) throws Exception {
+        if (!regexDfa.isDeterministic()) {
+            throw new Exception("Could not compile a non-deterministic automaton.");
+        }
+        var symbols = new HashSet<String>();
+        regexDfa.getTransitions().forEach(stateTransitions -> symbols.addAll(stateTransitions.keySet()));
+        var alphabet = Alphabet.of(symbols, true);
+        var stateCount = regexDfa.getTransitionsTotal();
+        var transitions = new int[stateCount * alphabet.size()];
+        Arrays.fill(transitions, NO_STATE);
+        for (int state = 0; state < stateCount; state++) {
+            for (var entry : regexDfa.getTransitions().get(state).entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    transitions[state * alphabet.size() + alphabet.getClassId(entry.getKey())] = entry.getValue()
+                            .get(0);
+                }
+            }
+        }
+        var acceptingStates = new BitSet(stateCount);
+        regexDfa.getFinalStates().forEach(acceptingStates::set);
+        return new CompiledDFA(alphabet, transitions, stateCount, acceptingStates, regexDfa.getInitialState());
+    }
+
+    /**
+     * Compile a DFA model, e.g. one read from a JFF file. States are numbered by
+     * their position in the state list and symbols are read one character at a
+     * time, as in {@link DFA#runDFA}.
+     *
+     * @param dfa The DFA model.
+     * @return The compiled DFA.
+     * @throws Exception If the DFA has no initial state.
+     */
+    public static CompiledDFA of(DFA dfa) throws Exception {
+        var states = dfa.getStates();
+        var stateIds = new IdentityHashMap<DFAState, Integer>();
+        var symbols = new HashSet<String>();
+        var initialState = NO_STATE;
+        for (int state = 0; state < states.size(); state++) {
+            stateIds.put(states.get(state), state);
+            symbols.addAll(states.get(state).getTransitions().keySet());
+            if (initialState == NO_STATE && states.get(state).isInitialState()) {
+                initialState = state;
+            }
+        }
+        if (initialState == NO_STATE) {
+            throw new Exception("Could not compile a DFA without initial state.");
+        }
+        var alphabet = Alphabet.of(symbols, false);
+        var transitions = new int[states.size() * alphabet.size()];
+        Arrays.fill(transitions, NO_STATE);
+        var acceptingStates = new BitSet(states.size());
+        for (int state = 0; state < states.size(); state++) {
+            var dfaState = states.get(state);
+            for (var symbol : dfaState.getTransitions().keySet()) {
+                var target = stateIds.get(dfaState.getTransitionState(symbol));
+                if (target != null) {
+                    transitions[state * alphabet.size() + alphabet.getClassId(symbol)] = target;
+                }
+            }
+            if (dfaState.isFinalState()) {
+                acceptingStates.set(state);
+            }
+        }
+        return new CompiledDFA(alphabet, transitions, states.size(), acceptingStates, initialState);
+    }
+
+    public Alphabet getAlphabet() {
+        return alphabet;
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    public int getInitialState() {
+        return initialState;
+    }
+
+    /**
+     * Get the target of a transition.
+     *
+     * @param state   The source state.
+     * @param classId The symbol class read.
+     * @return The target state or {@link #NO_STATE}.
+     */
+    public int next(int state, int classId) {
+        return transitions[state * classCount + classId];
+    }
+
+    /**
+     * Check if a state is accepting.
+     *
+     * @param state The state, {@link #NO_STATE} is never accepting.
+     * @return True if the state is accepting.
+     */
+    public boolean isAccepting(int state) {
+        return state >= 0 && (acceptingStates[state >>> 6] & (1L << state)) != 0;
+    }
+
+    /**
+     * Convert the compiled DFA to the DFA model, e.g. to be written as a JFF
+     * file. Every state keeps its id and is named after it, and keeps its
+     * universal mark for {@link DFA#runDFA}.
+     *
+     * @return The DFA model.
+     */
+    public DFA toDFA() {
+        var states = new ArrayList<DFAState>(stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            var dfaState = new DFAState(state);
+            dfaState.setName("q" + state);
+            dfaState.setInitialState(state == initialState);
+            dfaState.setFinalState(isAccepting(state));
+            dfaState.setUniversalState(isUniversal(state));
+            states.add(dfaState);
+        }
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = next(state, classId);
+                if (target != NO_STATE) {
+                    states.get(state).put(alphabet.getSymbol(classId), states.get(target));
+                }
+            }
+        }
+        return new DFA(states);
+    }
+
+    /**
+     * Get a copy of this DFA, sharing its tables, that runs a prefilter before
+     * the DFA in every {@code matches} method. Byte input is checked on its
+     * UTF-8 bytes, without decoding it, see {@link Prefilter}.
+     *
+     * @param prefilter The prefilter, or null to run the DFA only.
+     * @return The compiled DFA with the prefilter.
+     */
+    public CompiledDFA withPrefilter(Prefilter prefilter) {
+        return new CompiledDFA(this, prefilter, universalStates);
+    }
+
+    public Prefilter getPrefilter() {
+        return prefilter;
+    }
+
+    /**
+     * Get a copy of this DFA, sharing its tables, whose matchers stop running
+     * the DFA once they reach a universal state. The rest of the word is then
+     * only checked to be made of symbols of the alphabet, since any other
+     * character still rejects it, unless it is already known to be, see
+     * {@link #matchesInAlphabet(CharSequence)}.
+     *
+     * @param universalStates The states from which every word over the
+     *                        alphabet is accepted, e.g. from
+     *                        {@link com.boisbarganhados.ftc.minimization.DFATrimmer#findUniversalStates}.
+     * @return The compiled DFA with the universal states marked.
+     */
+    public CompiledDFA withUniversalStates(BitSet universalStates) {
+        if (universalStates.isEmpty()) {
+            return new CompiledDFA(this, prefilter, null);
+        }
+        return new CompiledDFA(this, prefilter,
+                Arrays.copyOf(universalStates.toLongArray(), (stateCount + 63) >>> 6));
+    }
+
+    /**
+     * Check if a state was marked as universal.
+     *
+     * @param state The state.
+     * @return True if every word over the alphabet is accepted from the state.
+     */
+    public boolean isUniversal(int state) {
+        return universalStates != null && state >= 0 && (universalStates[state >>> 6] & (1L << state)) != 0;
+    }
+
+    /**
+     * Check if the DFA accepts the word. The prefilter, when there is one, runs
+     * first and rejects most words that cannot match without reading them all.
+     * The loop only indexes arrays and does not allocate.
+     *
+     * @param word The word to be matched.
+     * @return True if the DFA accepts the word, false otherwise.
+     */
+    @Override
+    public boolean matches(CharSequence word) {
+        if (prefilter != null && !prefilter.mayMatch(word)) {
+            return false;
+        }
+        if (universalStates == null) {
+            return isAccepting(run(word));
+        }
+        var cursor = initialState;
+        var length = word.length();
+        for (int i = 0; i < length && cursor != NO_STATE; i++) {
+            if (isUniversalCursor(cursor)) {
+                for (; i < length && cursor != NO_STATE; i++) {
+                    cursor = validate(cursor, word.charAt(i));
+                }
+                break;
+            }
+            cursor = consume(cursor, word.charAt(i));
+        }
+        return isAcceptingCursor(cursor);
+    }
+
+    /**
+     * Check if the DFA accepts a word that is known to be made of symbols of the
+     * alphabet, e.g. one generated from it or validated upstream. Reading stops
+     * at the first missing transition, which is where a trimmed DFA would reach
+     * a dead state, and at the first universal state, without looking at the
+     * rest of the word. The prefilter is not run, since it reads the whole
+     * word.
+     *
+     * @param word The word to be matched, made of symbols of the alphabet. Any
+     *             other character after a universal state is not read, so such
+     *             a word may be accepted where {@link #matches(CharSequence)}
+     *             rejects it.
+     * @return True if the DFA accepts the word, false otherwise.
+     */
+    public boolean matchesInAlphabet(CharSequence word) {
+        var cursor = initialState;
+        var length = word.length();
+        for (int i = 0; i < length; i++) {
+            if (cursor == NO_STATE) {
+                return false;
+            }
+            if (isUniversalCursor(cursor)) {
+                return true;
+            }
+            cursor = consume(cursor, word.charAt(i));
+        }
+        return isAcceptingCursor(cursor);
+    }
+
+    /**
+     * Run the DFA over the word, without allocating.
+     *
+     * @param word The word to be read.
+     * @return The state reached after the whole word, or {@link #NO_STATE} if the
+     *         DFA has no transition for a symbol or the word ends with an
+     *         incomplete escaped symbol.
+     */
+    public int run(CharSequence word) {
+        var cursor = initialState;
+        var length = word.length();
+        for (int i = 0; i < length && cursor != NO_STATE; i++) {
+            cursor = consume(cursor, word.charAt(i));
+        }
+        return cursor < ESCAPE_PENDING ? cursor : NO_STATE;
+    }
+
+    /**
+     * Check if the DFA accepts the word in a slice of a char array, without
+     * allocating.
+     *
+     * @param chars  The characters.
+     * @param offset The index of the first character of the word.
+     * @param length The number of characters of the word.
+     * @return True if the DFA accepts the word, false otherwise.
+     */
+    public boolean matches(char[] chars, int offset, int length) {
+        if (prefilter != null && !prefilter.mayMatch(chars, offset, length)) {
+            return false;
+        }
+        var cursor = initialState;
+        var end = offset + length;
+        for (int i = offset; i < end && cursor != NO_STATE; i++) {
+            cursor = isUniversalCursor(cursor) ? validate(cursor, chars[i]) : consume(cursor, chars[i]);
+        }
+        return isAcceptingCursor(cursor);
+    }
+
+    /**
+     * Check if the DFA accepts the UTF-8 encoded word in a slice of a byte array,
+     * decoding it on the fly without allocating. Malformed sequences, overlong
+     * forms and surrogates included, are read as U+FFFD, like
+     * {@link String#String(byte[], java.nio.charset.Charset)} does.
+     *
+     * @param bytes  The UTF-8 bytes.
+     * @param offset The index of the first byte of the word.
+     * @param length The number of bytes of the word.
+     * @return True if the DFA accepts the word, false otherwise.
+     */
+    public boolean matches(byte[] bytes, int offset, int length) {
+        if (prefilter != null && !prefilter.mayMatch(bytes, offset, length)) {
+            return false;
+        }
+        var cursor = initialState;
+        var end = offset + length;
+        for (int i = offset; i < end && cursor != NO_STATE;) {
+            var lead = bytes[i++] & 0xFF;
+            var codePoint = lead;
+            if (codePoint >= 0x80) {
+                var size = utf8Size(codePoint);
+                codePoint = size == 0 ? REPLACEMENT : codePoint & (0x7F >>> size);
+                for (int k = 1; k < size; k++, i++) {
+                    if (i == end || !isContinuation(lead, k, bytes[i])) {
+                        codePoint = REPLACEMENT;
+                        break;
+                    }
+                    codePoint = (codePoint << 6) | (bytes[i] & 0x3F);
+                }
+            }
+            cursor = isUniversalCursor(cursor) ? validateCodePoint(cursor, codePoint)
+                    : consumeCodePoint(cursor, codePoint);
+        }
+        return isAcceptingCursor(cursor);
+    }
+
+    /**
+     * Check if the DFA accepts the UTF-8 encoded word between the position and
+     * the limit of the buffer. Heap and direct buffers are read with absolute
+     * gets, so the buffer position is not changed and nothing is allocated.
+     *
+     * @param buffer The UTF-8 bytes.
+     * @return True if the DFA accepts the word, false otherwise.
+     */
+    public boolean matches(ByteBuffer buffer) {
+        return matches(buffer, buffer.position(), buffer.limit());
+    }
+
+    /**
+     * Check if the DFA accepts the UTF-8 encoded word between two absolute
+     * indexes of the buffer, see {@link #matches(ByteBuffer)}.
+     *
+     * @param buffer The UTF-8 bytes.
+     * @param from   The absolute index of the first byte of the word.
+     * @param to     The absolute index after the last byte of the word.
+     * @return True if the DFA accepts the word, false otherwise.
+     */
+    public boolean matches(ByteBuffer buffer, int from, int to) {
+        if (buffer.hasArray()) {
+            return matches(buffer.array(), buffer.arrayOffset() + from, to - from);
+        }
+        if (prefilter != null && !prefilter.mayMatch(buffer, from, to)) {
+            return false;
+        }
+        var cursor = initialState;
+        for (int i = from; i < to && cursor != NO_STATE;) {
+            var lead = buffer.get(i++) & 0xFF;
+            var codePoint = lead;
+            if (codePoint >= 0x80) {
+                var size = utf8Size(codePoint);
+                codePoint = size == 0 ? REPLACEMENT : codePoint & (0x7F >>> size);
+                for (int k = 1; k < size; k++, i++) {
+                    if (i == to || !isContinuation(lead, k, buffer.get(i))) {
+                        codePoint = REPLACEMENT;
+                        break;
+                    }
+                    codePoint = (codePoint << 6) | (buffer.get(i) & 0x3F);
+                }
+            }
+            cursor = isUniversalCursor(cursor) ? validateCodePoint(cursor, codePoint)
+                    : consumeCodePoint(cursor, codePoint);
+        }
+        return isAcceptingCursor(cursor);
+    }
+
+    /**
+     * Read one character. The cursor is a state, flagged with
+     * {@link #ESCAPE_PENDING} after an expansion character, so escaped symbols
+     * are resolved without building substrings.
+     *
+     * @param cursor    The current cursor.
+     * @param character The character read.
+     * @return The next cursor or {@link #NO_STATE}.
+     */
+    int consume(int cursor, char character) {
+        int classId;
+        if (cursor >= ESCAPE_PENDING) {
+            cursor -= ESCAPE_PENDING;
+            classId = alphabet.escapedClassOf(character);
+        } else if (alphabet.isExpansion(character)) {
+            return cursor + ESCAPE_PENDING;
+        } else
+            classId = alphabet.classOf(character);
+        if (classId == Alphabet.NO_CLASS) {
+            return NO_STATE;
+        }
+        return transitions[cursor * classCount + classId];
+    }
+
+    /**
+     * Read one code point, as one or two UTF-16 characters.
+     *
+     * @param cursor    The current cursor.
+     * @param codePoint The code point read.
+     * @return The next cursor or {@link #NO_STATE}.
+     */
+    private int consumeCodePoint(int cursor, int codePoint) {
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            return consume(cursor, (char) codePoint);
+        }
+        cursor = consume(cursor, Character.highSurrogate(codePoint));
+        return cursor == NO_STATE ? NO_STATE : consume(cursor, Character.lowSurrogate(codePoint));
+    }
+
+    /**
+     * Read one character from a universal state, only checking that it belongs
+     * to a symbol of the alphabet.
+     *
+     * @param cursor    The current cursor, at a universal state.
+     * @param character The character read.
+     * @return The same cursor, flagged while an escape is pending, or
+     *         {@link #NO_STATE} if the symbol is unknown.
+     */
+    private int validate(int cursor, char character) {
+        if (cursor >= ESCAPE_PENDING) {
+            return alphabet.escapedClassOf(character) == Alphabet.NO_CLASS ? NO_STATE : cursor - ESCAPE_PENDING;
+        }
+        if (alphabet.isExpansion(character)) {
+            return cursor + ESCAPE_PENDING;
+        }
+        return alphabet.classOf(character) == Alphabet.NO_CLASS ? NO_STATE : cursor;
+    }
+
+    private int validateCodePoint(int cursor, int codePoint) {
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            return validate(cursor, (char) codePoint);
+        }
+        cursor = validate(cursor, Character.highSurrogate(codePoint));
+        return cursor == NO_STATE ? NO_STATE : validate(cursor, Character.lowSurrogate(codePoint));
+    }
+
+    private boolean isUniversalCursor(int cursor) {
+        return universalStates != null && cursor < ESCAPE_PENDING && isUniversal(cursor);
+    }
+
+    boolean isAcceptingCursor(int cursor) {
+        return cursor < ESCAPE_PENDING && isAccepting(cursor);
+    }
+
+    /**
+     * Get the size of the UTF-8 sequence started by a lead byte.
+     *
+     * @param lead The lead byte, at least 0x80.
+     * @return The number of bytes of the sequence, or 0 if the byte cannot start
+     *         a sequence.
+     */
+    private static int utf8Size(int lead) {
+        if (lead >= 0xC2 && lead < 0xE0)
+            return 2;
+        if (lead >= 0xE0 && lead < 0xF0)
+            return 3;
+        if (lead >= 0xF0 && lead < 0xF5)
+            return 4;
+        return 0;
+    }
+
+    /**
+     * Check if a byte continues a UTF-8 sequence. The second byte after some
+     * lead bytes has a narrower range, which rules out overlong forms,
+     * surrogates and code points above U+10FFFF.
+     *
+     * @param lead  The lead byte of the sequence.
+     * @param index The index of the byte in the sequence, at least 1.
+     * @param next  The byte.
+     * @return True if the byte continues the sequence.
+     */
+    private static boolean isContinuation(int lead, int index, byte next) {
+        var value = next & 0xFF;
+        if (index > 1) {
+            return (value & 0xC0) == 0x80;
+        }
+        return switch (lead) {
+            case 0xE0 -> value >= 0xA0 && value < 0xC0;
+            case 0xED -> value >= 0x80 && value < 0xA0;
+            case 0xF0 -> value >= 0x90 && value < 0xC0;
+            case 0xF4 -> value >= 0x80 && value < 0x90;
+            default -> (value & 0xC0) == 0x80;
+        };
+    }
+}
\ No newline at end of file
@@ -47,7 +47,12 @@ public class DFA {
     }
 
     /**
-     * Simulate the DFA with the given input.
+     * Simulate the DFA with the given input. The simulation stops at the first
+     * symbol without a transition, so on a DFA without dead states, e.g. one
+     * trimmed by {@link com.boisbarganhados.ftc.minimization.DFATrimmer#trim(DFA)},
+     * a word is rejected as soon as it cannot be accepted. From a state marked
+     * as universal the DFA is not walked anymore, and the rest of the input is
+     * only checked to be made of symbols of the alphabet.
      * 
      * @param input The input to be simulated.
      * @return True if the DFA accepts the input, false otherwise.
@@ -59,6 +64,13 @@ public class DFA {
         }
         for (int i = 0; i < input.length(); i++) {
             String symbol = String.valueOf(input.charAt(i));
+            if (currentState.isUniversalState()) {
+                // Every symbol of the alphabet leads to a universal state.
+                if (!currentState.getTransitions().containsKey(symbol)) {
+                    return false;
+                }
+                continue;
+            }
             currentState = currentState.getTransitionState(symbol);
             if (currentState == null || currentState.getId() < 0) {
                 return false;
@@ -0,0 +1,187 @@
+package com.boisbarganhados.ftc.dfa;
+
+import java.util.TreeSet;
+
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.SubsetConstruction;
+
+/**
+ * Language equivalence of DFAs with Hopcroft and Karp's union-find
+ * bisimulation. The states of both DFAs are kept in one union-find forest,
+ * starting with the two initial states merged. Every merge pushes the pair
+ * that caused it, and each pair popped merges the targets of its states for
+ * every symbol. Two states of different acceptance in the same set prove the
+ * DFAs differ, and the symbols that led to them form a counterexample. Since
+ * every pair pushed merges two sets, at most as many pairs as states are
+ * visited and the check is near-linear, without minimizing either DFA.
+ *
+ * Symbols are matched by name. A symbol missing from a DFA, like a missing
+ * transition, goes to an implicit sink state of that DFA.
+ */
+public final class DFAEquivalence {
+
+    private DFAEquivalence() {
+    }
+
+    /**
+     * Check if two DFAs accept the same language.
+     *
+     * @param first  The first DFA.
+     * @param second The second DFA.
+     * @return True if both DFAs accept the same words.
+     */
+    public static boolean equivalent(CompiledDFA first, CompiledDFA second) {
+        return findCounterexample(first, second) == null;
+    }
+
+    /**
+     * Find a word accepted by only one of two DFA models, e.g. read from JFF
+     * files.
+     *
+     * @param first  The first DFA.
+     * @param second The second DFA.
+     * @return The word, or null if both DFAs accept the same words.
+     * @throws Exception If a DFA has no initial state.
+     */
+    public static String findCounterexample(DFA first, DFA second) throws Exception {
+        return findCounterexample(CompiledDFA.of(first), CompiledDFA.of(second));
+    }
+
+    /**
+     * Find a word matched by only one of two regexes. The regexes are
+     * determinized but not minimized.
+     *
+     * @param regex        The first regex.
+     * @param other        The second regex.
+     * @param construction The NFA construction to be used.
+     * @return The word, or null if both regexes match the same words.
+     * @throws Exception If a regex is invalid or any error occurs.
+     */
+    public static String findCounterexample(String regex, String other, NfaConstruction construction)
+            throws Exception {
+        return findCounterexample(
+                CompiledDFA.of(SubsetConstruction.determinize(CompactNFA.of(construction.getNfaFromRegex(regex)))),
+                CompiledDFA.of(SubsetConstruction.determinize(CompactNFA.of(construction.getNfaFromRegex(other)))));
+    }
+
+    /**
+     * Find a word accepted by only one of two DFAs. The word is the
+     * concatenation of the symbol names along the first pair of states found
+     * to differ, so it is short but not always the shortest.
+     *
+     * @param first  The first DFA.
+     * @param second The second DFA.
+     * @return The word, or null if both DFAs accept the same words.
+     */
+    public static String findCounterexample(CompiledDFA first, CompiledDFA second) {
+        var symbols = new TreeSet<String>();
+        for (int classId = 0; classId < first.getClassCount(); classId++) {
+            symbols.add(first.getAlphabet().getSymbol(classId));
+        }
+        for (int classId = 0; classId < second.getClassCount(); classId++) {
+            symbols.add(second.getAlphabet().getSymbol(classId));
+        }
+        var names = symbols.toArray(String[]::new);
+        var firstClasses = new int[names.length];
+        var secondClasses = new int[names.length];
+        for (int symbol = 0; symbol < names.length; symbol++) {
+            firstClasses[symbol] = first.getAlphabet().getClassId(names[symbol]);
+            secondClasses[symbol] = second.getAlphabet().getClassId(names[symbol]);
+        }
+        var firstSink = first.getStateCount();
+        var secondSink = second.getStateCount();
+        var offset = firstSink + 1;
+        var parents = new int[offset + secondSink + 1];
+        var sizes = new int[parents.length];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+        var pairFirst = new int[parents.length];
+        var pairSecond = new int[parents.length];
+        var pairPrevious = new int[parents.length];
+        var pairSymbol = new int[parents.length];
+        var pairTotal = 0;
+        pairFirst[pairTotal] = first.getInitialState();
+        pairSecond[pairTotal] = second.getInitialState();
+        pairPrevious[pairTotal++] = -1;
+        if (first.isAccepting(first.getInitialState()) != second.isAccepting(second.getInitialState())) {
+            return word(names, pairPrevious, pairSymbol, 0);
+        }
+        union(parents, sizes, first.getInitialState(), offset + second.getInitialState());
+        for (int pair = 0; pair < pairTotal; pair++) {
+            for (int symbol = 0; symbol < names.length; symbol++) {
+                var firstTarget = target(first, pairFirst[pair], firstClasses[symbol], firstSink);
+                var secondTarget = target(second, pairSecond[pair], secondClasses[symbol], secondSink);
+                if (!union(parents, sizes, firstTarget, offset + secondTarget)) {
+                    continue;
+                }
+                pairFirst[pairTotal] = firstTarget;
+                pairSecond[pairTotal] = secondTarget;
+                pairPrevious[pairTotal] = pair;
+                pairSymbol[pairTotal] = symbol;
+                if (accepting(first, firstTarget, firstSink) != accepting(second, secondTarget, secondSink)) {
+                    return word(names, pairPrevious, pairSymbol, pairTotal);
+                }
+                pairTotal++;
+            }
+        }
+        return null;
+    }
+
+    private static int target(CompiledDFA dfa, int state, int classId, int sink) {
+        if (state == sink || classId == Alphabet.NO_CLASS) {
+            return sink;
+        }
+        var target = dfa.next(state, classId);
+        return target == CompiledDFA.NO_STATE ? sink : target;
+    }
+
+    private static boolean accepting(CompiledDFA dfa, int state, int sink) {
+        return state != sink && dfa.isAccepting(state);
+    }
+
+    /**
+     * Merge the sets of two states, the smaller into the larger.
+     *
+     * @return True if the states were in different sets.
+     */
+    private static boolean union(int[] parents, int[] sizes, int state, int other) {
+        var root = find(parents, state);
+        var otherRoot = find(parents, other);
+        if (root == otherRoot) {
+            return false;
+        }
+        if (sizes[root] < sizes[otherRoot]) {
+            var swap = root;
+            root = otherRoot;
+            otherRoot = swap;
+        }
+        parents[otherRoot] = root;
+        sizes[root] += sizes[otherRoot];
+        return true;
+    }
+
+    private static int find(int[] parents, int state) {
+        while (parents[state] != state) {
+            parents[state] = parents[parents[state]];
+            state = parents[state];
+        }
+        return state;
+    }
+
+    /**
+     * Spell the symbols that lead from the initial pair to a pair.
+     */
+    private static String word(String[] names, int[] pairPrevious, int[] pairSymbol, int pair) {
+        var length = 0;
+        for (int i = pair; pairPrevious[i] >= 0; i = pairPrevious[i]) {
+            length++;
+        }
+        var symbols = new String[length];
+        for (int i = pair; pairPrevious[i] >= 0; i = pairPrevious[i]) {
+            symbols[--length] = names[pairSymbol[i]];
+        }
+        return String.join("", symbols);
+    }
+}
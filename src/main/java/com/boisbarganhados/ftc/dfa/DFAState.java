@@ -15,7 +15,7 @@ public class DFAState {
     private int id;
     private List<Integer> ids;
     private String name;
-    private boolean initialState, finalState;
+    private boolean initialState, finalState, universalState;
     @EqualsAndHashCode.Exclude
     private Map<String, HashSet<DFAState>> transitions;
 
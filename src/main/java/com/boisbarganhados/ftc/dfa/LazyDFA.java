@@ -0,0 +1,210 @@
+package com.boisbarganhados.ftc.dfa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.boisbarganhados.ftc.regex.StateSetTable;
+import com.boisbarganhados.ftc.regex.SubsetConstruction;
+
+/**
+ * Lazy DFA over a lambda-free NFA. Sets of NFA states are determinized only
+ * when the simulation reaches them, and the discovered DFA states are kept in
+ * a cache bounded by an approximate memory budget. When the budget is hit the
+ * whole cache is flushed and the simulation goes on from the current set, so
+ * patterns with an exponential subset construction never build more than the
+ * input visits.
+ *
+ * Instances keep a mutable cache and are not thread safe.
+ */
+public class LazyDFA {
+
+    public static final long DEFAULT_CACHE_BUDGET = 8L * 1024 * 1024;
+
+    private static final int DEAD_STATE = -1;
+    private static final int UNKNOWN_STATE = -2;
+    private static final int STATE_OVERHEAD_BYTES = 96;
+
+    private final CompactNFA nfa;
+    private final long cacheBudget;
+    private final SubsetConstruction construction;
+    private final StateSetTable stateSets;
+    private final List<int[]> stateTransitions;
+    private final BitSet acceptingStates;
+    private long cacheBytes;
+    private int cacheFlushes;
+    private int initialState;
+
+    /**
+     * Create a lazy DFA with the default cache budget.
+     *
+     * @param nfa The lambda-free NFA to be simulated.
+     */
+    public LazyDFA(CompactNFA nfa) {
+        this(nfa, DEFAULT_CACHE_BUDGET);
+    }
+
+    /**
+     * Create a lazy DFA.
+     *
+     * @param nfa         The lambda-free NFA to be simulated.
+     * @param cacheBudget Approximate number of bytes the state cache may use.
+     */
+    public LazyDFA(CompactNFA nfa, long cacheBudget) {
+        this.nfa = nfa;
+        this.cacheBudget = cacheBudget;
+        this.construction = new SubsetConstruction(nfa);
+        this.stateSets = new StateSetTable();
+        this.stateTransitions = new ArrayList<>();
+        this.acceptingStates = new BitSet();
+        this.initialState = UNKNOWN_STATE;
+    }
+
+    /**
+     * Create a lazy DFA from a lambda-free NFA structure.
+     *
+     * @param nfa The NFA structure, e.g. from
+     *            {@link com.boisbarganhados.ftc.regex.Thompson#getNfaFromRegex}.
+     * @return The lazy DFA with the default cache budget.
+     * @throws Exception If the NFA still has lambda transitions.
+     */
+    public static LazyDFA of(RegexDFElement nfa) throws Exception {
+        return new LazyDFA(CompactNFA.of(nfa));
+    }
+
+    /**
+     * Simulate the automaton with the given word, with the same result as
+     * {@link RegexDFElement#simulate} on the determinized automaton.
+     *
+     * @param wordStr The word to simulate the automaton.
+     * @return True if the automaton accepts the word, false otherwise.
+     * @throws Exception If the word ends with an incomplete escaped symbol.
+     */
+    public boolean simulate(String wordStr) throws Exception {
+        var alphabet = nfa.getAlphabet();
+        var checkUpState = getInitialState();
+        for (int i = 0; i < wordStr.length(); i++) {
+            int classId;
+            if (alphabet.isExpansion(wordStr.charAt(i))) {
+                if (++i == wordStr.length()) {
+                    throw new Exception("Incomplete escaped symbol at the end of the word: " + wordStr);
+                }
+                classId = alphabet.escapedClassOf(wordStr.charAt(i));
+            } else
+                classId = alphabet.classOf(wordStr.charAt(i));
+            if (classId == Alphabet.NO_CLASS) {
+                return false;
+            }
+            checkUpState = nextState(checkUpState, classId);
+            if (checkUpState == DEAD_STATE) {
+                return false;
+            }
+        }
+        return acceptingStates.get(checkUpState);
+    }
+
+    /**
+     * Get the number of DFA states currently in the cache.
+     *
+     * @return The number of cached states.
+     */
+    public int getCachedStates() {
+        return stateSets.size();
+    }
+
+    /**
+     * Get how many times the cache was flushed because of the budget.
+     *
+     * @return The number of cache flushes.
+     */
+    public int getCacheFlushes() {
+        return cacheFlushes;
+    }
+
+    /**
+     * Get the cached DFA state of the NFA initial state, adding it if needed.
+     *
+     * @return The initial DFA state.
+     */
+    private int getInitialState() {
+        if (initialState == UNKNOWN_STATE) {
+            construction.start();
+            initialState = addState();
+        }
+        return initialState;
+    }
+
+    /**
+     * Get the target of a cached DFA state, determinizing it on the first visit.
+     *
+     * @param state   The cached DFA state.
+     * @param classId The symbol class read.
+     * @return The target DFA state or the dead state.
+     */
+    private int nextState(int state, int classId) {
+        var transitions = stateTransitions.get(state);
+        if (transitions[classId] != UNKNOWN_STATE) {
+            return transitions[classId];
+        }
+        if (!construction.move(stateSets.get(state), classId)) {
+            transitions[classId] = DEAD_STATE;
+            return DEAD_STATE;
+        }
+        var cachedStates = stateSets.size();
+        var targetState = construction.intern(stateSets, acceptingStates);
+        if (targetState == cachedStates) {
+            cacheBytes += estimateBytes(stateSets.get(targetState));
+            if (cacheBytes > cacheBudget && cachedStates > 0) {
+                flushCache();
+                return addState();
+            }
+            addTransitionsRow();
+        }
+        transitions[classId] = targetState;
+        return targetState;
+    }
+
+    /**
+     * Add a new DFA state for the set of NFA states loaded in the construction.
+     *
+     * @return The new DFA state.
+     */
+    private int addState() {
+        var state = construction.intern(stateSets, acceptingStates);
+        cacheBytes += estimateBytes(stateSets.get(state));
+        addTransitionsRow();
+        return state;
+    }
+
+    /**
+     * Add the row of unknown transitions of a new DFA state.
+     */
+    private void addTransitionsRow() {
+        var transitions = new int[nfa.getAlphabet().size()];
+        Arrays.fill(transitions, UNKNOWN_STATE);
+        stateTransitions.add(transitions);
+    }
+
+    /**
+     * Drop every cached DFA state. The initial state is rebuilt on demand.
+     */
+    private void flushCache() {
+        stateSets.clear();
+        stateTransitions.clear();
+        acceptingStates.clear();
+        cacheBytes = 0;
+        initialState = UNKNOWN_STATE;
+        cacheFlushes++;
+    }
+
+    /**
+     * Estimate the bytes used by a cached DFA state.
+     *
+     * @param nfaStates The set of NFA states of the DFA state.
+     * @return The approximate size in bytes.
+     */
+    private long estimateBytes(int[] nfaStates) {
+        return STATE_OVERHEAD_BYTES + 4L * (nfaStates.length + nfa.getAlphabet().size());
+    }
+}
@@ -0,0 +1,458 @@
+package com.boisbarganhados.ftc.dfa;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.boisbarganhados.ftc.regex.records.RequiredLiterals;
+
+/**
+ * Fast reject step run before a DFA. It checks the minimum length, the
+ * required prefix and suffix and searches the required inner literal with
+ * Boyer-Moore-Horspool, so most sentences that cannot match are rejected
+ * without reading all of their characters through the DFA. A sentence that
+ * passes may still be rejected by the DFA.
+ *
+ * UTF-8 sentences are checked on their bytes, against the UTF-8 encoding of
+ * the literals: a well-formed sequence decodes to a character of a literal
+ * only if it is the encoding of that character, and every character takes at
+ * least one byte, so a byte that the literals do not allow rejects the
+ * sentence without decoding it. Only a slice too short to surely have the
+ * minimum length is decoded, to count its characters. Literals with characters that malformed input
+ * also decodes to, U+FFFD or lone surrogates, are only checked on characters.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class Prefilter {
+
+    private static final int SHIFT_TABLE_SIZE = 256;
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    private final int minLength;
+    private final String exact;
+    private final String prefix;
+    private final String suffix;
+    private final String inner;
+    private final int[] innerShifts;
+    private final boolean checksBytes;
+    private final byte[] exactBytes;
+    private final byte[] prefixBytes;
+    private final byte[] suffixBytes;
+    private final byte[] innerBytes;
+    private final int[] innerByteShifts;
+
+    private Prefilter(int minLength, String exact, String prefix, String suffix, String inner) {
+        this.minLength = minLength;
+        this.exact = exact;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.inner = inner;
+        this.innerShifts = new int[SHIFT_TABLE_SIZE];
+        Arrays.fill(innerShifts, inner.length());
+        for (int i = 0; i < inner.length() - 1; i++) {
+            innerShifts[inner.charAt(i) % SHIFT_TABLE_SIZE] = inner.length() - 1 - i;
+        }
+        this.checksBytes = isEncodable(exact) && isEncodable(prefix) && isEncodable(suffix) && isEncodable(inner);
+        this.exactBytes = checksBytes && exact != null ? exact.getBytes(StandardCharsets.UTF_8) : null;
+        this.prefixBytes = checksBytes ? prefix.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        this.suffixBytes = checksBytes ? suffix.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        this.innerBytes = checksBytes ? inner.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        this.innerByteShifts = new int[SHIFT_TABLE_SIZE];
+        Arrays.fill(innerByteShifts, innerBytes.length);
+        for (int i = 0; i < innerBytes.length - 1; i++) {
+            innerByteShifts[innerBytes[i] & 0xFF] = innerBytes.length - 1 - i;
+        }
+    }
+
+    /**
+     * Create the prefilter of the required literals of a regex, e.g. from
+     * {@link com.boisbarganhados.ftc.regex.LiteralAnalyzer}.
+     *
+     * @param literals The required literals.
+     * @return The prefilter, or null if it would not save work over the DFA:
+     *         the DFA rejects a sentence on its first character as fast as the
+     *         prefilter does, so a prefilter is only made when there is a
+     *         literal of at least two characters or a minimum length above one.
+     */
+    public static Prefilter of(RequiredLiterals literals) {
+        if (literals.exact() != null) {
+            return literals.exact().length() > 1 || literals.minLength() > 1
+                    ? new Prefilter(literals.minLength(), literals.exact(), "", "", "")
+                    : null;
+        }
+        var inner = literals.inner();
+        if (literals.prefix().contains(inner) || literals.suffix().contains(inner)) {
+            inner = "";
+        }
+        if (literals.minLength() < 2 && literals.prefix().length() < 2 && literals.suffix().length() < 2
+                && inner.length() < 2) {
+            return null;
+        }
+        return new Prefilter(literals.minLength(), null, literals.prefix(), literals.suffix(), inner);
+    }
+
+    /**
+     * Check if the sentence has every required literal.
+     *
+     * @param sentence The sentence to be checked.
+     * @return False if the sentence cannot be matched, true if the DFA must
+     *         decide.
+     */
+    public boolean mayMatch(CharSequence sentence) {
+        var length = sentence.length();
+        if (exact != null) {
+            return length == exact.length() && regionMatches(sentence, 0, exact);
+        }
+        if (length < minLength || length < prefix.length() || length < suffix.length()) {
+            return false;
+        }
+        if (!regionMatches(sentence, 0, prefix) || !regionMatches(sentence, length - suffix.length(), suffix)) {
+            return false;
+        }
+        return inner.isEmpty() || indexOfInner(sentence) >= 0;
+    }
+
+    /**
+     * Check if a slice of a char array has every required literal.
+     *
+     * @param chars  The characters.
+     * @param offset The index of the first character of the sentence.
+     * @param length The number of characters of the sentence.
+     * @return False if the sentence cannot be matched, true if the DFA must
+     *         decide.
+     */
+    public boolean mayMatch(char[] chars, int offset, int length) {
+        if (exact != null) {
+            return length == exact.length() && regionMatches(chars, offset, exact);
+        }
+        if (length < minLength || length < prefix.length() || length < suffix.length()) {
+            return false;
+        }
+        if (!regionMatches(chars, offset, prefix) || !regionMatches(chars, offset + length - suffix.length(), suffix)) {
+            return false;
+        }
+        return inner.isEmpty() || indexOfInner(chars, offset, offset + length) >= 0;
+    }
+
+    /**
+     * Check if a UTF-8 encoded slice of a byte array has every required
+     * literal, without decoding it.
+     *
+     * @param bytes  The UTF-8 bytes.
+     * @param offset The index of the first byte of the sentence.
+     * @param length The number of bytes of the sentence.
+     * @return False if the sentence cannot be matched, true if the DFA must
+     *         decide.
+     */
+    public boolean mayMatch(byte[] bytes, int offset, int length) {
+        if (length < minLength || length < MAX_BYTES_PER_CHAR * minLength
+                && decodedLength(bytes, offset, offset + length) < minLength) {
+            return false;
+        }
+        if (!checksBytes) {
+            return true;
+        }
+        if (exactBytes != null) {
+            return length == exactBytes.length && regionMatches(bytes, offset, exactBytes);
+        }
+        if (length < prefixBytes.length || length < suffixBytes.length) {
+            return false;
+        }
+        if (!regionMatches(bytes, offset, prefixBytes)
+                || !regionMatches(bytes, offset + length - suffixBytes.length, suffixBytes)) {
+            return false;
+        }
+        return innerBytes.length == 0 || indexOfInner(bytes, offset, offset + length) >= 0;
+    }
+
+    /**
+     * Check if the UTF-8 encoded sentence between two absolute indexes of the
+     * buffer has every required literal, without decoding it or changing the
+     * buffer position. A buffer backed by an accessible array is checked on
+     * the array.
+     *
+     * @param buffer The UTF-8 bytes.
+     * @param from   The absolute index of the first byte of the sentence.
+     * @param to     The absolute index after the last byte of the sentence.
+     * @return False if the sentence cannot be matched, true if the DFA must
+     *         decide.
+     */
+    public boolean mayMatch(ByteBuffer buffer, int from, int to) {
+        if (buffer.hasArray()) {
+            return mayMatch(buffer.array(), buffer.arrayOffset() + from, to - from);
+        }
+        var length = to - from;
+        if (length < minLength || length < MAX_BYTES_PER_CHAR * minLength
+                && decodedLength(buffer, from, to) < minLength) {
+            return false;
+        }
+        if (!checksBytes) {
+            return true;
+        }
+        if (exactBytes != null) {
+            return length == exactBytes.length && regionMatches(buffer, from, exactBytes);
+        }
+        if (length < prefixBytes.length || length < suffixBytes.length) {
+            return false;
+        }
+        if (!regionMatches(buffer, from, prefixBytes) || !regionMatches(buffer, to - suffixBytes.length, suffixBytes)) {
+            return false;
+        }
+        return innerBytes.length == 0 || indexOfInner(buffer, from, to) >= 0;
+    }
+
+    private static boolean regionMatches(CharSequence sentence, int offset, String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (sentence.charAt(offset + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(char[] chars, int offset, String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (chars[offset + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(byte[] bytes, int offset, byte[] literal) {
+        for (int i = 0; i < literal.length; i++) {
+            if (bytes[offset + i] != literal[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(ByteBuffer buffer, int offset, byte[] literal) {
+        for (int i = 0; i < literal.length; i++) {
+            if (buffer.get(offset + i) != literal[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count the UTF-16 characters a slice of UTF-8 bytes decodes to. A
+     * malformed slice decodes to at most one character per byte, so its byte
+     * length is returned instead.
+     *
+     * @param bytes The UTF-8 bytes.
+     * @param from  The index of the first byte of the slice.
+     * @param to    The index after the last byte of the slice.
+     * @return The number of characters, or the number of bytes if the slice is
+     *         malformed.
+     */
+    private static int decodedLength(byte[] bytes, int from, int to) {
+        var length = 0;
+        for (int i = from; i < to;) {
+            var size = sequenceSize(bytes[i]);
+            if (size == 1) {
+                length++;
+                i++;
+                continue;
+            }
+            if (size == 0 || i + size > to) {
+                return to - from;
+            }
+            var codePoint = bytes[i] & (0xFF >> (size + 1));
+            for (int k = 1; k < size; k++) {
+                if ((bytes[i + k] & 0xC0) != 0x80) {
+                    return to - from;
+                }
+                codePoint = codePoint << 6 | bytes[i + k] & 0x3F;
+            }
+            if (!isShortestForm(codePoint, size)) {
+                return to - from;
+            }
+            length += Character.charCount(codePoint);
+            i += size;
+        }
+        return length;
+    }
+
+    /**
+     * Count the UTF-16 characters the UTF-8 bytes between two absolute indexes
+     * of a buffer decode to, like {@link #decodedLength(byte[], int, int)}.
+     */
+    private static int decodedLength(ByteBuffer buffer, int from, int to) {
+        var length = 0;
+        for (int i = from; i < to;) {
+            var size = sequenceSize(buffer.get(i));
+            if (size == 1) {
+                length++;
+                i++;
+                continue;
+            }
+            if (size == 0 || i + size > to) {
+                return to - from;
+            }
+            var codePoint = buffer.get(i) & (0xFF >> (size + 1));
+            for (int k = 1; k < size; k++) {
+                if ((buffer.get(i + k) & 0xC0) != 0x80) {
+                    return to - from;
+                }
+                codePoint = codePoint << 6 | buffer.get(i + k) & 0x3F;
+            }
+            if (!isShortestForm(codePoint, size)) {
+                return to - from;
+            }
+            length += Character.charCount(codePoint);
+            i += size;
+        }
+        return length;
+    }
+
+    /**
+     * Get the size of the UTF-8 sequence started by a byte, or 0 if the byte
+     * cannot start one.
+     */
+    private static int sequenceSize(byte lead) {
+        var unsigned = lead & 0xFF;
+        if (unsigned < 0x80) {
+            return 1;
+        }
+        if (unsigned >= 0xC2 && unsigned <= 0xDF) {
+            return 2;
+        }
+        if (unsigned >= 0xE0 && unsigned <= 0xEF) {
+            return 3;
+        }
+        return unsigned >= 0xF0 && unsigned <= 0xF4 ? 4 : 0;
+    }
+
+    /**
+     * Check if a decoded code point is a scalar value written with the fewest
+     * bytes, as the UTF-8 decoder requires.
+     */
+    private static boolean isShortestForm(int codePoint, int size) {
+        return switch (size) {
+            case 3 -> codePoint >= 0x800 && (codePoint < Character.MIN_SURROGATE || codePoint > Character.MAX_SURROGATE);
+            case 4 -> codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT && codePoint <= Character.MAX_CODE_POINT;
+            default -> true;
+        };
+    }
+
+    /**
+     * Check if a literal can be searched in UTF-8 bytes: it has no U+FFFD,
+     * which malformed bytes decode to, and no lone surrogate, which has no
+     * UTF-8 encoding.
+     */
+    private static boolean isEncodable(String literal) {
+        if (literal == null) {
+            return true;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            var character = literal.charAt(i);
+            if (character == '\uFFFD') {
+                return false;
+            }
+            if (Character.isHighSurrogate(character) && i + 1 < literal.length()
+                    && Character.isLowSurrogate(literal.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(character)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Search the inner literal with Boyer-Moore-Horspool. Characters share the
+     * shift of their slot in the table, which keeps the shifts safe.
+     *
+     * @param sentence The sentence to be searched.
+     * @return The index of the inner literal or -1 if it is not found.
+     */
+    private int indexOfInner(CharSequence sentence) {
+        var last = inner.length() - 1;
+        for (int i = 0; i + last < sentence.length();) {
+            var j = last;
+            while (j >= 0 && sentence.charAt(i + j) == inner.charAt(j)) {
+                j--;
+            }
+            if (j < 0) {
+                return i;
+            }
+            i += innerShifts[sentence.charAt(i + last) % SHIFT_TABLE_SIZE];
+        }
+        return -1;
+    }
+
+    /**
+     * Search the inner literal in a slice of a char array with
+     * Boyer-Moore-Horspool.
+     *
+     * @param chars The characters.
+     * @param from  The index of the first character of the sentence.
+     * @param to    The index after the last character of the sentence.
+     * @return The index of the inner literal or -1 if it is not found.
+     */
+    private int indexOfInner(char[] chars, int from, int to) {
+        var last = inner.length() - 1;
+        for (int i = from; i + last < to;) {
+            var j = last;
+            while (j >= 0 && chars[i + j] == inner.charAt(j)) {
+                j--;
+            }
+            if (j < 0) {
+                return i;
+            }
+            i += innerShifts[chars[i + last] % SHIFT_TABLE_SIZE];
+        }
+        return -1;
+    }
+
+    /**
+     * Search the UTF-8 bytes of the inner literal in a slice of a byte array
+     * with Boyer-Moore-Horspool, with a shift for every byte value.
+     *
+     * @param bytes The UTF-8 bytes.
+     * @param from  The index of the first byte of the sentence.
+     * @param to    The index after the last byte of the sentence.
+     * @return The index of the inner literal or -1 if it is not found.
+     */
+    private int indexOfInner(byte[] bytes, int from, int to) {
+        var last = innerBytes.length - 1;
+        for (int i = from; i + last < to;) {
+            var j = last;
+            while (j >= 0 && bytes[i + j] == innerBytes[j]) {
+                j--;
+            }
+            if (j < 0) {
+                return i;
+            }
+            i += innerByteShifts[bytes[i + last] & 0xFF];
+        }
+        return -1;
+    }
+
+    /**
+     * Search the UTF-8 bytes of the inner literal with Boyer-Moore-Horspool,
+     * with a shift for every byte value.
+     *
+     * @param buffer The UTF-8 bytes.
+     * @param from   The absolute index of the first byte of the sentence.
+     * @param to     The absolute index after the last byte of the sentence.
+     * @return The index of the inner literal or -1 if it is not found.
+     */
+    private int indexOfInner(ByteBuffer buffer, int from, int to) {
+        var last = innerBytes.length - 1;
+        for (int i = from; i + last < to;) {
+            var j = last;
+            while (j >= 0 && buffer.get(i + j) == innerBytes[j]) {
+                j--;
+            }
+            if (j < 0) {
+                return i;
+            }
+            i += innerByteShifts[buffer.get(i + last) & 0xFF];
+        }
+        return -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,326 @@
+package com.boisbarganhados.ftc.dfa;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.TreeSet;
+
+import com.boisbarganhados.ftc.minimization.HopcroftDFAMinimizer;
+
+/**
+ * Lazy product of compiled DFAs for the boolean operations on their
+ * languages. A product state is a pair of operand states, and pairs are only
+ * interned when a matched word reaches them, so a product that would blow up
+ * when built as a whole keeps no more states than the input visits. Each pair
+ * caches its targets, so later words reuse them as a plain DFA would.
+ *
+ * The operands are read over the union of their alphabets, with symbols
+ * matched by name. A symbol or transition missing from an operand goes to an
+ * implicit sink of that operand. Characters that are in neither alphabet
+ * still reject the word, so the complement is taken over words of the DFA's
+ * own alphabet.
+ *
+ * Instances keep a mutable cache and are not thread safe; {@link #build}
+ * gives an immutable compiled DFA that can be shared.
+ */
+public final class ProductDFA {
+
+    /**
+     * The boolean operation applied to the acceptance of the operands.
+     */
+    public enum Operation {
+        INTERSECTION,
+        UNION,
+        DIFFERENCE,
+        COMPLEMENT;
+
+        /**
+         * Combine the acceptance of the operands.
+         *
+         * @param first  True if the first operand accepts.
+         * @param second True if the second operand accepts.
+         * @return True if the product accepts.
+         */
+        public boolean accepts(boolean first, boolean second) {
+            return switch (this) {
+                case INTERSECTION -> first && second;
+                case UNION -> first || second;
+                case DIFFERENCE -> first && !second;
+                case COMPLEMENT -> !first;
+            };
+        }
+    }
+
+    private static final int DEAD_STATE = -1;
+    private static final int UNKNOWN_STATE = -2;
+    private static final long EMPTY_KEY = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Operation operation;
+    private final CompiledDFA first;
+    private final CompiledDFA second;
+    private final Alphabet alphabet;
+    private final int[] firstClasses;
+    private final int[] secondClasses;
+    private final int firstSink;
+    private final int secondSink;
+    private final BitSet acceptingStates;
+    private int[] pairFirst;
+    private int[] pairSecond;
+    private int[] transitions;
+    private long[] slotKeys;
+    private int[] slotStates;
+    private int stateCount;
+    private int initialState;
+
+    private ProductDFA(Operation operation, CompiledDFA first, CompiledDFA second) {
+        this.operation = operation;
+        this.first = first;
+        this.second = second;
+        var symbols = new TreeSet<String>();
+        for (int classId = 0; classId < first.getClassCount(); classId++) {
+            symbols.add(first.getAlphabet().getSymbol(classId));
+        }
+        if (second != null) {
+            for (int classId = 0; classId < second.getClassCount(); classId++) {
+                symbols.add(second.getAlphabet().getSymbol(classId));
+            }
+        }
+        this.alphabet = Alphabet.of(symbols, first.getAlphabet().hasExpansion()
+                || second != null && second.getAlphabet().hasExpansion());
+        this.firstClasses = new int[alphabet.size()];
+        this.secondClasses = new int[alphabet.size()];
+        for (int classId = 0; classId < alphabet.size(); classId++) {
+            firstClasses[classId] = first.getAlphabet().getClassId(alphabet.getSymbol(classId));
+            secondClasses[classId] = second == null ? Alphabet.NO_CLASS
+                    : second.getAlphabet().getClassId(alphabet.getSymbol(classId));
+        }
+        this.firstSink = first.getStateCount();
+        this.secondSink = second == null ? 0 : second.getStateCount();
+        this.acceptingStates = new BitSet();
+        this.pairFirst = new int[INITIAL_CAPACITY];
+        this.pairSecond = new int[INITIAL_CAPACITY];
+        this.transitions = new int[INITIAL_CAPACITY * alphabet.size()];
+        this.slotKeys = new long[INITIAL_CAPACITY * 2];
+        this.slotStates = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(slotKeys, EMPTY_KEY);
+        this.initialState = intern(first.getInitialState(),
+                second == null ? secondSink : second.getInitialState());
+    }
+
+    /**
+     * Create the lazy intersection of two DFAs.
+     *
+     * @param first  The first DFA.
+     * @param second The second DFA.
+     * @return The product accepting the words both DFAs accept.
+     */
+    public static ProductDFA intersection(CompiledDFA first, CompiledDFA second) {
+        return new ProductDFA(Operation.INTERSECTION, first, second);
+    }
+
+    /**
+     * Create the lazy union of two DFAs.
+     *
+     * @param first  The first DFA.
+     * @param second The second DFA.
+     * @return The product accepting the words either DFA accepts.
+     */
+    public static ProductDFA union(CompiledDFA first, CompiledDFA second) {
+        return new ProductDFA(Operation.UNION, first, second);
+    }
+
+    /**
+     * Create the lazy difference of two DFAs, e.g. an allow-list minus a
+     * deny-list.
+     *
+     * @param first  The DFA of the accepted words.
+     * @param second The DFA of the excluded words.
+     * @return The product accepting the words only the first DFA accepts.
+     */
+    public static ProductDFA difference(CompiledDFA first, CompiledDFA second) {
+        return new ProductDFA(Operation.DIFFERENCE, first, second);
+    }
+
+    /**
+     * Create the lazy complement of a DFA over its own alphabet.
+     *
+     * @param dfa The DFA.
+     * @return The product accepting the words of the alphabet the DFA rejects.
+     */
+    public static ProductDFA complement(CompiledDFA dfa) {
+        return new ProductDFA(Operation.COMPLEMENT, dfa, null);
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Alphabet getAlphabet() {
+        return alphabet;
+    }
+
+    /**
+     * Get the number of pair states interned so far.
+     *
+     * @return The number of cached states.
+     */
+    public int getCachedStates() {
+        return stateCount;
+    }
+
+    /**
+     * Check if the product accepts the whole word, interning the pairs it
+     * visits.
+     *
+     * @param word The word to be matched.
+     * @return True if the word is accepted.
+     */
+    public boolean matches(CharSequence word) {
+        var state = initialState;
+        var length = word.length();
+        for (int i = 0; i < length && state != DEAD_STATE; i++) {
+            int classId;
+            if (alphabet.isExpansion(word.charAt(i))) {
+                if (++i == length) {
+                    return false;
+                }
+                classId = alphabet.escapedClassOf(word.charAt(i));
+            } else
+                classId = alphabet.classOf(word.charAt(i));
+            if (classId == Alphabet.NO_CLASS) {
+                return false;
+            }
+            state = next(state, classId);
+        }
+        return state != DEAD_STATE && acceptingStates.get(state);
+    }
+
+    /**
+     * Build the whole product as a compiled DFA. Only the pairs reachable from
+     * the initial pair are interned, and pairs that can never accept are left
+     * out as missing transitions.
+     *
+     * @param minimize True to minimize the product.
+     * @return The compiled DFA of the product, with initial state 0.
+     */
+    public CompiledDFA build(boolean minimize) {
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < alphabet.size(); classId++) {
+                next(state, classId);
+            }
+        }
+        var classCount = alphabet.size();
+        var table = Arrays.copyOf(transitions, stateCount * classCount);
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == DEAD_STATE) {
+                table[i] = CompiledDFA.NO_STATE;
+            }
+        }
+        var compiledDfa = CompiledDFA.of(alphabet, table, (BitSet) acceptingStates.clone(), initialState);
+        return minimize ? HopcroftDFAMinimizer.minimize(compiledDfa) : compiledDfa;
+    }
+
+    /**
+     * Get the target of a pair, interning it on the first visit.
+     *
+     * @param state   The pair state.
+     * @param classId The symbol class read.
+     * @return The target pair or the dead state.
+     */
+    private int next(int state, int classId) {
+        var index = state * alphabet.size() + classId;
+        if (transitions[index] == UNKNOWN_STATE) {
+            var firstTarget = target(first, pairFirst[state], firstClasses[classId], firstSink);
+            var secondTarget = target(second, pairSecond[state], secondClasses[classId], secondSink);
+            var target = isDead(firstTarget, secondTarget) ? DEAD_STATE : intern(firstTarget, secondTarget);
+            transitions[index] = target;
+        }
+        return transitions[index];
+    }
+
+    private static int target(CompiledDFA dfa, int state, int classId, int sink) {
+        if (state == sink || classId == Alphabet.NO_CLASS) {
+            return sink;
+        }
+        var target = dfa.next(state, classId);
+        return target == CompiledDFA.NO_STATE ? sink : target;
+    }
+
+    /**
+     * Check if no word can lead a pair to acceptance. An operand in its sink
+     * never accepts again, any other state is assumed to accept or not.
+     *
+     * @param firstState  The state of the first operand.
+     * @param secondState The state of the second operand.
+     * @return True if the operation rejects every outcome left.
+     */
+    private boolean isDead(int firstState, int secondState) {
+        var firstLive = firstState != firstSink;
+        var secondLive = secondState != secondSink;
+        return !operation.accepts(false, false) && !(firstLive && operation.accepts(true, false))
+                && !(secondLive && operation.accepts(false, true))
+                && !(firstLive && secondLive && operation.accepts(true, true));
+    }
+
+    /**
+     * Get the pair state of two operand states, adding it if needed.
+     *
+     * @param firstState  The state of the first operand.
+     * @param secondState The state of the second operand.
+     * @return The pair state.
+     */
+    private int intern(int firstState, int secondState) {
+        var key = ((long) firstState << 32) | secondState;
+        var mask = slotKeys.length - 1;
+        var slot = hash(key) & mask;
+        while (slotKeys[slot] != EMPTY_KEY) {
+            if (slotKeys[slot] == key) {
+                return slotStates[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (stateCount == pairFirst.length) {
+            pairFirst = Arrays.copyOf(pairFirst, stateCount * 2);
+            pairSecond = Arrays.copyOf(pairSecond, stateCount * 2);
+            transitions = Arrays.copyOf(transitions, stateCount * 2 * alphabet.size());
+        }
+        var state = stateCount++;
+        pairFirst[state] = firstState;
+        pairSecond[state] = secondState;
+        Arrays.fill(transitions, state * alphabet.size(), (state + 1) * alphabet.size(), UNKNOWN_STATE);
+        if (operation.accepts(firstState != firstSink && first.isAccepting(firstState),
+                secondState != secondSink && second.isAccepting(secondState))) {
+            acceptingStates.set(state);
+        }
+        slotKeys[slot] = key;
+        slotStates[slot] = state;
+        if (stateCount * 2 > slotKeys.length) {
+            rehash();
+        }
+        return state;
+    }
+
+    private void rehash() {
+        var keys = slotKeys;
+        var states = slotStates;
+        slotKeys = new long[keys.length * 2];
+        slotStates = new int[keys.length * 2];
+        Arrays.fill(slotKeys, EMPTY_KEY);
+        var mask = slotKeys.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY_KEY) {
+                var slot = hash(keys[i]) & mask;
+                while (slotKeys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                slotKeys[slot] = keys[i];
+                slotStates[slot] = states[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        key *= 0x9e3779b97f4a7c15L;
+        return (int) (key ^ (key >>> 32));
+    }
+}
@@ -2,10 +2,10 @@ package com.boisbarganhados.ftc.dfa;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import com.boisbarganhados.ftc.regex.RegexParser;
 import com.boisbarganhados.ftc.regex.RegexUtils;
 
 import lombok.AllArgsConstructor;
@@ -20,6 +20,8 @@ public class RegexDFElement {
 
     private Set<String> alphabetSet;
     private Set<Integer> finalStates;
+    @Builder.Default
+    private Set<Integer> universalStates = new HashSet<>();
 
     private int initialState;
     private boolean deterministic;
@@ -28,25 +30,12 @@ public class RegexDFElement {
     private List<HashMap<String, List<Integer>>> transitions;
 
     /**
-     * Start the NFA structure with the initial and final states.
-     * 
-     * @param regex The regex to be used in the NFA.
-     */
-    public void startNfaStructure(String regex) throws Exception {
-        if (isDeterministic()) {
-            throw new Exception("Could not start a deterministic automaton with a regex.");
-        }
-        this.setAlphabetSet(RegexParser.getAlphabetFromRegex(regex));
-        this.getTransitions().add(new HashMap<String, List<Integer>>());
-        List<Integer> auxTargetStates = new ArrayList<Integer>();
-        this.getTransitions().get(this.getInitialState()).put(regex, auxTargetStates);
-        this.getTransitions().add(new HashMap<String, List<Integer>>());
-        auxTargetStates.add(this.getTransitionsTotal() - 1);
-        this.getFinalStates().add(this.getTransitionsTotal() - 1);
-    }
-
-    /**
-     * Simulate the automaton with the given word.
+     * Simulate the automaton with the given word. The simulation stops at the
+     * first symbol without a transition, and
+     * {@link RegexUtils#convertToDeterministic} keeps no dead state, so a word is
+     * rejected as soon as it cannot be accepted. From a universal state the
+     * automaton is not walked anymore, and the rest of the word is only checked
+     * to be made of symbols of the alphabet.
      * 
      * @param wordStr The word to simulate the automaton.
      * @return True if the automaton accepts the word, false otherwise.
@@ -67,6 +56,13 @@ public class RegexDFElement {
                 i++;
             } else
                 symbol = wordStr.substring(i, i + 1);
+            if (this.universalStates.contains(checkUpState)) {
+                // Every symbol of the alphabet leads to a universal state.
+                if (!this.transitions.get(checkUpState).containsKey(symbol)) {
+                    return false;
+                }
+                continue;
+            }
             var toState = this.transitions.get(checkUpState).get(symbol);
             if (toState == null || (Integer.valueOf(checkUpState = toState.get(0))) == null) {
                 return false;
@@ -88,6 +84,16 @@ public class RegexDFElement {
         return getTransitionsTotal() - 1;
     }
 
+    /**
+     * Add a new state without incoming transitions to the automaton.
+     * 
+     * @return The index of the new state.
+     */
+    public int addNewState() {
+        this.transitions.add(new HashMap<String, List<Integer>>());
+        return getTransitionsTotal() - 1;
+    }
+
     /**
      * Add transitions to the finite automaton.
      * 
@@ -0,0 +1,18 @@
+package com.boisbarganhados.ftc.dfa;
+
+/**
+ * Automaton that can be matched against whole sentences. Implementations used
+ * by the batch evaluation in {@link com.boisbarganhados.ftc.regex.RegexUtils}
+ * are shared between threads, so they must be immutable or thread safe.
+ */
+@FunctionalInterface
+public interface SentenceMatcher {
+
+    /**
+     * Check if the automaton accepts the sentence.
+     *
+     * @param sentence The sentence to be matched.
+     * @return True if the sentence is accepted, false otherwise.
+     */
+    boolean matches(CharSequence sentence);
+}
@@ -0,0 +1,83 @@
+package com.boisbarganhados.ftc.dfa;
+
+/**
+ * Resumable matcher over a compiled DFA. The input is fed in chunks, and the
+ * current state, with a pending escape when a chunk ends right after the
+ * expansion character, is kept between them, so inputs of any length are
+ * matched in constant memory and without allocating.
+ *
+ * Instances keep the matching state and are not thread safe, but many of them
+ * can share the same compiled DFA.
+ */
+public final class StreamingMatcher {
+
+    private final CompiledDFA compiledDfa;
+    private int cursor;
+
+    /**
+     * Create a matcher at the initial state of the DFA.
+     *
+     * @param compiledDfa The compiled DFA to be matched.
+     */
+    public StreamingMatcher(CompiledDFA compiledDfa) {
+        this.compiledDfa = compiledDfa;
+        reset();
+    }
+
+    /**
+     * Read the next chunk of the input.
+     *
+     * @param chunk The characters of the chunk.
+     * @return This matcher.
+     */
+    public StreamingMatcher feed(CharSequence chunk) {
+        var length = chunk.length();
+        for (int i = 0; i < length && cursor != CompiledDFA.NO_STATE; i++) {
+            cursor = compiledDfa.consume(cursor, chunk.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Read the next chunk of the input from a slice of a char array.
+     *
+     * @param chars  The characters.
+     * @param offset The index of the first character of the chunk.
+     * @param length The number of characters of the chunk.
+     * @return This matcher.
+     */
+    public StreamingMatcher feed(char[] chars, int offset, int length) {
+        var end = offset + length;
+        for (int i = offset; i < end && cursor != CompiledDFA.NO_STATE; i++) {
+            cursor = compiledDfa.consume(cursor, chars[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Check if the input read so far is accepted. An input that ends with the
+     * expansion character is not accepted until the escaped symbol is read.
+     *
+     * @return True if the DFA accepts the input read so far.
+     */
+    public boolean isAccepting() {
+        return compiledDfa.isAcceptingCursor(cursor);
+    }
+
+    /**
+     * Check if the DFA had no transition for the input, in which case no further
+     * chunk can make it accepted and feeding more input does nothing.
+     *
+     * @return True if the input was rejected.
+     */
+    public boolean isDead() {
+        return cursor == CompiledDFA.NO_STATE;
+    }
+
+    /**
+     * Go back to the initial state, to match a new input.
+     */
+    public void reset() {
+        cursor = compiledDfa.getInitialState();
+    }
+}
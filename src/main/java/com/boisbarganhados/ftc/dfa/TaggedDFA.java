@@ -0,0 +1,201 @@
+package com.boisbarganhados.ftc.dfa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import com.boisbarganhados.ftc.regex.SubsetConstruction;
+
+/**
+ * Single DFA for many patterns. The lambda-free NFAs of the patterns are joined
+ * under a shared initial state and determinized once, and every DFA state is
+ * tagged with the patterns whose final states it holds, so one pass over a
+ * sentence reports every matching pattern. Patterns are identified by their
+ * index, and a lower index means a higher priority.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class TaggedDFA implements SentenceMatcher {
+
+    public static final int NO_PATTERN = -1;
+
+    private final CompiledDFA compiledDfa;
+    private final int patternCount;
+    private final int patternWords;
+    private final long[] statePatterns;
+    private final int[] firstPatterns;
+
+    private TaggedDFA(CompiledDFA compiledDfa, int patternCount, long[] statePatterns) {
+        this.compiledDfa = compiledDfa;
+        this.patternCount = patternCount;
+        this.patternWords = (patternCount + 63) >>> 6;
+        this.statePatterns = statePatterns;
+        this.firstPatterns = new int[compiledDfa.getStateCount()];
+        for (int state = 0; state < firstPatterns.length; state++) {
+            firstPatterns[state] = NO_PATTERN;
+            for (int word = 0; word < patternWords; word++) {
+                var patterns = statePatterns[state * patternWords + word];
+                if (patterns != 0) {
+                    firstPatterns[state] = (word << 6) + Long.numberOfTrailingZeros(patterns);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the tagged DFA of lambda-free NFAs, like the ones returned by
+     * {@link com.boisbarganhados.ftc.regex.NfaConstruction#getNfaFromRegex}.
+     *
+     * @param nfas The NFA structures, in priority order.
+     * @return The tagged DFA.
+     * @throws Exception If there is no NFA or an NFA still has lambda
+     *                   transitions.
+     */
+    public static TaggedDFA of(List<RegexDFElement> nfas) throws Exception {
+        if (nfas == null || nfas.isEmpty()) {
+            throw new Exception("Patterns list cannot be null or empty.");
+        }
+        var patternCount = nfas.size();
+        var patternOffsets = new int[patternCount + 1];
+        var nullablePatterns = new BitSet(patternCount);
+        var transitions = new ArrayList<HashMap<String, List<Integer>>>();
+        var finalStates = new HashSet<Integer>();
+        var alphabetSet = new HashSet<String>();
+        transitions.add(new HashMap<String, List<Integer>>());
+        for (int pattern = 0; pattern < patternCount; pattern++) {
+            var nfa = nfas.get(pattern);
+            var offset = transitions.size();
+            patternOffsets[pattern] = offset;
+            for (var stateTransitions : nfa.getTransitions()) {
+                transitions.add(shiftTargets(stateTransitions, offset));
+            }
+            nfa.getFinalStates().forEach(state -> finalStates.add(state + offset));
+            shiftTargets(nfa.getTransitions().get(nfa.getInitialState()), offset).forEach((symbol,
+                    targets) -> transitions.get(0).computeIfAbsent(symbol, key -> new ArrayList<Integer>())
+                            .addAll(targets));
+            if (nfa.getFinalStates().contains(nfa.getInitialState())) {
+                nullablePatterns.set(pattern);
+                finalStates.add(0);
+            }
+            alphabetSet.addAll(nfa.getAlphabetSet());
+        }
+        patternOffsets[patternCount] = transitions.size();
+        var nfa = CompactNFA.of(RegexDFElement.builder()
+                .alphabetSet(alphabetSet)
+                .finalStates(finalStates)
+                .initialState(0)
+                .deterministic(false)
+                .transitions(transitions)
+                .build());
+        var subsetTable = SubsetConstruction.determinize(nfa);
+        var patternWords = (patternCount + 63) >>> 6;
+        var stateCount = subsetTable.stateSets().size();
+        var statePatterns = new long[stateCount * patternWords];
+        var nullableWords = nullablePatterns.toLongArray();
+        for (int state = 0; state < stateCount; state++) {
+            if (!subsetTable.acceptingStates().get(state)) {
+                continue;
+            }
+            for (var nfaState : subsetTable.stateSets().get(state)) {
+                if (!nfa.isFinalState(nfaState)) {
+                    continue;
+                }
+                var sourceState = nfa.getSourceState(nfaState);
+                if (sourceState == 0) {
+                    for (int word = 0; word < nullableWords.length; word++) {
+                        statePatterns[state * patternWords + word] |= nullableWords[word];
+                    }
+                    continue;
+                }
+                var pattern = Arrays.binarySearch(patternOffsets, sourceState);
+                pattern = pattern >= 0 ? pattern : -pattern - 2;
+                statePatterns[state * patternWords + (pattern >>> 6)] |= 1L << pattern;
+            }
+        }
+        return new TaggedDFA(CompiledDFA.of(subsetTable), patternCount, statePatterns);
+    }
+
+    /**
+     * Copy the transitions of a state with every target moved by an offset.
+     *
+     * @param stateTransitions The transitions of the state.
+     * @param offset           The offset added to the targets.
+     * @return The shifted transitions.
+     */
+    private static HashMap<String, List<Integer>> shiftTargets(HashMap<String, List<Integer>> stateTransitions,
+            int offset) {
+        var shiftedTransitions = new HashMap<String, List<Integer>>();
+        stateTransitions.forEach((symbol, targets) -> {
+            var shiftedTargets = new ArrayList<Integer>(targets.size());
+            targets.forEach(target -> shiftedTargets.add(target + offset));
+            shiftedTransitions.put(symbol, shiftedTargets);
+        });
+        return shiftedTransitions;
+    }
+
+    public CompiledDFA getCompiledDFA() {
+        return compiledDfa;
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    /**
+     * Get the patterns accepted in a state.
+     *
+     * @param state The DFA state, {@link CompiledDFA#NO_STATE} accepts none.
+     * @return The indexes of the accepted patterns.
+     */
+    public BitSet getPatterns(int state) {
+        if (state == CompiledDFA.NO_STATE) {
+            return new BitSet(patternCount);
+        }
+        return BitSet.valueOf(Arrays.copyOfRange(statePatterns, state * patternWords, (state + 1) * patternWords));
+    }
+
+    /**
+     * Get the accepted pattern with the highest priority in a state.
+     *
+     * @param state The DFA state, {@link CompiledDFA#NO_STATE} accepts none.
+     * @return The lowest accepted pattern index, or {@link #NO_PATTERN}.
+     */
+    public int getFirstPattern(int state) {
+        return state == CompiledDFA.NO_STATE ? NO_PATTERN : firstPatterns[state];
+    }
+
+    /**
+     * Get every pattern that matches the sentence, in one pass.
+     *
+     * @param sentence The sentence to be matched.
+     * @return The indexes of the matching patterns.
+     */
+    public BitSet matchingPatterns(CharSequence sentence) {
+        return getPatterns(compiledDfa.run(sentence));
+    }
+
+    /**
+     * Get the matching pattern with the highest priority, without allocating.
+     *
+     * @param sentence The sentence to be matched.
+     * @return The lowest matching pattern index, or {@link #NO_PATTERN}.
+     */
+    public int firstMatchingPattern(CharSequence sentence) {
+        return getFirstPattern(compiledDfa.run(sentence));
+    }
+
+    /**
+     * Check if any pattern matches the sentence.
+     *
+     * @param sentence The sentence to be matched.
+     * @return True if at least one pattern matches.
+     */
+    @Override
+    public boolean matches(CharSequence sentence) {
+        return compiledDfa.matches(sentence);
+    }
+}
@@ -0,0 +1,240 @@
+package com.boisbarganhados.ftc.generator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import com.boisbarganhados.ftc.dfa.Alphabet;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.jflap.JFFStreamWriter;
+
+/**
+ * Seeded generator of random DFAs for benchmarks. Every transition and the
+ * acceptance of every state are drawn from a hash of the seed and the state,
+ * so any part of the DFA can be computed on its own: the DFA is written to a
+ * JFF file one state at a time, without keeping any table, and the same seed
+ * always gives the same DFA.
+ *
+ * To keep every state reachable, each state {@code s} has a transition to
+ * {@code (s + stride) mod n} on one of its symbols, with a stride coprime to
+ * the number of states, so these transitions visit every state from the
+ * initial state 0. The other transitions go to uniformly random states, and
+ * in partial DFAs each of them exists with the given density.
+ */
+public final class RandomDFAGenerator {
+
+    public static final int MAX_STATES = 10_000_000;
+    public static final String SYMBOLS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double UNIT = 0x1.0p-53;
+
+    private final long seed;
+    private final int stateCount;
+    private final int alphabetSize;
+    private final double density;
+    private final double finalRatio;
+    private final int stride;
+
+    private RandomDFAGenerator(long seed, int stateCount, int alphabetSize, double density, double finalRatio) {
+        this.seed = seed;
+        this.stateCount = stateCount;
+        this.alphabetSize = alphabetSize;
+        this.density = density;
+        this.finalRatio = finalRatio;
+        this.stride = findStride();
+    }
+
+    /**
+     * Create a generator of complete DFAs, with every transition defined.
+     *
+     * @param seed         The seed of the DFA.
+     * @param stateCount   The number of states, up to {@link #MAX_STATES}.
+     * @param alphabetSize The number of symbols, up to the length of
+     *                     {@link #SYMBOLS}.
+     * @param finalRatio   The expected fraction of final states.
+     * @return The generator.
+     * @throws Exception If a parameter is out of range.
+     */
+    public static RandomDFAGenerator complete(long seed, int stateCount, int alphabetSize, double finalRatio)
+            throws Exception {
+        return partial(seed, stateCount, alphabetSize, 1, finalRatio);
+    }
+
+    /**
+     * Create a generator of partial DFAs, with missing transitions.
+     *
+     * @param seed         The seed of the DFA.
+     * @param stateCount   The number of states, up to {@link #MAX_STATES}.
+     * @param alphabetSize The number of symbols, up to the length of
+     *                     {@link #SYMBOLS}.
+     * @param density      The expected fraction of defined transitions, besides
+     *                     the ones that keep the states reachable.
+     * @param finalRatio   The expected fraction of final states.
+     * @return The generator.
+     * @throws Exception If a parameter is out of range.
+     */
+    public static RandomDFAGenerator partial(long seed, int stateCount, int alphabetSize, double density,
+            double finalRatio) throws Exception {
+        if (stateCount < 1 || stateCount > MAX_STATES) {
+            throw new Exception("The number of states must be between 1 and " + MAX_STATES);
+        }
+        if (alphabetSize < 1 || alphabetSize > SYMBOLS.length()) {
+            throw new Exception("The alphabet size must be between 1 and " + SYMBOLS.length());
+        }
+        if (!(density >= 0 && density <= 1) || !(finalRatio >= 0 && finalRatio <= 1)) {
+            throw new Exception("The density and the final ratio must be between 0 and 1");
+        }
+        return new RandomDFAGenerator(seed, stateCount, alphabetSize, density, finalRatio);
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public int getAlphabetSize() {
+        return alphabetSize;
+    }
+
+    /**
+     * Get the name of a symbol.
+     *
+     * @param symbol The symbol index, below the alphabet size.
+     * @return The one character name of the symbol.
+     */
+    public String getSymbol(int symbol) {
+        return String.valueOf(SYMBOLS.charAt(symbol));
+    }
+
+    /**
+     * Get the target of a transition.
+     *
+     * @param state  The source state.
+     * @param symbol The symbol index.
+     * @return The target state or {@link CompiledDFA#NO_STATE}.
+     */
+    public int next(int state, int symbol) {
+        if (symbol == reachSymbol(state)) {
+            return (int) ((state + (long) stride) % stateCount);
+        }
+        if (toUnit(random(state, 2 + 2 * symbol)) >= density) {
+            return CompiledDFA.NO_STATE;
+        }
+        return (int) Long.remainderUnsigned(random(state, 3 + 2 * symbol), stateCount);
+    }
+
+    /**
+     * Check if a state is final.
+     *
+     * @param state The state.
+     * @return True if the state is final.
+     */
+    public boolean isFinal(int state) {
+        return toUnit(random(state, 1)) < finalRatio;
+    }
+
+    /**
+     * Build the DFA in memory, with the initial state 0.
+     *
+     * @return The compiled DFA.
+     * @throws Exception If the transition table does not fit in an array.
+     */
+    public CompiledDFA toCompiledDFA() throws Exception {
+        if ((long) stateCount * alphabetSize > Integer.MAX_VALUE - 8) {
+            throw new Exception("The DFA is too large to be compiled, write it to a file instead");
+        }
+        List<String> symbols = new ArrayList<>(alphabetSize);
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            symbols.add(getSymbol(symbol));
+        }
+        var alphabet = Alphabet.of(symbols, false);
+        var classIds = new int[alphabetSize];
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            classIds[symbol] = alphabet.getClassId(getSymbol(symbol));
+        }
+        var transitions = new int[stateCount * alphabetSize];
+        var acceptingStates = new BitSet(stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                transitions[state * alphabetSize + classIds[symbol]] = next(state, symbol);
+            }
+            if (isFinal(state)) {
+                acceptingStates.set(state);
+            }
+        }
+        return CompiledDFA.of(alphabet, transitions, acceptingStates, 0);
+    }
+
+    /**
+     * Write the DFA to a JFF file, a state or transition at a time, so the
+     * memory used does not depend on the size of the DFA.
+     *
+     * @param filePath The path of the JFF file.
+     * @throws Exception If an I/O error occurs.
+     */
+    public void writeJFF(String filePath) throws Exception {
+        try (var jffWriter = JFFStreamWriter.open(filePath)) {
+            for (int state = 0; state < stateCount; state++) {
+                jffWriter.writeState(state, "q" + state, state == 0, isFinal(state));
+            }
+            for (int state = 0; state < stateCount; state++) {
+                for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                    var target = next(state, symbol);
+                    if (target != CompiledDFA.NO_STATE) {
+                        jffWriter.writeTransition(state, target, getSymbol(symbol));
+                    }
+                }
+            }
+        }
+    }
+
+    private int reachSymbol(int state) {
+        return (int) Long.remainderUnsigned(random(state, 0), alphabetSize);
+    }
+
+    /**
+     * Pick a stride coprime to the number of states, so adding it visits
+     * every state before coming back to 0.
+     */
+    private int findStride() {
+        if (stateCount == 1) {
+            return 0;
+        }
+        var stride = 1 + (int) Long.remainderUnsigned(mix(seed), stateCount - 1);
+        while (gcd(stride, stateCount) != 1) {
+            stride = stride % (stateCount - 1) + 1;
+        }
+        return stride;
+    }
+
+    private static int gcd(int first, int second) {
+        while (second != 0) {
+            var rest = first % second;
+            first = second;
+            second = rest;
+        }
+        return first;
+    }
+
+    /**
+     * Get the random value of a slot of a state: 0 picks the symbol that keeps
+     * the next state reachable, 1 the acceptance, and each symbol has a slot
+     * for its existence and one for its target.
+     */
+    private long random(int state, int slot) {
+        return mix(seed + ((long) state * (2 * alphabetSize + 2) + slot + 1) * GOLDEN_GAMMA);
+    }
+
+    private static double toUnit(long value) {
+        return (value >>> 11) * UNIT;
+    }
+
+    /**
+     * SplitMix64 finalizer, which spreads close inputs over the whole range.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,110 @@
+package com.boisbarganhados.ftc.generator;
+
+import java.util.Random;
+
+/**
+ * Families of regexes that grow with a parameter and stress a different part
+ * of the compilation, in the regex syntax of the project: {@code +} is the
+ * union and {@code λ} the empty word.
+ */
+public final class RegexFamilies {
+
+    private RegexFamilies() {
+    }
+
+    /**
+     * Build {@code (a+b)*a(a+b)...(a+b)}, the words whose n-th symbol from the
+     * end is {@code a}. Its NFA has n + 1 states but its minimal DFA has 2^n,
+     * since the DFA must remember the last n symbols read, so the subset
+     * construction blows up exponentially.
+     *
+     * @param n The position of the symbol from the end, at least 1.
+     * @return The regex.
+     */
+    public static String nthFromLast(int n) {
+        var regex = new StringBuilder("(a+b)*a");
+        for (int i = 1; i < n; i++) {
+            regex.append("(a+b)");
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Build {@code (λ+a)...(λ+a)a...a} with n optional and n required symbols,
+     * the regex that makes backtracking matchers take exponential time on
+     * {@code a^n}. Automata match it in linear time, but every optional symbol
+     * adds lambda transitions to be removed.
+     *
+     * @param n The number of optional symbols, at least 1.
+     * @return The regex.
+     */
+    public static String optionalChain(int n) {
+        return ("(λ+a)").repeat(n) + "a".repeat(n);
+    }
+
+    /**
+     * Build {@code ((...(a*)*...)*)*} with n nested stars. Each star adds lambda
+     * transitions around the previous ones, so the lambda closures grow with
+     * the depth while the language stays {@code a*}.
+     *
+     * @param n The number of stars, at least 1.
+     * @return The regex.
+     */
+    public static String nestedStars(int n) {
+        var regex = new StringBuilder("a");
+        for (int i = 0; i < n; i++) {
+            regex.insert(0, '(').append(")*");
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Build the union of n random words, like a dictionary of keywords. Over a
+     * small alphabet many words share prefixes and suffixes, so the NFA has
+     * many states to be merged by the subset construction and the
+     * minimization.
+     *
+     * @param seed         The seed of the words.
+     * @param n            The number of words, at least 1.
+     * @param length       The length of every word, at least 1.
+     * @param alphabetSize The number of symbols, up to the length of
+     *                     {@link RandomDFAGenerator#SYMBOLS}.
+     * @return The regex.
+     */
+    public static String wordUnion(long seed, int n, int length, int alphabetSize) {
+        var random = new Random(seed);
+        var regex = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                regex.append('+');
+            }
+            for (int j = 0; j < length; j++) {
+                regex.append(RandomDFAGenerator.SYMBOLS.charAt(random.nextInt(alphabetSize)));
+            }
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Build a family by name, e.g. from the menu.
+     *
+     * @param family The name of the family: nth-from-last, optional-chain,
+     *               nested-stars or word-union.
+     * @param seed   The seed, only used by word-union.
+     * @param n      The parameter of the family.
+     * @return The regex.
+     * @throws Exception If the family is unknown or n is below 1.
+     */
+    public static String build(String family, long seed, int n) throws Exception {
+        if (n < 1) {
+            throw new Exception("The family parameter must be at least 1");
+        }
+        return switch (family.toLowerCase()) {
+            case "nth-from-last" -> nthFromLast(n);
+            case "optional-chain" -> optionalChain(n);
+            case "nested-stars" -> nestedStars(n);
+            case "word-union" -> wordUnion(seed, n, 8, 4);
+            default -> throw new Exception("Unknown regex family: " + family);
+        };
+    }
+}
@@ -0,0 +1,251 @@
+package com.boisbarganhados.ftc.generator;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.boisbarganhados.ftc.dfa.Alphabet;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+
+/**
+ * Seeded generator of sentences for a DFA, with a chosen fraction of accepted
+ * sentences. Sentences are random walks over the DFA that only take the
+ * symbols from which an accepting state, or a rejection for the rejected
+ * sentences, can still be reached in the steps left, so the accept ratio is
+ * exact even for DFAs that accept almost every word or almost none.
+ *
+ * Sentences are written one per line, as read by
+ * {@link com.boisbarganhados.ftc.regex.RegexUtils#readSentences}, and are
+ * streamed to the file as they are built.
+ */
+public final class SentenceCorpus {
+
+    /**
+     * Receiver of the sentences, in memory or in a file.
+     */
+    private interface SentenceSink {
+        void accept(String sentence) throws Exception;
+    }
+
+    private final CompiledDFA dfa;
+    private final Random random;
+    private final int[] acceptDistances;
+    private final int[] rejectDistances;
+    private final String[] symbols;
+
+    private SentenceCorpus(CompiledDFA dfa, long seed) {
+        this.dfa = dfa;
+        this.random = new Random(seed);
+        this.acceptDistances = findDistances(dfa, false);
+        this.rejectDistances = findDistances(dfa, true);
+        this.symbols = new String[dfa.getClassCount()];
+        Arrays.setAll(symbols, dfa.getAlphabet()::getSymbol);
+    }
+
+    /**
+     * Build the sentences in memory.
+     *
+     * @param dfa         The DFA.
+     * @param seed        The seed of the sentences.
+     * @param count       The number of sentences.
+     * @param length      The length of the sentences, in symbols. Accepted
+     *                    sentences are longer when no accepting state is
+     *                    reached in this many symbols, and shorter when an
+     *                    accepting state has no way out.
+     * @param acceptRatio The fraction of accepted sentences.
+     * @return The sentences.
+     * @throws Exception If the DFA cannot give the sentences asked for.
+     */
+    public static List<String> generate(CompiledDFA dfa, long seed, int count, int length, double acceptRatio)
+            throws Exception {
+        var sentences = new ArrayList<String>(count);
+        new SentenceCorpus(dfa, seed).generate(count, length, acceptRatio, sentences::add);
+        return sentences;
+    }
+
+    /**
+     * Write the sentences to a file, one per line, without keeping them in
+     * memory.
+     *
+     * @param dfa         The DFA.
+     * @param seed        The seed of the sentences.
+     * @param count       The number of sentences.
+     * @param length      The length of the sentences, in symbols.
+     * @param acceptRatio The fraction of accepted sentences.
+     * @param filePath    The path of the sentences file.
+     * @throws Exception If the DFA cannot give the sentences asked for or an I/O
+     *                   error occurs.
+     */
+    public static void write(CompiledDFA dfa, long seed, int count, int length, double acceptRatio,
+            String filePath) throws Exception {
+        var corpus = new SentenceCorpus(dfa, seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(filePath))) {
+            corpus.generate(count, length, acceptRatio, sentence -> {
+                writer.write(sentence);
+                writer.newLine();
+            });
+        }
+    }
+
+    /**
+     * Build the sentences in a random order, with exactly the rounded fraction
+     * of accepted ones.
+     */
+    private void generate(int count, int length, double acceptRatio, SentenceSink sink) throws Exception {
+        if (count < 0 || length < 0 || !(acceptRatio >= 0 && acceptRatio <= 1)) {
+            throw new Exception("Invalid sentence count, length or accept ratio");
+        }
+        var acceptedLeft = Math.round(count * acceptRatio);
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(count - i) < acceptedLeft) {
+                sink.accept(walk(length, false));
+                acceptedLeft--;
+            } else
+                sink.accept(walk(length, true));
+        }
+    }
+
+    /**
+     * Build a sentence with a random walk that only takes the symbols from
+     * which the walk can still end in an accepting state, or in a rejecting
+     * one, in the steps left. A walk that cannot end there in time goes on
+     * along a shortest path.
+     */
+    private String walk(int length, boolean rejecting) throws Exception {
+        var distances = rejecting ? rejectDistances : acceptDistances;
+        var state = dfa.getInitialState();
+        if (distances[state] < 0) {
+            throw new Exception(rejecting ? "The DFA accepts every sentence" : "The DFA accepts no sentence");
+        }
+        var sentence = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            if (state == CompiledDFA.NO_STATE) {
+                sentence.append(symbols[random.nextInt(symbols.length)]);
+                continue;
+            }
+            var classId = pickClass(state, length - i - 1, distances, rejecting);
+            if (classId == Alphabet.NO_CLASS) {
+                classId = pickClass(state, Integer.MAX_VALUE, distances, rejecting);
+            }
+            if (classId == Alphabet.NO_CLASS) {
+                break;
+            }
+            sentence.append(symbols[classId]);
+            state = dfa.next(state, classId);
+        }
+        while (state != CompiledDFA.NO_STATE && distances[state] > 0) {
+            for (int classId = 0; classId < symbols.length; classId++) {
+                var target = dfa.next(state, classId);
+                if (distance(target, distances, rejecting) == distances[state] - 1) {
+                    sentence.append(symbols[classId]);
+                    state = target;
+                    break;
+                }
+            }
+        }
+        return sentence.toString();
+    }
+
+    /**
+     * Pick a random symbol whose target can end the walk in at most the given
+     * number of steps.
+     */
+    private int pickClass(int state, int maxDistance, int[] distances, boolean rejecting) {
+        var picked = Alphabet.NO_CLASS;
+        var candidates = 0;
+        for (int classId = 0; classId < symbols.length; classId++) {
+            var distance = distance(dfa.next(state, classId), distances, rejecting);
+            if (distance >= 0 && distance <= maxDistance && random.nextInt(++candidates) == 0) {
+                picked = classId;
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * Get the distance of a target, where a missing transition has already
+     * rejected the sentence.
+     */
+    private static int distance(int target, int[] distances, boolean rejecting) {
+        if (target == CompiledDFA.NO_STATE) {
+            return rejecting ? 0 : -1;
+        }
+        return distances[target];
+    }
+
+    /**
+     * Find the number of symbols from every state to the nearest accepting
+     * state, or to the nearest rejection, with a breadth-first search over the
+     * inverse transitions. A state with a missing transition is one symbol
+     * away from rejection.
+     *
+     * @param dfa       The DFA.
+     * @param rejecting True to find the distances to rejection.
+     * @return The distances, -1 for the states that cannot get there.
+     */
+    private static int[] findDistances(CompiledDFA dfa, boolean rejecting) {
+        var stateCount = dfa.getStateCount();
+        var classCount = dfa.getClassCount();
+        var inverseOffsets = new int[stateCount + 1];
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = dfa.next(state, classId);
+                if (target != CompiledDFA.NO_STATE) {
+                    inverseOffsets[target + 1]++;
+                }
+            }
+        }
+        for (int i = 1; i <= stateCount; i++) {
+            inverseOffsets[i] += inverseOffsets[i - 1];
+        }
+        var inverseSources = new int[inverseOffsets[stateCount]];
+        var fill = Arrays.copyOf(inverseOffsets, stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = dfa.next(state, classId);
+                if (target != CompiledDFA.NO_STATE) {
+                    inverseSources[fill[target]++] = state;
+                }
+            }
+        }
+        var distances = new int[stateCount];
+        Arrays.fill(distances, -1);
+        var queue = new int[stateCount];
+        var queueTotal = 0;
+        for (int state = 0; state < stateCount; state++) {
+            if (dfa.isAccepting(state) != rejecting) {
+                distances[state] = 0;
+                queue[queueTotal++] = state;
+            }
+        }
+        for (int state = 0; rejecting && state < stateCount; state++) {
+            if (distances[state] < 0 && hasMissingTransition(dfa, state)) {
+                distances[state] = 1;
+                queue[queueTotal++] = state;
+            }
+        }
+        for (int i = 0; i < queueTotal; i++) {
+            var state = queue[i];
+            for (int j = inverseOffsets[state]; j < inverseOffsets[state + 1]; j++) {
+                if (distances[inverseSources[j]] < 0) {
+                    distances[inverseSources[j]] = distances[state] + 1;
+                    queue[queueTotal++] = inverseSources[j];
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static boolean hasMissingTransition(CompiledDFA dfa, int state) {
+        for (int classId = 0; classId < dfa.getClassCount(); classId++) {
+            if (dfa.next(state, classId) == CompiledDFA.NO_STATE) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
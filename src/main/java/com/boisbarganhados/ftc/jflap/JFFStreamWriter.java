@@ -0,0 +1,231 @@
+package com.boisbarganhados.ftc.jflap;
+
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+import com.boisbarganhados.ftc.jflap.utils.Automaton;
+
+/**
+ * Streaming writer of JFF files with StAX. States and transitions are written
+ * as they are given, already with the {@code <initial/>} and {@code <final/>}
+ * tags JFLAP expects, so a file is written in one pass with constant extra
+ * memory, without building an {@link Automaton} or rewriting the file after
+ * it is marshalled.
+ *
+ * JFLAP reads the states before the transitions, so every state must be
+ * written before the first transition.
+ */
+public final class JFFStreamWriter implements AutoCloseable {
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final int UI_XY_FACTOR = 50;
+    private static final String STATE_INDENT = "\n        ";
+    private static final String FIELD_INDENT = "\n            ";
+
+    private final Writer output;
+    private final XMLStreamWriter writer;
+    private boolean writingTransitions;
+
+    private JFFStreamWriter(Writer output) throws XMLStreamException {
+        this.output = output;
+        this.writer = OUTPUT_FACTORY.createXMLStreamWriter(output);
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeCharacters("\n");
+        writer.writeStartElement("structure");
+        writer.writeCharacters("\n    ");
+        writer.writeStartElement("type");
+        writer.writeCharacters("fa");
+        writer.writeEndElement();
+        writer.writeCharacters("\n    ");
+        writer.writeStartElement("automaton");
+    }
+
+    /**
+     * Open a JFF file to be written, replacing it if it exists. The StAX
+     * writer is given a buffered UTF-8 writer, since writing to a stream
+     * encodes every call on its own and is several times slower.
+     *
+     * @param filePath The path of the JFF file.
+     * @return The writer, which must be closed to end the file.
+     * @throws Exception If the file cannot be opened.
+     */
+    public static JFFStreamWriter open(String filePath) throws Exception {
+        var output = Files.newBufferedWriter(Path.of(filePath));
+        try {
+            return new JFFStreamWriter(output);
+        } catch (XMLStreamException e) {
+            output.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Write a DFA model to a JFF file.
+     *
+     * @param dfa      The DFA model.
+     * @param filePath The path of the JFF file.
+     * @throws Exception If an error occurs while writing.
+     */
+    public static void write(DFA dfa, String filePath) throws Exception {
+        try (var jffWriter = open(filePath)) {
+            for (var state : dfa.getStates()) {
+                jffWriter.writeState(state.getId(), state.getName(), state.isInitialState(), state.isFinalState());
+            }
+            for (var state : dfa.getStates()) {
+                for (var entry : state.getTransitions().entrySet()) {
+                    for (var target : entry.getValue()) {
+                        jffWriter.writeTransition(state.getId(), target.getId(), entry.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a compiled DFA to a JFF file, straight from its tables. States are
+     * named after their ids, as in {@link CompiledDFA#toDFA()}.
+     *
+     * @param compiledDfa The compiled DFA.
+     * @param filePath    The path of the JFF file.
+     * @throws Exception If an error occurs while writing.
+     */
+    public static void write(CompiledDFA compiledDfa, String filePath) throws Exception {
+        try (var jffWriter = open(filePath)) {
+            for (int state = 0; state < compiledDfa.getStateCount(); state++) {
+                jffWriter.writeState(state, "q" + state, state == compiledDfa.getInitialState(),
+                        compiledDfa.isAccepting(state));
+            }
+            for (int state = 0; state < compiledDfa.getStateCount(); state++) {
+                for (int classId = 0; classId < compiledDfa.getClassCount(); classId++) {
+                    var target = compiledDfa.next(state, classId);
+                    if (target != CompiledDFA.NO_STATE) {
+                        jffWriter.writeTransition(state, target, compiledDfa.getAlphabet().getSymbol(classId));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a JFLAP automaton to a JFF file, keeping the positions of its
+     * states.
+     *
+     * @param automaton The JFLAP automaton.
+     * @param filePath  The path of the JFF file.
+     * @throws Exception If an error occurs while writing.
+     */
+    public static void write(Automaton automaton, String filePath) throws Exception {
+        try (var jffWriter = open(filePath)) {
+            for (var state : automaton.getAutomaton().getStates()) {
+                jffWriter.writeState(state.getId(), state.getName(), state.getX(), state.getY(),
+                        state.isStateInitial(), state.isStateFinal());
+            }
+            for (var transition : automaton.getAutomaton().getTransitions()) {
+                jffWriter.writeTransition(transition.getFrom(), transition.getTo(), transition.getRead());
+            }
+        }
+    }
+
+    /**
+     * Write a state, placed on the diagonal by its id as in
+     * {@link com.boisbarganhados.ftc.dfa.DFAState#toState()}.
+     *
+     * @param id           The id of the state.
+     * @param name         The name of the state, or null for none.
+     * @param initialState True if the state is the initial state.
+     * @param finalState   True if the state is final.
+     * @throws Exception If a transition was already written or an error occurs.
+     */
+    public void writeState(int id, String name, boolean initialState, boolean finalState) throws Exception {
+        writeState(id, name, (double) id * UI_XY_FACTOR, (double) id * UI_XY_FACTOR, initialState, finalState);
+    }
+
+    /**
+     * Write a state at a given position.
+     *
+     * @param id           The id of the state.
+     * @param name         The name of the state, or null for none.
+     * @param x            The horizontal position of the state.
+     * @param y            The vertical position of the state.
+     * @param initialState True if the state is the initial state.
+     * @param finalState   True if the state is final.
+     * @throws Exception If a transition was already written or an error occurs.
+     */
+    public void writeState(int id, String name, double x, double y, boolean initialState, boolean finalState)
+            throws Exception {
+        if (writingTransitions) {
+            throw new Exception("States must be written before the transitions");
+        }
+        writer.writeCharacters(STATE_INDENT);
+        writer.writeStartElement("state");
+        writer.writeAttribute("id", Integer.toString(id));
+        if (name != null) {
+            writer.writeAttribute("name", name);
+        }
+        writeField("x", Double.toString(x));
+        writeField("y", Double.toString(y));
+        if (initialState) {
+            writer.writeCharacters(FIELD_INDENT);
+            writer.writeEmptyElement("initial");
+        }
+        if (finalState) {
+            writer.writeCharacters(FIELD_INDENT);
+            writer.writeEmptyElement("final");
+        }
+        writer.writeCharacters(STATE_INDENT);
+        writer.writeEndElement();
+    }
+
+    /**
+     * Write a transition.
+     *
+     * @param from The id of the source state.
+     * @param to   The id of the target state.
+     * @param read The symbol read.
+     * @throws Exception If an error occurs while writing.
+     */
+    public void writeTransition(int from, int to, String read) throws Exception {
+        writingTransitions = true;
+        writer.writeCharacters(STATE_INDENT);
+        writer.writeStartElement("transition");
+        writeField("from", Integer.toString(from));
+        writeField("to", Integer.toString(to));
+        writeField("read", read);
+        writer.writeCharacters(STATE_INDENT);
+        writer.writeEndElement();
+    }
+
+    /**
+     * End the automaton and the file, and close it.
+     *
+     * @throws Exception If an error occurs while writing.
+     */
+    @Override
+    public void close() throws Exception {
+        try {
+            writer.writeCharacters("\n    ");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.close();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeField(String element, String value) throws XMLStreamException {
+        writer.writeCharacters(FIELD_INDENT);
+        writer.writeStartElement(element);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+}
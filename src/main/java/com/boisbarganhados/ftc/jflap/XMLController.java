@@ -2,15 +2,31 @@ package com.boisbarganhados.ftc.jflap;
 
 import java.io.File;
 
+import com.boisbarganhados.ftc.dfa.DFA;
 import com.boisbarganhados.ftc.jflap.utils.Automaton;
 
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.Unmarshaller;
 
 public class XMLController {
 
+    private static JAXBContext jaxbContext;
+
+    /**
+     * Get the JAXB context of the JFF files, created on the first use. A
+     * context is expensive to create and thread safe, so it is shared.
+     * 
+     * @return The JAXB context
+     * @throws JAXBException
+     */
+    private static synchronized JAXBContext getContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(Automaton.class);
+        }
+        return jaxbContext;
+    }
+
     /**
      * Read a XML file and return a Automaton object
      * 
@@ -26,29 +42,33 @@ public class XMLController {
         }
         JFFProcessor.preProcessJFF(xmlFile);
         xmlFile = new File(filePath);
-        JAXBContext jaxbContext = JAXBContext.newInstance(Automaton.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
+        Unmarshaller jaxbUnmarshaller = getContext().createUnmarshaller();
         Automaton automaton = (Automaton) jaxbUnmarshaller.unmarshal(xmlFile);
         return automaton;
     }
 
     /**
-     * Write a Automaton object to a XML file
+     * Write a Automaton object to a XML file, streamed by
+     * {@link JFFStreamWriter} in one pass instead of marshalled and then
+     * post-processed
      * 
      * @param Automaton automaton Automaton object to be written
      * @param File      xmlFile File type to be written
-     * @throws JAXBException
      * @throws Exception
      */
-    public static void writer(Automaton automaton, String filePath) throws JAXBException, Exception {
-        var xmlFile = new File(filePath);
-        JAXBContext jaxbContext = JAXBContext.newInstance(Automaton.class);
-        Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
-        jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-        jaxbMarshaller.marshal(automaton, xmlFile);
-        if (!xmlFile.exists())
-            throw new Exception("Error writing file");
-        JFFProcessor.postProcessJFF(xmlFile);
+    public static void writer(Automaton automaton, String filePath) throws Exception {
+        JFFStreamWriter.write(automaton, filePath);
+    }
+
+    /**
+     * Write a DFA to a XML file, without building the Automaton object
+     * 
+     * @param DFA    dfa DFA to be written
+     * @param String filePath Path of the file to be written
+     * @throws Exception
+     */
+    public static void writer(DFA dfa, String filePath) throws Exception {
+        JFFStreamWriter.write(dfa, filePath);
     }
 
 }
@@ -0,0 +1,144 @@
+package com.boisbarganhados.ftc.minimization;
+
+import java.util.Arrays;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+
+/**
+ * Minimization that picks the minimizer from the size and shape of the DFA.
+ * {@link HopcroftDFAMinimizer} is the default, and large DFAs with few defined
+ * transitions go to {@link ValmariLehtinenDFAMinimizer}, which only visits the
+ * real transitions instead of every state and symbol. The decision and the
+ * time of each step are logged.
+ *
+ * The thresholds come from {@code MinimizeBenchmark} in the benchmarks
+ * module. Hopcroft was the fastest on the subset DFAs of regexes and on
+ * random DFAs with a tenth or more of their transitions defined. Valmari-Lehtinen was 1.2 to 2 times faster on random
+ * DFAs of 1024 states or more with under a tenth of the transitions defined,
+ * while on smaller ones the results changed from run to run. The other
+ * minimizers are never selected:
+ * <ul>
+ * <li>{@link BrzozowskiDFAMinimizer} was 6 to 14 times slower than Hopcroft
+ * on every regex DFA measured, from 8 to 676 states, and its reversal of a
+ * random DFA of a few hundred states runs out of memory;</li>
+ * <li>{@link ParallelMooreDFAMinimizer} needs one round per length of the
+ * distinguishing words, which grows with the state count on chain shaped
+ * DFAs: it was 5 times slower than Hopcroft on the generated test DFA of 1024
+ * states, model conversions included, and it only gains with several
+ * cores;</li>
+ * <li>{@link RootDFAMinimizer} and {@link OptimizedDFAMinimizer} took over a
+ * thousand times longer than Hopcroft at 1024 states, and the optimized one
+ * does not always give the minimal DFA.</li>
+ * </ul>
+ */
+public class AdaptiveDFAMinimizer {
+
+    public static final int SPARSE_MIN_STATES = 1024;
+    public static final double SPARSE_DENSITY = 0.1;
+
+    /**
+     * The minimizers that may be selected.
+     */
+    public enum Method {
+        HOPCROFT("Hopcroft"),
+        VALMARI_LEHTINEN("Valmari-Lehtinen");
+
+        private final String name;
+
+        private Method(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Minimizes a Deterministic Finite Automaton (DFA) with the minimizer
+     * selected for it.
+     *
+     * @param dfa The DFA to be minimized.
+     * @return The minimized DFA, with states named by their new ids.
+     * @throws Exception If the DFA has no initial state.
+     */
+    public static DFA minimizeDFA(DFA dfa) throws Exception {
+        long start = System.currentTimeMillis();
+        var compiledDfa = CompiledDFA.of(dfa);
+        var inputSymbols = new String[compiledDfa.getClassCount()];
+        Arrays.setAll(inputSymbols, compiledDfa.getAlphabet()::getSymbol);
+        System.out.println("Input symbols: " + Arrays.toString(inputSymbols));
+        var minimizedDfa = minimize(compiledDfa);
+        long end = System.currentTimeMillis();
+        System.out.println("Total time: " + (end - start) + "ms");
+        return minimizedDfa.toDFA();
+    }
+
+    /**
+     * Minimize a compiled DFA with the minimizer selected for it.
+     *
+     * @param compiledDfa The DFA to be minimized.
+     * @return The minimal partial DFA, numbered in breadth-first order from the
+     *         initial state 0.
+     * @throws Exception If any error occurs while minimizing.
+     */
+    public static CompiledDFA minimize(CompiledDFA compiledDfa) throws Exception {
+        long start = System.nanoTime();
+        var density = density(compiledDfa);
+        var method = select(compiledDfa.getStateCount(), density);
+        long selected = System.nanoTime();
+        System.out.println("Selected minimizer: " + method.getName() + " (" + compiledDfa.getStateCount()
+                + " states, " + compiledDfa.getClassCount() + " symbols, " + Math.round(100 * density)
+                + "% of transitions defined)");
+        var minimizedDfa = switch (method) {
+            case HOPCROFT -> HopcroftDFAMinimizer.minimize(compiledDfa);
+            case VALMARI_LEHTINEN -> ValmariLehtinenDFAMinimizer.minimize(compiledDfa);
+        };
+        long end = System.nanoTime();
+        System.out.println("Minimized DFA: " + minimizedDfa.getStateCount() + " states");
+        System.out.println("Selection time: " + (selected - start) / 1_000_000 + "ms");
+        System.out.println("Minimization time: " + (end - selected) / 1_000_000 + "ms");
+        return minimizedDfa;
+    }
+
+    /**
+     * Select the minimizer for a DFA.
+     *
+     * @param compiledDfa The DFA to be minimized.
+     * @return The selected minimizer.
+     */
+    public static Method select(CompiledDFA compiledDfa) {
+        return select(compiledDfa.getStateCount(), density(compiledDfa));
+    }
+
+    private static Method select(int stateCount, double density) {
+        if (stateCount >= SPARSE_MIN_STATES && density < SPARSE_DENSITY) {
+            return Method.VALMARI_LEHTINEN;
+        }
+        return Method.HOPCROFT;
+    }
+
+    /**
+     * Get the fraction of the transitions of a DFA that are defined.
+     *
+     * @param compiledDfa The DFA.
+     * @return The defined transitions over the states times the symbols.
+     */
+    private static double density(CompiledDFA compiledDfa) {
+        var stateCount = compiledDfa.getStateCount();
+        var classCount = compiledDfa.getClassCount();
+        if (stateCount == 0 || classCount == 0) {
+            return 1;
+        }
+        long defined = 0;
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                if (compiledDfa.next(state, classId) != CompiledDFA.NO_STATE) {
+                    defined++;
+                }
+            }
+        }
+        return (double) defined / ((double) stateCount * classCount);
+    }
+}
@@ -0,0 +1,169 @@
+package com.boisbarganhados.ftc.minimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+import com.boisbarganhados.ftc.dfa.RegexDFElement;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+/**
+ * Brzozowski's DFA minimization by double reversal: the DFA is reversed and
+ * determinized, then reversed and determinized again. Determinizing the
+ * reverse of an automaton whose states are all reachable gives a DFA whose
+ * states are all distinguishable, so the second pass yields the minimal DFA
+ * without any partition refinement.
+ *
+ * Both passes run the subset construction of
+ * {@link RegexUtils#convertToDeterministic}, which keeps only non-empty sets,
+ * so the result is the minimal partial DFA. The intermediate DFA may be
+ * exponentially larger than the input, which rarely happens with automata
+ * built from regexes but can with arbitrary ones.
+ */
+public class BrzozowskiDFAMinimizer {
+
+    /**
+     * Minimizes a Deterministic Finite Automaton (DFA) with Brzozowski's
+     * algorithm.
+     *
+     * @param dfa The DFA to be minimized.
+     * @return The minimized DFA, with states named by their new ids.
+     * @throws Exception If the DFA has no initial state.
+     */
+    public static DFA minimizeDFA(DFA dfa) throws Exception {
+        long start = System.currentTimeMillis();
+        var compiledDfa = CompiledDFA.of(dfa);
+        var inputSymbols = new String[compiledDfa.getClassCount()];
+        Arrays.setAll(inputSymbols, compiledDfa.getAlphabet()::getSymbol);
+        System.out.println("Input symbols: " + Arrays.toString(inputSymbols));
+        var minimizedDfa = minimize(compiledDfa);
+        long end = System.currentTimeMillis();
+        System.out.println("Minimized DFA: " + minimizedDfa.getStateCount() + " states");
+        System.out.println("Minimization time: " + (end - start) + "ms");
+        return minimizedDfa.toDFA();
+    }
+
+    /**
+     * Minimize a compiled DFA.
+     *
+     * @param compiledDfa The DFA to be minimized.
+     * @return The minimal partial DFA, numbered in breadth-first order from the
+     *         initial state 0.
+     * @throws Exception If any error occurs while determinizing.
+     */
+    public static CompiledDFA minimize(CompiledDFA compiledDfa) throws Exception {
+        return determinizeReverse(determinizeReverse(DFATrimmer.removeUnreachable(compiledDfa)));
+    }
+
+    /**
+     * Determinize the reverse of a DFA.
+     *
+     * @param dfa The DFA with reachable states only and initial state 0.
+     * @return The DFA of the reversed language, with reachable states only and
+     *         initial state 0.
+     * @throws Exception If any error occurs while determinizing.
+     */
+    private static CompiledDFA determinizeReverse(CompiledDFA dfa) throws Exception {
+        var alphabet = dfa.getAlphabet();
+        var classCount = dfa.getClassCount();
+        var symbols = new HashSet<String>();
+        for (int classId = 0; classId < classCount; classId++) {
+            symbols.add(alphabet.getSymbol(classId));
+        }
+        var element = RegexDFElement.builder().alphabetSet(symbols).finalStates(new HashSet<>())
+                .transitions(new ArrayList<>()).initialState(dfa.getInitialState()).deterministic(true).build();
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            var stateTransitions = new HashMap<String, List<Integer>>();
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = dfa.next(state, classId);
+                if (target != CompiledDFA.NO_STATE) {
+                    var targets = new ArrayList<Integer>(1);
+                    targets.add(target);
+                    stateTransitions.put(alphabet.getSymbol(classId), targets);
+                }
+            }
+            element.getTransitions().add(stateTransitions);
+            if (dfa.isAccepting(state)) {
+                element.getFinalStates().add(state);
+            }
+        }
+        var reversed = RegexUtils.convertToDeterministic(reverse(element));
+        var stateCount = reversed.getTransitionsTotal();
+        var transitions = new int[stateCount * classCount];
+        Arrays.fill(transitions, CompiledDFA.NO_STATE);
+        for (int state = 0; state < stateCount; state++) {
+            for (var entry : reversed.getTransitions().get(state).entrySet()) {
+                transitions[state * classCount + alphabet.getClassId(entry.getKey())] = entry.getValue().get(0);
+            }
+        }
+        var acceptingStates = new BitSet(stateCount);
+        reversed.getFinalStates().forEach(acceptingStates::set);
+        return DFATrimmer.removeUnreachable(CompiledDFA.of(alphabet, transitions, acceptingStates,
+                findFinalStatesSet(transitions, acceptingStates, stateCount, classCount)));
+    }
+
+    /**
+     * Find the state of the set of final states of the reversed DFA. The subset
+     * construction starts from the new initial state alone, which has the same
+     * transitions and acceptance as that set but is interned apart from it, so
+     * when the set is reached too it must become the initial state instead.
+     *
+     * @param transitions     The transitions of the determinized reverse.
+     * @param acceptingStates The accepting states of the determinized reverse.
+     * @param stateCount      The number of states.
+     * @param classCount      The number of symbol classes.
+     * @return The state with the same transitions and acceptance as the initial
+     *         state 0, or 0 if there is none.
+     */
+    private static int findFinalStatesSet(int[] transitions, BitSet acceptingStates, int stateCount,
+            int classCount) {
+        for (int state = 1; state < stateCount; state++) {
+            if (acceptingStates.get(state) == acceptingStates.get(0) && Arrays.equals(transitions,
+                    state * classCount, (state + 1) * classCount, transitions, 0, classCount)) {
+                return state;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Reverse a lambda-free automaton. The reverse starts in a new initial state
+     * that has the reversed transitions of every final state, instead of lambda
+     * transitions to them, and its only final state is the old initial state,
+     * along with the new one when the empty word is accepted.
+     *
+     * @param element The automaton to be reversed.
+     * @return The reversed NFA, whose initial state is its last state.
+     */
+    private static RegexDFElement reverse(RegexDFElement element) {
+        var stateCount = element.getTransitionsTotal();
+        var reversed = RegexDFElement.builder().alphabetSet(element.getAlphabetSet()).finalStates(new HashSet<>())
+                .transitions(new ArrayList<>(stateCount + 1)).initialState(stateCount).deterministic(false)
+                .build();
+        for (int state = 0; state <= stateCount; state++) {
+            reversed.addNewState();
+        }
+        for (int state = 0; state < stateCount; state++) {
+            for (var entry : element.getTransitions().get(state).entrySet()) {
+                for (var target : entry.getValue()) {
+                    reversed.getTransitions().get(target)
+                            .computeIfAbsent(entry.getKey(), key -> new ArrayList<Integer>()).add(state);
+                    if (element.getFinalStates().contains(target)) {
+                        reversed.getTransitions().get(stateCount)
+                                .computeIfAbsent(entry.getKey(), key -> new ArrayList<Integer>()).add(state);
+                    }
+                }
+            }
+        }
+        reversed.getFinalStates().add(element.getInitialState());
+        if (element.getFinalStates().contains(element.getInitialState())) {
+            reversed.getFinalStates().add(stateCount);
+        }
+        return reversed;
+    }
+}
@@ -0,0 +1,222 @@
+package com.boisbarganhados.ftc.minimization;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+
+/**
+ * Removal of useless states of compiled DFAs, before they are minimized: the
+ * unreachable states and the dead states that cannot lead to acceptance. The
+ * universal states, that accept every word over the alphabet, are found here
+ * as well, so matching can stop once the outcome of a word is decided.
+ *
+ * Both analyses are reverse reachability searches. The dead states are the
+ * ones that cannot reach an accepting state, and the universal states are the
+ * ones that cannot reach a rejecting state or a missing transition, which are
+ * the accepting strongly connected components closed under every symbol.
+ */
+public final class DFATrimmer {
+
+    private DFATrimmer() {
+    }
+
+    /**
+     * Remove the states that cannot be reached from the initial state. The kept
+     * states are renumbered in breadth-first order, so the initial state is 0.
+     *
+     * @param compiledDfa The DFA to be trimmed.
+     * @return The DFA with reachable states only.
+     */
+    public static CompiledDFA removeUnreachable(CompiledDFA compiledDfa) {
+        var stateCount = compiledDfa.getStateCount();
+        var classCount = compiledDfa.getClassCount();
+        var stateIds = new int[stateCount];
+        Arrays.fill(stateIds, CompiledDFA.NO_STATE);
+        var reachableStates = new int[stateCount];
+        var reachableTotal = 0;
+        stateIds[compiledDfa.getInitialState()] = reachableTotal;
+        reachableStates[reachableTotal++] = compiledDfa.getInitialState();
+        for (int i = 0; i < reachableTotal; i++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = compiledDfa.next(reachableStates[i], classId);
+                if (target != CompiledDFA.NO_STATE && stateIds[target] == CompiledDFA.NO_STATE) {
+                    stateIds[target] = reachableTotal;
+                    reachableStates[reachableTotal++] = target;
+                }
+            }
+        }
+        var transitions = new int[reachableTotal * classCount];
+        var acceptingStates = new BitSet(reachableTotal);
+        for (int state = 0; state < reachableTotal; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = compiledDfa.next(reachableStates[state], classId);
+                transitions[state * classCount + classId] = target == CompiledDFA.NO_STATE ? CompiledDFA.NO_STATE
+                        : stateIds[target];
+            }
+            if (compiledDfa.isAccepting(reachableStates[state])) {
+                acceptingStates.set(state);
+            }
+        }
+        return CompiledDFA.of(compiledDfa.getAlphabet(), transitions, acceptingStates, 0);
+    }
+
+    /**
+     * Remove the unreachable states and the dead states, from which no accepting
+     * state can be reached, so every transition left is useful. The kept states
+     * are renumbered in breadth-first order, so the initial state is 0.
+     *
+     * @param compiledDfa The DFA to be trimmed.
+     * @return The trimmed partial DFA, a single rejecting state if the DFA
+     *         accepts nothing.
+     */
+    public static CompiledDFA trim(CompiledDFA compiledDfa) {
+        var dfa = removeUnreachable(compiledDfa);
+        var classCount = dfa.getClassCount();
+        var liveStates = findLiveStates(dfa);
+        if (!liveStates.get(dfa.getInitialState())) {
+            var transitions = new int[classCount];
+            Arrays.fill(transitions, CompiledDFA.NO_STATE);
+            return CompiledDFA.of(dfa.getAlphabet(), transitions, new BitSet(), 0);
+        }
+        var transitions = new int[dfa.getStateCount() * classCount];
+        var acceptingStates = new BitSet(dfa.getStateCount());
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = dfa.next(state, classId);
+                transitions[state * classCount + classId] = target != CompiledDFA.NO_STATE && liveStates.get(target)
+                        ? target
+                        : CompiledDFA.NO_STATE;
+            }
+            if (dfa.isAccepting(state)) {
+                acceptingStates.set(state);
+            }
+        }
+        return removeUnreachable(CompiledDFA.of(dfa.getAlphabet(), transitions, acceptingStates, 0));
+    }
+
+    /**
+     * Trim a DFA and mark its universal states, so its matchers stop reading
+     * the input as soon as the outcome is decided: a dead state is a missing
+     * transition after trimming, and a universal state accepts whatever symbols
+     * of the alphabet follow.
+     *
+     * @param compiledDfa The DFA to be prepared.
+     * @return The trimmed DFA with its universal states marked.
+     */
+    public static CompiledDFA withEarlyTermination(CompiledDFA compiledDfa) {
+        var dfa = trim(compiledDfa);
+        return dfa.withUniversalStates(findUniversalStates(dfa));
+    }
+
+    /**
+     * Trim a DFA model, e.g. one read from a JFF file, and mark its universal
+     * states, see {@link #withEarlyTermination(CompiledDFA)}. The states are
+     * renumbered and named after their new ids.
+     *
+     * @param dfa The DFA model.
+     * @return The trimmed DFA model.
+     * @throws Exception If the DFA has no initial state.
+     */
+    public static DFA trim(DFA dfa) throws Exception {
+        return withEarlyTermination(CompiledDFA.of(dfa)).toDFA();
+    }
+
+    /**
+     * Find the live states, from which an accepting state can be reached, by a
+     * backward search from the accepting states over the inverse transitions.
+     *
+     * @param dfa The DFA.
+     * @return The live states.
+     */
+    public static BitSet findLiveStates(CompiledDFA dfa) {
+        var acceptingStates = new BitSet(dfa.getStateCount());
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            if (dfa.isAccepting(state)) {
+                acceptingStates.set(state);
+            }
+        }
+        return reachBackward(dfa, acceptingStates);
+    }
+
+    /**
+     * Find the universal states, from which every word over the alphabet is
+     * accepted. A state is not universal when it can reach a rejecting state or
+     * a state with a missing transition, so the universal states are the ones
+     * left by a backward search from those.
+     *
+     * @param dfa The DFA.
+     * @return The universal states.
+     */
+    public static BitSet findUniversalStates(CompiledDFA dfa) {
+        var stateCount = dfa.getStateCount();
+        var boundedStates = new BitSet(stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            if (!dfa.isAccepting(state)) {
+                boundedStates.set(state);
+                continue;
+            }
+            for (int classId = 0; classId < dfa.getClassCount(); classId++) {
+                if (dfa.next(state, classId) == CompiledDFA.NO_STATE) {
+                    boundedStates.set(state);
+                    break;
+                }
+            }
+        }
+        var universalStates = reachBackward(dfa, boundedStates);
+        universalStates.flip(0, stateCount);
+        return universalStates;
+    }
+
+    /**
+     * Find the states that can reach a set of states, the set included, with a
+     * worklist over the inverse transitions.
+     *
+     * @param dfa          The DFA.
+     * @param targetStates The states to be reached.
+     * @return The states that can reach them.
+     */
+    private static BitSet reachBackward(CompiledDFA dfa, BitSet targetStates) {
+        var stateCount = dfa.getStateCount();
+        var classCount = dfa.getClassCount();
+        var inverseOffsets = new int[stateCount + 1];
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = dfa.next(state, classId);
+                if (target != CompiledDFA.NO_STATE) {
+                    inverseOffsets[target + 1]++;
+                }
+            }
+        }
+        for (int i = 1; i <= stateCount; i++) {
+            inverseOffsets[i] += inverseOffsets[i - 1];
+        }
+        var inverseSources = new int[inverseOffsets[stateCount]];
+        var fill = Arrays.copyOf(inverseOffsets, stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = dfa.next(state, classId);
+                if (target != CompiledDFA.NO_STATE) {
+                    inverseSources[fill[target]++] = state;
+                }
+            }
+        }
+        var reachingStates = (BitSet) targetStates.clone();
+        var worklist = new int[stateCount];
+        var worklistTotal = 0;
+        for (int state = reachingStates.nextSetBit(0); state >= 0; state = reachingStates.nextSetBit(state + 1)) {
+            worklist[worklistTotal++] = state;
+        }
+        while (worklistTotal > 0) {
+            var state = worklist[--worklistTotal];
+            for (int i = inverseOffsets[state]; i < inverseOffsets[state + 1]; i++) {
+                if (!reachingStates.get(inverseSources[i])) {
+                    reachingStates.set(inverseSources[i]);
+                    worklist[worklistTotal++] = inverseSources[i];
+                }
+            }
+        }
+        return reachingStates;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.boisbarganhados.ftc.minimization;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+
+/**
+ * Hopcroft's O(k n log n) DFA minimization on primitive arrays. The partition
+ * is kept as an array of states grouped by block, with the location of every
+ * state, so a block is split by moving its marked states to its front. The
+ * predecessors of every state are kept as inverse transition lists, and after
+ * a split only the smaller half is added to the worklist of splitters: if the
+ * old block was already there both halves are, otherwise the larger one is
+ * redundant.
+ *
+ * Missing transitions go to an implicit sink state, which is dropped again
+ * with every state equivalent to it, so the result is the minimal partial DFA.
+ */
+public class HopcroftDFAMinimizer {
+
+    /**
+     * Minimizes a Deterministic Finite Automaton (DFA) with Hopcroft's
+     * algorithm.
+     *
+     * @param dfa The DFA to be minimized.
+     * @return The minimized DFA, with states named by their new ids and its
+     *         universal state marked for {@link DFA#runDFA}.
+     * @throws Exception If the DFA has no initial state.
+     */
+    public static DFA minimizeDFA(DFA dfa) throws Exception {
+        long start = System.currentTimeMillis();
+        var compiledDfa = CompiledDFA.of(dfa);
+        var inputSymbols = new String[compiledDfa.getClassCount()];
+        Arrays.setAll(inputSymbols, compiledDfa.getAlphabet()::getSymbol);
+        System.out.println("Input symbols: " + Arrays.toString(inputSymbols));
+        var minimizedDfa = minimize(compiledDfa);
+        long end = System.currentTimeMillis();
+        System.out.println("Minimized DFA: " + minimizedDfa.getStateCount() + " states");
+        System.out.println("Minimization time: " + (end - start) + "ms");
+        return minimizedDfa.withUniversalStates(DFATrimmer.findUniversalStates(minimizedDfa)).toDFA();
+    }
+
+    /**
+     * Minimize a compiled DFA.
+     *
+     * @param compiledDfa The DFA to be minimized.
+     * @return The minimal DFA, without unreachable or dead states, numbered in
+     *         breadth-first order from the initial state 0.
+     */
+    public static CompiledDFA minimize(CompiledDFA compiledDfa) {
+        var dfa = DFATrimmer.removeUnreachable(compiledDfa);
+        var classCount = dfa.getClassCount();
+        var stateCount = dfa.getStateCount() + 1;
+        var sink = stateCount - 1;
+        var inverseOffsets = new int[classCount * stateCount + 1];
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                inverseOffsets[classId * stateCount + target(dfa, state, classId, sink) + 1]++;
+            }
+        }
+        for (int i = 1; i < inverseOffsets.length; i++) {
+            inverseOffsets[i] += inverseOffsets[i - 1];
+        }
+        var inverseSources = new int[classCount * stateCount];
+        var fill = Arrays.copyOf(inverseOffsets, inverseOffsets.length - 1);
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                inverseSources[fill[classId * stateCount + target(dfa, state, classId, sink)]++] = state;
+            }
+        }
+        var partition = new RefinablePartition(stateCount);
+        for (int state = 0; state < sink; state++) {
+            if (dfa.isAccepting(state)) {
+                partition.mark(state);
+            }
+        }
+        partition.split();
+        var splitters = new int[stateCount];
+        var splitterTotal = 0;
+        if (partition.size() > 1) {
+            splitters[splitterTotal++] = 1;
+        }
+        var splitter = new int[stateCount];
+        while (splitterTotal > 0) {
+            var block = splitters[--splitterTotal];
+            var splitterSize = partition.end(block) - partition.start(block);
+            for (int i = 0; i < splitterSize; i++) {
+                splitter[i] = partition.element(partition.start(block) + i);
+            }
+            for (int classId = 0; classId < classCount; classId++) {
+                for (int i = 0; i < splitterSize; i++) {
+                    var offset = classId * stateCount + splitter[i];
+                    for (int j = inverseOffsets[offset]; j < inverseOffsets[offset + 1]; j++) {
+                        partition.mark(inverseSources[j]);
+                    }
+                }
+                var blockCount = partition.size();
+                partition.split();
+                for (int newBlock = blockCount; newBlock < partition.size(); newBlock++) {
+                    splitters[splitterTotal++] = newBlock;
+                }
+            }
+        }
+        return quotient(dfa, partition.getSetOf(), partition.size(), sink);
+    }
+
+    private static int target(CompiledDFA dfa, int state, int classId, int sink) {
+        if (state == sink) {
+            return sink;
+        }
+        var target = dfa.next(state, classId);
+        return target == CompiledDFA.NO_STATE ? sink : target;
+    }
+
+    /**
+     * Build the DFA of the blocks of an equivalence, dropping the block of the
+     * sink. Blocks are numbered in breadth-first order from the initial block.
+     *
+     * @param dfa        The DFA with reachable states only and initial state 0.
+     * @param blockOf    The block of every state, the sink included.
+     * @param blockCount The number of blocks.
+     * @param sink       The sink state, or -1 if there is none.
+     * @return The quotient DFA.
+     */
+    static CompiledDFA quotient(CompiledDFA dfa, int[] blockOf, int blockCount, int sink) {
+        var classCount = dfa.getClassCount();
+        var representatives = new int[blockCount];
+        Arrays.fill(representatives, CompiledDFA.NO_STATE);
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            if (representatives[blockOf[state]] == CompiledDFA.NO_STATE) {
+                representatives[blockOf[state]] = state;
+            }
+        }
+        var sinkBlock = sink >= 0 ? blockOf[sink] : CompiledDFA.NO_STATE;
+        var blockIds = new int[blockCount];
+        Arrays.fill(blockIds, CompiledDFA.NO_STATE);
+        var orderedBlocks = new int[blockCount];
+        var orderedTotal = 0;
+        blockIds[blockOf[dfa.getInitialState()]] = orderedTotal;
+        orderedBlocks[orderedTotal++] = blockOf[dfa.getInitialState()];
+        var transitions = new int[blockCount * classCount];
+        Arrays.fill(transitions, CompiledDFA.NO_STATE);
+        var acceptingStates = new BitSet(blockCount);
+        for (int i = 0; i < orderedTotal; i++) {
+            var representative = representatives[orderedBlocks[i]];
+            if (orderedBlocks[i] == sinkBlock) {
+                continue;
+            }
+            for (int classId = 0; classId < classCount; classId++) {
+                var target = dfa.next(representative, classId);
+                if (target == CompiledDFA.NO_STATE || blockOf[target] == sinkBlock) {
+                    continue;
+                }
+                if (blockIds[blockOf[target]] == CompiledDFA.NO_STATE) {
+                    blockIds[blockOf[target]] = orderedTotal;
+                    orderedBlocks[orderedTotal++] = blockOf[target];
+                }
+                transitions[i * classCount + classId] = blockIds[blockOf[target]];
+            }
+            if (dfa.isAccepting(representative)) {
+                acceptingStates.set(i);
+            }
+        }
+        return CompiledDFA.of(dfa.getAlphabet(), Arrays.copyOf(transitions, orderedTotal * classCount),
+                acceptingStates, 0);
+    }
+}
\ No newline at end of file
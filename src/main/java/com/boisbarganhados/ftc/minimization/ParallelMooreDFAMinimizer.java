@@ -0,0 +1,226 @@
+package com.boisbarganhados.ftc.minimization;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+
+/**
+ * Moore's DFA minimization with the signatures of every round computed in
+ * parallel. The signature of a state is its current block followed by the
+ * blocks of its targets, one per symbol class. Each round hashes the
+ * signatures of all states on a fork/join pool, since the hashes only read the
+ * blocks of the previous round, and then renumbers the blocks in one
+ * sequential pass that compares the full signatures of states with the same
+ * hash, so hash collisions never merge states. The refinement stops at the
+ * first round that does not add blocks.
+ *
+ * Every round is O(k n) and may be spread over all cores, but the number of
+ * rounds is bounded only by the number of states: long chains of states need
+ * one round per state of the chain, where {@link HopcroftDFAMinimizer} keeps
+ * its O(k n log n) bound.
+ *
+ * The DFA is trimmed first, so missing transitions stand for the removed dead
+ * states and the result is the minimal partial DFA.
+ */
+public class ParallelMooreDFAMinimizer {
+
+    private static final int NO_BLOCK = -1;
+
+    /**
+     * Minimizes a Deterministic Finite Automaton (DFA) with Moore's algorithm
+     * on every available processor.
+     *
+     * @param dfa The DFA to be minimized.
+     * @return The minimized DFA, with states named by their new ids.
+     * @throws Exception If the DFA has no initial state.
+     */
+    public static DFA minimizeDFA(DFA dfa) throws Exception {
+        long start = System.currentTimeMillis();
+        var compiledDfa = CompiledDFA.of(dfa);
+        var inputSymbols = new String[compiledDfa.getClassCount()];
+        Arrays.setAll(inputSymbols, compiledDfa.getAlphabet()::getSymbol);
+        System.out.println("Input symbols: " + Arrays.toString(inputSymbols));
+        var minimizedDfa = minimize(compiledDfa);
+        long end = System.currentTimeMillis();
+        System.out.println("Minimized DFA: " + minimizedDfa.getStateCount() + " states");
+        System.out.println("Minimization time: " + (end - start) + "ms");
+        return minimizedDfa.toDFA();
+    }
+
+    /**
+     * Minimize a compiled DFA on every available processor.
+     *
+     * @param compiledDfa The DFA to be minimized.
+     * @return The minimal DFA, without unreachable or dead states, numbered in
+     *         breadth-first order from the initial state 0.
+     * @throws Exception If any error occurs.
+     */
+    public static CompiledDFA minimize(CompiledDFA compiledDfa) throws Exception {
+        return minimize(compiledDfa, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Minimize a compiled DFA.
+     *
+     * @param compiledDfa The DFA to be minimized.
+     * @param parallelism The number of threads hashing the signatures, 1 hashes
+     *                    them in the calling thread. The number of available
+     *                    processors uses the common pool instead of a new one.
+     * @return The minimal DFA, without unreachable or dead states, numbered in
+     *         breadth-first order from the initial state 0.
+     * @throws Exception If the parallelism is not positive.
+     */
+    public static CompiledDFA minimize(CompiledDFA compiledDfa, int parallelism) throws Exception {
+        if (parallelism < 1) {
+            throw new Exception("Parallelism must be positive: " + parallelism);
+        }
+        var dfa = DFATrimmer.trim(compiledDfa);
+        var stateCount = dfa.getStateCount();
+        var blockOf = new int[stateCount];
+        var blockCount = 1;
+        for (int state = 0; state < stateCount; state++) {
+            if (dfa.isAccepting(state) != dfa.isAccepting(0)) {
+                blockOf[state] = 1;
+                blockCount = 2;
+            }
+        }
+        var nextBlockOf = new int[stateCount];
+        var hashes = new int[stateCount];
+        var representatives = new int[stateCount];
+        var slots = new int[Integer.highestOneBit(Math.max(stateCount, 1)) << 2];
+        var pool = parallelism == 1 ? null
+                : parallelism == Runtime.getRuntime().availableProcessors() ? ForkJoinPool.commonPool()
+                        : new ForkJoinPool(parallelism);
+        try {
+            while (true) {
+                var task = new SignatureTask(dfa, blockOf, hashes, 0, stateCount);
+                if (pool == null) {
+                    task.hashSignatures();
+                } else {
+                    pool.invoke(task);
+                }
+                var nextBlockCount = renumber(dfa, blockOf, hashes, nextBlockOf, representatives, slots);
+                var previousBlockOf = blockOf;
+                blockOf = nextBlockOf;
+                nextBlockOf = previousBlockOf;
+                if (nextBlockCount == blockCount) {
+                    break;
+                }
+                blockCount = nextBlockCount;
+            }
+        } finally {
+            // Shutting down the common pool has no effect
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        return HopcroftDFAMinimizer.quotient(dfa, blockOf, blockCount, CompiledDFA.NO_STATE);
+    }
+
+    /**
+     * Give every distinct signature a new block, numbered in the order of the
+     * first state that has it.
+     *
+     * @param dfa             The trimmed DFA.
+     * @param blockOf         The blocks of the previous round.
+     * @param hashes          The hash of the signature of every state.
+     * @param nextBlockOf     Receives the new block of every state.
+     * @param representatives Receives the first state of every new block.
+     * @param slots           Scratch hash table with at least twice as many
+     *                        slots as states, a power of two.
+     * @return The number of new blocks.
+     */
+    private static int renumber(CompiledDFA dfa, int[] blockOf, int[] hashes, int[] nextBlockOf,
+            int[] representatives, int[] slots) {
+        Arrays.fill(slots, NO_BLOCK);
+        var mask = slots.length - 1;
+        var blockCount = 0;
+        for (int state = 0; state < blockOf.length; state++) {
+            var slot = hashes[state] & mask;
+            while (true) {
+                var block = slots[slot];
+                if (block == NO_BLOCK) {
+                    representatives[blockCount] = state;
+                    slots[slot] = blockCount;
+                    nextBlockOf[state] = blockCount++;
+                    break;
+                }
+                var representative = representatives[block];
+                if (hashes[representative] == hashes[state]
+                        && sameSignature(dfa, blockOf, representative, state)) {
+                    nextBlockOf[state] = block;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        return blockCount;
+    }
+
+    private static boolean sameSignature(CompiledDFA dfa, int[] blockOf, int state, int other) {
+        if (blockOf[state] != blockOf[other]) {
+            return false;
+        }
+        for (int classId = 0; classId < dfa.getClassCount(); classId++) {
+            if (targetBlock(dfa, blockOf, state, classId) != targetBlock(dfa, blockOf, other, classId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int targetBlock(CompiledDFA dfa, int[] blockOf, int state, int classId) {
+        var target = dfa.next(state, classId);
+        return target == CompiledDFA.NO_STATE ? NO_BLOCK : blockOf[target];
+    }
+
+    /**
+     * Fork/join task that hashes the signatures of a range of states.
+     */
+    private static final class SignatureTask extends RecursiveAction {
+
+        private static final int STATES_PER_TASK = 4096;
+
+        private final CompiledDFA dfa;
+        private final int[] blockOf;
+        private final int[] hashes;
+        private final int fromState;
+        private final int toState;
+
+        SignatureTask(CompiledDFA dfa, int[] blockOf, int[] hashes, int fromState, int toState) {
+            this.dfa = dfa;
+            this.blockOf = blockOf;
+            this.hashes = hashes;
+            this.fromState = fromState;
+            this.toState = toState;
+        }
+
+        @Override
+        protected void compute() {
+            if (toState - fromState <= STATES_PER_TASK) {
+                hashSignatures();
+                return;
+            }
+            var middle = (fromState + toState) >>> 1;
+            invokeAll(new SignatureTask(dfa, blockOf, hashes, fromState, middle),
+                    new SignatureTask(dfa, blockOf, hashes, middle, toState));
+        }
+
+        void hashSignatures() {
+            var classCount = dfa.getClassCount();
+            for (int state = fromState; state < toState; state++) {
+                var hash = blockOf[state];
+                for (int classId = 0; classId < classCount; classId++) {
+                    hash = 31 * hash + targetBlock(dfa, blockOf, state, classId);
+                }
+                hash ^= hash >>> 16;
+                hash *= 0x85ebca6b;
+                hash ^= hash >>> 13;
+                hashes[state] = hash;
+            }
+        }
+    }
+}
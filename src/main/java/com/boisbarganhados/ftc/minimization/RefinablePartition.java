@@ -0,0 +1,120 @@
+package com.boisbarganhados.ftc.minimization;
+
+/**
+ * Refinable partition of the integers {@code 0..n-1}, used by the array based
+ * minimizers for both states and transitions. The elements of a set are
+ * contiguous in one array and its marked elements are moved to its front, so
+ * marking is O(1) and splitting costs the size of the smaller half.
+ */
+final class RefinablePartition {
+
+    private final int[] elements;
+    private final int[] location;
+    private final int[] setOf;
+    private final int[] setStart;
+    private final int[] setEnd;
+    private final int[] markedCount;
+    private final int[] touchedSets;
+    private int touchedTotal;
+    private int setCount;
+
+    /**
+     * Create a partition with a single set holding every element, or no set if
+     * there is no element.
+     *
+     * @param size The number of elements.
+     */
+    RefinablePartition(int size) {
+        elements = new int[size];
+        location = new int[size];
+        setOf = new int[size];
+        setStart = new int[size];
+        setEnd = new int[size];
+        markedCount = new int[size];
+        touchedSets = new int[size];
+        for (int element = 0; element < size; element++) {
+            elements[element] = element;
+            location[element] = element;
+        }
+        if (size > 0) {
+            setEnd[setCount++] = size;
+        }
+    }
+
+    int size() {
+        return setCount;
+    }
+
+    int setOf(int element) {
+        return setOf[element];
+    }
+
+    int[] getSetOf() {
+        return setOf;
+    }
+
+    int start(int set) {
+        return setStart[set];
+    }
+
+    int end(int set) {
+        return setEnd[set];
+    }
+
+    int element(int index) {
+        return elements[index];
+    }
+
+    /**
+     * Mark an element, moving it to the marked front of its set. Marking an
+     * element twice has no effect.
+     *
+     * @param element The element to be marked.
+     */
+    void mark(int element) {
+        var set = setOf[element];
+        var index = location[element];
+        var markedEnd = setStart[set] + markedCount[set];
+        if (index < markedEnd) {
+            return;
+        }
+        var other = elements[markedEnd];
+        elements[markedEnd] = element;
+        location[element] = markedEnd;
+        elements[index] = other;
+        location[other] = index;
+        if (markedCount[set]++ == 0) {
+            touchedSets[touchedTotal++] = set;
+        }
+    }
+
+    /**
+     * Split every set with marked elements in its marked and unmarked elements,
+     * and clear the marks. The smaller half of a split becomes a new set, with
+     * the next free id, so new sets can be found by their ids.
+     */
+    void split() {
+        for (int i = 0; i < touchedTotal; i++) {
+            var set = touchedSets[i];
+            var marked = markedCount[set];
+            markedCount[set] = 0;
+            if (marked == setEnd[set] - setStart[set]) {
+                continue;
+            }
+            var newSet = setCount++;
+            if (marked <= setEnd[set] - setStart[set] - marked) {
+                setStart[newSet] = setStart[set];
+                setEnd[newSet] = setStart[set] + marked;
+                setStart[set] += marked;
+            } else {
+                setStart[newSet] = setStart[set] + marked;
+                setEnd[newSet] = setEnd[set];
+                setEnd[set] = setStart[set] + marked;
+            }
+            for (int j = setStart[newSet]; j < setEnd[newSet]; j++) {
+                setOf[elements[j]] = newSet;
+            }
+        }
+        touchedTotal = 0;
+    }
+}
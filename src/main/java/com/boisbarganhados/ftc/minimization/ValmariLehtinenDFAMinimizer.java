@@ -0,0 +1,116 @@
+package com.boisbarganhados.ftc.minimization;
+
+import java.util.Arrays;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+
+/**
+ * Valmari and Lehtinen's O(m log n) minimization of partial DFAs, where m is
+ * the number of real transitions. No sink state is added: the states are kept
+ * in a refinable partition of blocks and the transitions in a refinable
+ * partition of cords, first grouped by symbol. Each cord splits the blocks by
+ * the sources of its transitions, and each new block splits the cords by the
+ * transitions that enter it, so a missing transition simply never marks its
+ * state.
+ *
+ * The DFA is trimmed first, since an unreachable or dead state would otherwise
+ * be told apart from a missing transition.
+ */
+public class ValmariLehtinenDFAMinimizer {
+
+    /**
+     * Minimizes a Deterministic Finite Automaton (DFA) with Valmari and
+     * Lehtinen's algorithm.
+     *
+     * @param dfa The DFA to be minimized.
+     * @return The minimized DFA, with states named by their new ids.
+     * @throws Exception If the DFA has no initial state.
+     */
+    public static DFA minimizeDFA(DFA dfa) throws Exception {
+        long start = System.currentTimeMillis();
+        var compiledDfa = CompiledDFA.of(dfa);
+        var inputSymbols = new String[compiledDfa.getClassCount()];
+        Arrays.setAll(inputSymbols, compiledDfa.getAlphabet()::getSymbol);
+        System.out.println("Input symbols: " + Arrays.toString(inputSymbols));
+        var minimizedDfa = minimize(compiledDfa);
+        long end = System.currentTimeMillis();
+        System.out.println("Minimized DFA: " + minimizedDfa.getStateCount() + " states");
+        System.out.println("Minimization time: " + (end - start) + "ms");
+        return minimizedDfa.toDFA();
+    }
+
+    /**
+     * Minimize a compiled DFA.
+     *
+     * @param compiledDfa The DFA to be minimized.
+     * @return The minimal partial DFA, numbered in breadth-first order from the
+     *         initial state 0.
+     */
+    public static CompiledDFA minimize(CompiledDFA compiledDfa) {
+        var dfa = DFATrimmer.trim(compiledDfa);
+        var stateCount = dfa.getStateCount();
+        var classCount = dfa.getClassCount();
+        var transitionCount = 0;
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < classCount; classId++) {
+                if (dfa.next(state, classId) != CompiledDFA.NO_STATE) {
+                    transitionCount++;
+                }
+            }
+        }
+        var tails = new int[transitionCount];
+        var heads = new int[transitionCount];
+        var incomingOffsets = new int[stateCount + 1];
+        var cords = new RefinablePartition(transitionCount);
+        var transition = 0;
+        for (int classId = 0; classId < classCount; classId++) {
+            var classStart = transition;
+            for (int state = 0; state < stateCount; state++) {
+                var target = dfa.next(state, classId);
+                if (target != CompiledDFA.NO_STATE) {
+                    tails[transition] = state;
+                    heads[transition] = target;
+                    incomingOffsets[target + 1]++;
+                    transition++;
+                }
+            }
+            for (int i = classStart; i < transition; i++) {
+                cords.mark(i);
+            }
+            cords.split();
+        }
+        for (int i = 1; i <= stateCount; i++) {
+            incomingOffsets[i] += incomingOffsets[i - 1];
+        }
+        var incomingTransitions = new int[transitionCount];
+        var fill = Arrays.copyOf(incomingOffsets, stateCount);
+        for (int i = 0; i < transitionCount; i++) {
+            incomingTransitions[fill[heads[i]]++] = i;
+        }
+        var blocks = new RefinablePartition(stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            if (dfa.isAccepting(state)) {
+                blocks.mark(state);
+            }
+        }
+        blocks.split();
+        var block = 1;
+        for (int cord = 0; cord < cords.size(); cord++) {
+            for (int i = cords.start(cord); i < cords.end(cord); i++) {
+                blocks.mark(tails[cords.element(i)]);
+            }
+            blocks.split();
+            for (; block < blocks.size(); block++) {
+                for (int i = blocks.start(block); i < blocks.end(block); i++) {
+                    var state = blocks.element(i);
+                    for (int j = incomingOffsets[state]; j < incomingOffsets[state + 1]; j++) {
+                        cords.mark(incomingTransitions[j]);
+                    }
+                }
+                cords.split();
+            }
+        }
+        return HopcroftDFAMinimizer.quotient(dfa, blocks.getSetOf(), blocks.size(), CompiledDFA.NO_STATE);
+    }
+}
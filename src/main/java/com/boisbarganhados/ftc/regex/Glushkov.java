@@ -0,0 +1,166 @@
+package com.boisbarganhados.ftc.regex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import com.boisbarganhados.ftc.dfa.RegexDFElement;
+import com.boisbarganhados.ftc.regex.ast.ConcatNode;
+import com.boisbarganhados.ftc.regex.ast.LambdaNode;
+import com.boisbarganhados.ftc.regex.ast.RegexNode;
+import com.boisbarganhados.ftc.regex.ast.StarNode;
+import com.boisbarganhados.ftc.regex.ast.SymbolNode;
+import com.boisbarganhados.ftc.regex.ast.UnionNode;
+import com.boisbarganhados.ftc.regex.records.GlushkovBody;
+
+/**
+ * Glushkov's (position automaton) algorithm implementation.
+ * Every symbol occurrence of the regex is a position and becomes a state, plus
+ * one initial state, so the NFA has n + 1 states and no lambda transitions.
+ * The result can be passed to {@link RegexUtils#convertToDeterministic} as is.
+ */
+public final class Glushkov {
+
+    /**
+     * Get the lambda-free NFA from a regex string.
+     * 
+     * @param regex The regex to be converted to NFA with the Glushkov's algorithm.
+     * @return The NFA structure equivalent to the regex.
+     * @throws Exception If the regex is invalid or any error occurs.
+     */
+    public static RegexDFElement getNfaFromRegex(String regex) throws Exception {
+        return getNfaFromAst(RegexAstParser.parse(regex));
+    }
+
+    /**
+     * Get the lambda-free NFA from an already parsed regex tree.
+     * 
+     * @param root The root of the regex tree.
+     * @return The NFA structure equivalent to the regex.
+     */
+    public static RegexDFElement getNfaFromAst(RegexNode root) {
+        var positionSymbols = new ArrayList<String>();
+        var followPositions = new ArrayList<BitSet>();
+        positionSymbols.add(null);
+        followPositions.add(new BitSet());
+        var rootBody = analyze(root, positionSymbols, followPositions);
+        RegexDFElement targetNfaStructure = RegexDFElement.builder()
+                .alphabetSet(new HashSet<>())
+                .finalStates(new HashSet<>())
+                .transitions(new ArrayList<>()).deterministic(false).build();
+        for (int position = 0; position < positionSymbols.size(); position++) {
+            targetNfaStructure.addNewState();
+            if (position > 0) {
+                targetNfaStructure.getAlphabetSet().add(positionSymbols.get(position));
+            }
+        }
+        addTransitions(targetNfaStructure, targetNfaStructure.getInitialState(), rootBody.firstPositions(),
+                positionSymbols);
+        for (int position = 1; position < positionSymbols.size(); position++) {
+            addTransitions(targetNfaStructure, position, followPositions.get(position), positionSymbols);
+        }
+        rootBody.lastPositions().stream().forEach(targetNfaStructure.getFinalStates()::add);
+        if (rootBody.nullable()) {
+            targetNfaStructure.getFinalStates().add(targetNfaStructure.getInitialState());
+        }
+        return targetNfaStructure;
+    }
+
+    /**
+     * Add the transitions from a state to every position of the set, reading the
+     * symbol of the target position. Positions are unique so no duplicate check
+     * is needed.
+     * 
+     * @param targetNfaStructure The NFA structure being built.
+     * @param fromState          The state from which the transitions start.
+     * @param toPositions        The target positions.
+     * @param positionSymbols    The symbol of each position.
+     */
+    private static void addTransitions(RegexDFElement targetNfaStructure, int fromState, BitSet toPositions,
+            List<String> positionSymbols) {
+        var stateTransitions = targetNfaStructure.getTransitions().get(fromState);
+        for (int position = toPositions.nextSetBit(0); position >= 0; position = toPositions
+                .nextSetBit(position + 1)) {
+            stateTransitions.computeIfAbsent(positionSymbols.get(position), key -> new ArrayList<Integer>())
+                    .add(position);
+        }
+    }
+
+    /**
+     * Compute nullable, first and last sets of a node, numbering its positions and
+     * filling the follow sets along the way.
+     * 
+     * @param node            The node to be analyzed.
+     * @param positionSymbols The symbol of each position, indexed by position.
+     * @param followPositions The follow set of each position, indexed by position.
+     * @return The Glushkov body of the node.
+     */
+    private static GlushkovBody analyze(RegexNode node, List<String> positionSymbols,
+            List<BitSet> followPositions) {
+        if (node instanceof SymbolNode symbolNode) {
+            var position = positionSymbols.size();
+            positionSymbols.add(symbolNode.symbol());
+            followPositions.add(new BitSet());
+            var positionSet = new BitSet();
+            positionSet.set(position);
+            return new GlushkovBody(false, positionSet, (BitSet) positionSet.clone());
+        }
+        if (node instanceof LambdaNode) {
+            return new GlushkovBody(true, new BitSet(), new BitSet());
+        }
+        if (node instanceof StarNode starNode) {
+            var childBody = analyze(starNode.child(), positionSymbols, followPositions);
+            link(childBody.lastPositions(), childBody.firstPositions(), followPositions);
+            return new GlushkovBody(true, childBody.firstPositions(), childBody.lastPositions());
+        }
+        if (node instanceof UnionNode unionNode) {
+            var nullable = false;
+            var firstPositions = new BitSet();
+            var lastPositions = new BitSet();
+            for (var option : unionNode.options()) {
+                var optionBody = analyze(option, positionSymbols, followPositions);
+                nullable |= optionBody.nullable();
+                firstPositions.or(optionBody.firstPositions());
+                lastPositions.or(optionBody.lastPositions());
+            }
+            return new GlushkovBody(nullable, firstPositions, lastPositions);
+        }
+        var concatNode = (ConcatNode) node;
+        var nullable = true;
+        var firstPositions = new BitSet();
+        var lastPositions = new BitSet();
+        for (var item : concatNode.items()) {
+            var itemBody = analyze(item, positionSymbols, followPositions);
+            link(lastPositions, itemBody.firstPositions(), followPositions);
+            if (nullable) {
+                firstPositions.or(itemBody.firstPositions());
+            }
+            if (!itemBody.nullable()) {
+                lastPositions.clear();
+            }
+            lastPositions.or(itemBody.lastPositions());
+            nullable &= itemBody.nullable();
+        }
+        return new GlushkovBody(nullable, firstPositions, lastPositions);
+    }
+
+    /**
+     * Add every position of the target set to the follow set of every position
+     * of the source set.
+     * 
+     * @param fromPositions   The source positions.
+     * @param toPositions     The positions that can follow them.
+     * @param followPositions The follow set of each position.
+     */
+    private static void link(BitSet fromPositions, BitSet toPositions, List<BitSet> followPositions) {
+        if (toPositions.isEmpty()) {
+            return;
+        }
+        for (int position = fromPositions.nextSetBit(0); position >= 0; position = fromPositions
+                .nextSetBit(position + 1)) {
+            followPositions.get(position).or(toPositions);
+        }
+    }
+}
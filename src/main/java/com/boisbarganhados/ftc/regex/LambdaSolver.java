@@ -1,108 +1,84 @@
 package com.boisbarganhados.ftc.regex;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import com.boisbarganhados.ftc.dfa.RegexDFElement;
-import com.boisbarganhados.ftc.regex.records.LambdaBody;
 
-import lombok.Data;
-import lombok.RequiredArgsConstructor;
+/**
+ * Lambda closure and lambda removal of regex elements. The class keeps no
+ * state: every call works only on the element it receives and on its own
+ * scratch buffers, so distinct elements can be solved from many threads at
+ * once.
+ */
+public final class LambdaSolver {
 
-@Data
-@RequiredArgsConstructor
-public class LambdaSolver {
-
-    private final RegexDFElement dfElement;
-
-    private static LambdaSolver instance;
-
-    /**
-     * Get the instance of the LambdaSolver class
-     * 
-     * @param dfElement RegexDFElement to be solved
-     * @return LambdaSolver instance of the class
-     * @throws Exception if dfElement is null
-     */
-    public static LambdaSolver getInstance(RegexDFElement dfElement) throws Exception {
-        if (dfElement == null) {
-            throw new Exception("dfElement cannot be null");
-        }
-        if (instance == null) {
-            instance = new LambdaSolver(dfElement);
-        }
-        return instance;
+    private LambdaSolver() {
     }
 
     /**
-     * Solve the lambda transitions of the regex element
-     * 
-     * @param fromStateId From state id of the lambda mapping
+     * Get the lambda closure of a state, the state itself included. The closure
+     * is computed with an explicit worklist, so long lambda chains cannot
+     * overflow the stack.
+     *
      * @param dfElement   Regex element to be solved
-     * @param lambdaBody  Lambda body to be solved
-     * @return Set<Integer> Set of integers representing the lambda mapping
-     * @throws Exception
+     * @param fromStateId From state id of the lambda closure
+     * @return BitSet Set of states reachable from the state by lambda transitions
+     * @throws Exception if dfElement is null
      */
-    public Set<Integer> lambdaMapping(int fromStateId, LambdaBody lambdaBody) {
+    public static BitSet lambdaClosure(RegexDFElement dfElement, int fromStateId) throws Exception {
         if (dfElement == null) {
-            throw new IllegalArgumentException("dfElement cannot be null");
+            throw new Exception("dfElement cannot be null");
         }
-        var resultantStates = dfElement.getTransitions().get(fromStateId).get("λ") == null ? new ArrayList<Integer>()
-                : dfElement.getTransitions().get(fromStateId).get("λ");
-        Set<Integer> lambdaMappingSet = new HashSet<>();
-        lambdaBody.mappedVisited().put(fromStateId, true);
-        solver(resultantStates, fromStateId, lambdaBody, lambdaMappingSet);
-        mapElements(lambdaMappingSet, fromStateId);
-        lambdaMappingSet.addAll(resultantStates);
-        lambdaMappingSet.add(fromStateId);
-        lambdaBody.mappedStates().put(fromStateId, lambdaMappingSet);
-        return lambdaMappingSet;
+        var closure = new BitSet(dfElement.getTransitionsTotal());
+        var closureStates = new int[dfElement.getTransitionsTotal()];
+        lambdaClosure(dfElement, fromStateId, closure, closureStates);
+        return closure;
     }
 
     /**
-     * Map the elements of the lambdaMappingSet to the finalStates of the
-     * dfElement
-     * 
-     * @param lambdaMappingSet lambda mapping set
-     * @param dfElement        regex element
-     * @param fromStateId      from state id of the lambda mapping
+     * Fill the lambda closure of a state. The closure states array doubles as
+     * the worklist: states are appended once, when they are first visited.
+     *
+     * @param dfElement     Regex element to be solved
+     * @param fromStateId   From state id of the lambda closure
+     * @param visited       Empty bitset that receives the closure
+     * @param closureStates Buffer that receives the closure states in visit order
+     * @return int Number of states in the closure
      */
-    private void mapElements(Set<Integer> lambdaMappingSet, int fromStateId) {
-        lambdaMappingSet.stream().filter(state -> {
-            return dfElement.getFinalStates().contains(state);
-        }).findFirst().ifPresent(state -> {
-            dfElement.getFinalStates().add(fromStateId);
-        });
-    }
-
-    /**
-     * Solve the lambda transitions of the regex element recursively
-     * 
-     * @param resultantStates  the resultant states set of the lambda mapping
-     * @param fromStateId      the from state id of the lambda mapping
-     * @param lambdaBody       the lambda body to be solved
-     * @param lambdaMappingSet the lambda mapping set
-     */
-    private void solver(List<Integer> resultantStates, int fromStateId,
-            LambdaBody lambdaBody, Set<Integer> lambdaMappingSet) {
-        resultantStates.forEach(checkStateTarget -> {
-            if (checkStateTarget < fromStateId && lambdaBody.mappedStates().get(checkStateTarget) != null) {
-                lambdaMappingSet.addAll(lambdaBody.mappedStates().get(checkStateTarget));
-            } else if (lambdaBody.mappedVisited().get(checkStateTarget) == null) {
-                var state = lambdaMapping(checkStateTarget, lambdaBody);
-                lambdaMappingSet.addAll(state);
+    private static int lambdaClosure(RegexDFElement dfElement, int fromStateId, BitSet visited,
+            int[] closureStates) {
+        var closureTotal = 0;
+        visited.set(fromStateId);
+        closureStates[closureTotal++] = fromStateId;
+        for (int next = 0; next < closureTotal; next++) {
+            var lambdaTargets = dfElement.getTransitions().get(closureStates[next]).get(RegexUtils.LAMBDA);
+            if (lambdaTargets == null) {
+                continue;
             }
-        });
+            for (var target : lambdaTargets) {
+                if (!visited.get(target)) {
+                    visited.set(target);
+                    closureStates[closureTotal++] = target;
+                }
+            }
+        }
+        return closureTotal;
     }
 
     /**
      * Remove lambda transitions from the given Target RegexDF that is a NFA.
-     * 
+     * Every state that can still be reached without lambda transitions, the
+     * initial state and the targets of symbol transitions, receives the symbol
+     * transitions of its closure and becomes final when its closure has a final
+     * state. The other states are left without transitions.
+     *
      * @param targetRegexDf
-     * 
+     *
      * @return void
      */
     public static void removeLambda(RegexDFElement targetRegexDf) throws Exception {
@@ -112,73 +88,78 @@ public class LambdaSolver {
         if (targetRegexDf.isDeterministic()) {
             return;
         }
-        var lambdaBody = new LambdaBody(new HashMap<>(), new HashMap<>());
-        for (int i = 0; i < targetRegexDf.getTransitionsTotal(); i++) {
-            lambdaBody.mappedStates().put(i, LambdaSolver.getInstance(targetRegexDf).lambdaMapping(i, lambdaBody));
-            targetRegexDf.getTransitions().get(i).remove("λ");
-            lambdaBody.mappedVisited().clear();
-        }
-        targetRegexDf.getAlphabetSet().forEach(word -> {
-            for (int i = 0; i < targetRegexDf.getTransitionsTotal(); i++) {
-                if (lambdaBody.mappedStates().get(i) == null) {
-                    continue;
+        var statesTotal = targetRegexDf.getTransitionsTotal();
+        var visited = new BitSet(statesTotal);
+        var closureStates = new int[statesTotal];
+        var finalStates = new BitSet(statesTotal);
+        targetRegexDf.getFinalStates().forEach(finalStates::set);
+        var solvedTransitions = new ArrayList<HashMap<String, List<Integer>>>(statesTotal);
+        var reachableStates = findSymbolTargets(targetRegexDf);
+        reachableStates.set(targetRegexDf.getInitialState());
+        for (int i = 0; i < statesTotal; i++) {
+            if (!reachableStates.get(i)) {
+                solvedTransitions.add(new HashMap<String, List<Integer>>());
+                continue;
+            }
+            var closureTotal = lambdaClosure(targetRegexDf, i, visited, closureStates);
+            solvedTransitions.add(collectTransitions(targetRegexDf, closureStates, closureTotal));
+            for (int j = 0; j < closureTotal; j++) {
+                visited.clear(closureStates[j]);
+                if (finalStates.get(closureStates[j])) {
+                    targetRegexDf.getFinalStates().add(i);
                 }
-                iterateOverLambdaTransitions(targetRegexDf, lambdaBody, i, word);
             }
-        });
+        }
+        targetRegexDf.setTransitions(solvedTransitions);
     }
 
     /**
-     * Iterate over the transitions of the targetRegexDf.
-     * 
+     * Find the states that are the target of a symbol transition.
+     *
      * @param targetRegexDf target regexDf or element to be solved
-     * @param lambdaBody    lambda body to be solved
-     * @param index         index of the transition
-     * @param word          string to be solved
-     * 
-     * @return void
+     * @return BitSet the targets of every symbol transition
      */
-    private static void iterateOverLambdaTransitions(RegexDFElement targetRegexDf, LambdaBody lambdaBody, int index,
-            String word) {
-        lambdaBody.mappedStates().get(index).forEach(mappedStateTarget -> {
-            if (mappedStateTarget == index) {
-                return;
+    private static BitSet findSymbolTargets(RegexDFElement targetRegexDf) {
+        var symbolTargets = new BitSet(targetRegexDf.getTransitionsTotal());
+        targetRegexDf.getTransitions().forEach(transitions -> transitions.forEach((symbol, targets) -> {
+            if (!symbol.equals(RegexUtils.LAMBDA)) {
+                targets.forEach(symbolTargets::set);
             }
-            var checkingStates = targetRegexDf.getTransitions().get(mappedStateTarget).get(word);
-            if (checkingStates == null) {
-                return;
-            }
-            checkingStates.forEach(state -> {
-                updateTransitions(state, targetRegexDf, index, word, lambdaBody);
-            });
-        });
+        }));
+        return symbolTargets;
     }
 
     /**
-     * Update the transitions of the targetRegexDf.
-     * 
-     * @param state         state to be updated
+     * Collect the symbol transitions of every state of a closure, sorted and
+     * without duplicates.
+     *
      * @param targetRegexDf target regexDf or element to be solved
-     * @param index         index of the transition
-     * @param word          string to be solved
-     * @param lambdaBody    lambda body to be solved
-     * 
-     * @return void
+     * @param closureStates states of the closure
+     * @param closureTotal  number of states in the closure
+     * @return HashMap<String, List<Integer>> the transitions of the closure
      */
-    private static void updateTransitions(Integer state, RegexDFElement targetRegexDf, int index, String word,
-            LambdaBody lambdaBody) {
-        targetRegexDf.addNewTransition(index, state, word);
-        if (lambdaBody.mappedStates().get(state) == null) {
-            return;
+    private static HashMap<String, List<Integer>> collectTransitions(RegexDFElement targetRegexDf,
+            int[] closureStates, int closureTotal) {
+        var transitions = new HashMap<String, List<Integer>>();
+        for (int j = 0; j < closureTotal; j++) {
+            for (Map.Entry<String, List<Integer>> entry : targetRegexDf.getTransitions().get(closureStates[j])
+                    .entrySet()) {
+                if (entry.getKey().equals(RegexUtils.LAMBDA)) {
+                    continue;
+                }
+                transitions.computeIfAbsent(entry.getKey(), key -> new ArrayList<Integer>()).addAll(entry.getValue());
+            }
         }
-        lambdaBody.mappedStates().get(state).forEach(lambdaCheckup -> {
-            var occurence = true;
-            if ((occurence && targetRegexDf.getFinalStates().contains(lambdaCheckup))
-                    || !(targetRegexDf.getTransitions().get(lambdaCheckup).keySet().contains("λ")
-                            && targetRegexDf.getTransitions().get(lambdaCheckup).keySet().size() == 1)) {
-                targetRegexDf.addNewTransition(index, lambdaCheckup, word);
-                occurence = false;
+        transitions.values().forEach(targets -> {
+            Collections.sort(targets);
+            var distinctTotal = 0;
+            for (int i = 0; i < targets.size(); i++) {
+                if (i == 0 || !targets.get(i).equals(targets.get(i - 1))) {
+                    targets.set(distinctTotal++, targets.get(i));
+                }
             }
+            targets.subList(distinctTotal, targets.size()).clear();
         });
+        return transitions;
     }
 }
@@ -0,0 +1,171 @@
+package com.boisbarganhados.ftc.regex;
+
+import com.boisbarganhados.ftc.regex.ast.ConcatNode;
+import com.boisbarganhados.ftc.regex.ast.LambdaNode;
+import com.boisbarganhados.ftc.regex.ast.RegexNode;
+import com.boisbarganhados.ftc.regex.ast.StarNode;
+import com.boisbarganhados.ftc.regex.ast.SymbolNode;
+import com.boisbarganhados.ftc.regex.ast.UnionNode;
+import com.boisbarganhados.ftc.regex.records.RequiredLiterals;
+
+/**
+ * Extraction of the literals every word of a regex must have. The literals are
+ * computed over the characters of the words, escaped symbols included, so they
+ * are necessary conditions that can reject a sentence before the DFA runs:
+ * the minimum length, the single word when the regex has only one, the
+ * required prefix and suffix and the longest required inner literal found.
+ */
+public final class LiteralAnalyzer {
+
+    private LiteralAnalyzer() {
+    }
+
+    /**
+     * Get the required literals of a regex.
+     *
+     * @param regex The regex to be analyzed.
+     * @return The required literals.
+     * @throws Exception If the regex is invalid.
+     */
+    public static RequiredLiterals analyze(String regex) throws Exception {
+        return analyze(RegexAstParser.parse(regex));
+    }
+
+    /**
+     * Get the required literals of an already parsed regex tree.
+     *
+     * @param node The root of the regex tree.
+     * @return The required literals, with a null exact word when the regex has
+     *         more than one word.
+     */
+    public static RequiredLiterals analyze(RegexNode node) {
+        if (node instanceof SymbolNode symbolNode) {
+            var symbol = symbolNode.symbol();
+            return new RequiredLiterals(symbol.length(), symbol, symbol, symbol, symbol);
+        }
+        if (node instanceof LambdaNode) {
+            return new RequiredLiterals(0, "", "", "", "");
+        }
+        if (node instanceof StarNode starNode) {
+            var childLiterals = analyze(starNode.child());
+            var exact = "".equals(childLiterals.exact()) ? "" : null;
+            return new RequiredLiterals(0, exact, "", "", "");
+        }
+        if (node instanceof UnionNode unionNode) {
+            return analyzeUnion(unionNode);
+        }
+        return analyzeConcat((ConcatNode) node);
+    }
+
+    /**
+     * Every option of a union may be the one matched, so only what all the
+     * options require is kept.
+     *
+     * @param unionNode The union node.
+     * @return The required literals of the union.
+     */
+    private static RequiredLiterals analyzeUnion(UnionNode unionNode) {
+        RequiredLiterals unionLiterals = null;
+        for (var option : unionNode.options()) {
+            var optionLiterals = analyze(option);
+            if (unionLiterals == null) {
+                unionLiterals = optionLiterals;
+                continue;
+            }
+            var exact = optionLiterals.exact() != null && optionLiterals.exact().equals(unionLiterals.exact())
+                    ? unionLiterals.exact()
+                    : null;
+            var prefix = commonPrefix(unionLiterals.prefix(), optionLiterals.prefix());
+            var suffix = commonSuffix(unionLiterals.suffix(), optionLiterals.suffix());
+            var inner = unionLiterals.inner().equals(optionLiterals.inner()) ? unionLiterals.inner()
+                    : longest(prefix, suffix);
+            unionLiterals = new RequiredLiterals(Math.min(unionLiterals.minLength(), optionLiterals.minLength()),
+                    exact, prefix, suffix, inner);
+        }
+        return unionLiterals;
+    }
+
+    /**
+     * The items of a concatenation are matched one after the other, so a run of
+     * single word items is a required literal, extended by the suffix of the
+     * item before it and the prefix of the item after it.
+     *
+     * @param concatNode The concatenation node.
+     * @return The required literals of the concatenation.
+     */
+    private static RequiredLiterals analyzeConcat(ConcatNode concatNode) {
+        var items = concatNode.items().stream().map(LiteralAnalyzer::analyze).toList();
+        var minLength = 0;
+        var exact = new StringBuilder();
+        var allExact = true;
+        for (var itemLiterals : items) {
+            minLength += itemLiterals.minLength();
+            if (itemLiterals.exact() == null) {
+                allExact = false;
+            } else if (allExact) {
+                exact.append(itemLiterals.exact());
+            }
+        }
+        if (allExact) {
+            var word = exact.toString();
+            return new RequiredLiterals(minLength, word, word, word, word);
+        }
+        var prefix = new StringBuilder();
+        for (var itemLiterals : items) {
+            if (itemLiterals.exact() == null) {
+                prefix.append(itemLiterals.prefix());
+                break;
+            }
+            prefix.append(itemLiterals.exact());
+        }
+        var suffix = new StringBuilder();
+        for (int i = items.size() - 1; i >= 0; i--) {
+            if (items.get(i).exact() == null) {
+                suffix.insert(0, items.get(i).suffix());
+                break;
+            }
+            suffix.insert(0, items.get(i).exact());
+        }
+        var inner = longest(prefix.toString(), suffix.toString());
+        var run = new StringBuilder();
+        for (int i = 0; i <= items.size(); i++) {
+            var itemLiterals = i < items.size() ? items.get(i) : null;
+            if (itemLiterals != null && itemLiterals.exact() != null) {
+                run.append(itemLiterals.exact());
+                continue;
+            }
+            if (itemLiterals != null) {
+                run.append(itemLiterals.prefix());
+                inner = longest(inner, itemLiterals.inner());
+            }
+            inner = longest(inner, run.toString());
+            run.setLength(0);
+            if (itemLiterals != null) {
+                run.append(itemLiterals.suffix());
+            }
+        }
+        return new RequiredLiterals(minLength, null, prefix.toString(), suffix.toString(), inner);
+    }
+
+    private static String commonPrefix(String first, String second) {
+        var length = 0;
+        while (length < first.length() && length < second.length()
+                && first.charAt(length) == second.charAt(length)) {
+            length++;
+        }
+        return first.substring(0, length);
+    }
+
+    private static String commonSuffix(String first, String second) {
+        var length = 0;
+        while (length < first.length() && length < second.length()
+                && first.charAt(first.length() - 1 - length) == second.charAt(second.length() - 1 - length)) {
+            length++;
+        }
+        return first.substring(first.length() - length);
+    }
+
+    private static String longest(String first, String second) {
+        return second.length() > first.length() ? second : first;
+    }
+}
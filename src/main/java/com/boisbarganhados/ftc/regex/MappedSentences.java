@@ -0,0 +1,336 @@
+package com.boisbarganhados.ftc.regex;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.regex.records.SentenceCounts;
+
+/**
+ * Evaluation of a UTF-8 sentences file straight from memory mapped chunks. The
+ * file is split in chunks that end at a line break, every chunk is mapped and
+ * matched by its own task, and the lines are matched from the mapped bytes, so
+ * no line is turned into a String and the heap use does not grow with the
+ * file size.
+ *
+ * Lines end with {@code \n}, {@code \r\n} or {@code \r}, and like
+ * {@link java.io.BufferedReader#lines()} an empty last line after the final
+ * line break is not a sentence. Chunks are split after any line break, and
+ * never between the {@code \r} and the {@code \n} of a {@code \r\n}.
+ *
+ * Chunks are matched a window of as many chunks as threads at a time, and the
+ * results of a window are released before the next one is mapped, so at most
+ * one window of chunks is mapped at once. When an output is given, the result
+ * of every line is written to it in the order of the file, like
+ * {@link RegexUtils#simulateDFA}, and only the accepted bits and mappings of a
+ * window are kept for it. When only counting, a chunk keeps neither.
+ */
+public final class MappedSentences {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+    private static final int PRINT_BLOCK_SIZE = 1 << 16;
+    private static final byte[] ACCEPTED = "Accepted by DFA: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] REJECTED = "Rejected by DFA: ".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The result of a mapped chunk: its counts and, when its lines are
+     * written, the bit of every line, kept with the mapping so the lines can
+     * be written without reading the file again.
+     */
+    private record ChunkResult(MappedByteBuffer chunk, long sentences, long accepted, long[] acceptedLines) {
+    }
+
+    private MappedSentences() {
+    }
+
+    /**
+     * Count the sentences of the file and how many are accepted, using the
+     * default chunk size.
+     *
+     * @param path        The path to the sentences file.
+     * @param compiledDfa The compiled DFA, shared by every task.
+     * @param parallelism The number of worker threads.
+     * @return The number of sentences and of accepted sentences.
+     * @throws Exception If the file cannot be read or the parallelism is not
+     *                   positive.
+     */
+    public static SentenceCounts evaluate(String path, CompiledDFA compiledDfa, int parallelism) throws Exception {
+        return evaluate(path, compiledDfa, parallelism, DEFAULT_CHUNK_SIZE, null);
+    }
+
+    /**
+     * Count the sentences of the file and how many are accepted, writing the
+     * result of every line to the output, using the default chunk size.
+     *
+     * @param path        The path to the sentences file.
+     * @param compiledDfa The compiled DFA, shared by every task.
+     * @param parallelism The number of worker threads.
+     * @param output      The output of the line results, flushed but not
+     *                    closed.
+     * @return The number of sentences and of accepted sentences.
+     * @throws Exception If the file cannot be read, the output cannot be
+     *                   written or the parallelism is not positive.
+     */
+    public static SentenceCounts evaluate(String path, CompiledDFA compiledDfa, int parallelism,
+            OutputStream output) throws Exception {
+        return evaluate(path, compiledDfa, parallelism, DEFAULT_CHUNK_SIZE, output);
+    }
+
+    /**
+     * Count the sentences of the file and how many are accepted.
+     *
+     * @param path        The path to the sentences file.
+     * @param compiledDfa The compiled DFA, shared by every task.
+     * @param parallelism The number of worker threads.
+     * @param chunkSize   The approximate number of bytes of each chunk. A chunk
+     *                    is extended to the end of its last line.
+     * @return The number of sentences and of accepted sentences.
+     * @throws Exception If the file cannot be read, a line does not fit in a
+     *                   mapping or the parallelism or chunk size is not
+     *                   positive.
+     */
+    public static SentenceCounts evaluate(String path, CompiledDFA compiledDfa, int parallelism, int chunkSize)
+            throws Exception {
+        return evaluate(path, compiledDfa, parallelism, chunkSize, null);
+    }
+
+    /**
+     * Count the sentences of the file and how many are accepted, and write the
+     * result of every line to the output when one is given. A line is written
+     * as {@code Accepted by DFA: } or {@code Rejected by DFA: }, its bytes as
+     * they are in the file and the line separator.
+     *
+     * @param path        The path to the sentences file.
+     * @param compiledDfa The compiled DFA, shared by every task.
+     * @param parallelism The number of worker threads. The number of available
+     *                    processors uses the common pool instead of a new one.
+     * @param chunkSize   The approximate number of bytes of each chunk. A chunk
+     *                    is extended to the end of its last line.
+     * @param output      The output of the line results, flushed but not
+     *                    closed, or null to only count them.
+     * @return The number of sentences and of accepted sentences.
+     * @throws Exception If the file cannot be read, the output cannot be
+     *                   written, a line does not fit in a mapping or the
+     *                   parallelism or chunk size is not positive.
+     */
+    public static SentenceCounts evaluate(String path, CompiledDFA compiledDfa, int parallelism, int chunkSize,
+            OutputStream output) throws Exception {
+        if (parallelism < 1)
+            throw new Exception("Parallelism must be at least 1: " + parallelism);
+        if (chunkSize < 1)
+            throw new Exception("Chunk size must be at least 1: " + chunkSize);
+        try (var channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            var tasks = new ArrayList<Callable<ChunkResult>>();
+            var fileSize = channel.size();
+            var scanBuffer = ByteBuffer.allocateDirect(SCAN_BUFFER_SIZE);
+            for (long start = 0; start < fileSize;) {
+                var end = findLineEnd(channel, Math.min(fileSize, start + chunkSize), scanBuffer);
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new Exception("Line too long to be mapped at byte " + start + " of " + path);
+                }
+                var chunkStart = start;
+                tasks.add(() -> evaluateChunk(channel, chunkStart, end, compiledDfa, output != null));
+                start = end;
+            }
+            // The common pool is shared with the rest of the JVM and ignores
+            // shutdown, so only a pool of another size is created per call.
+            var pool = parallelism == Runtime.getRuntime().availableProcessors() ? ForkJoinPool.commonPool()
+                    : new ForkJoinPool(parallelism);
+            var writer = output == null ? null : new BufferedOutputStream(output, PRINT_BLOCK_SIZE);
+            try {
+                var counts = new SentenceCounts(0, 0);
+                for (int from = 0; from < tasks.size(); from += parallelism) {
+                    var windowTasks = tasks.subList(from, Math.min(tasks.size(), from + parallelism));
+                    counts = evaluateWindow(pool, windowTasks, writer, counts);
+                }
+                if (writer != null) {
+                    writer.flush();
+                }
+                return counts;
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Match a window of chunks and write their lines. The results of the
+     * window, and the mappings they hold, are only referenced from this call,
+     * so they can be released before the next window is mapped.
+     *
+     * @param pool        The pool of the tasks.
+     * @param windowTasks The tasks of the chunks of the window.
+     * @param writer      The buffered output, or null to only count.
+     * @param counts      The counts of the previous windows.
+     * @return The counts with the ones of the window added.
+     * @throws Exception If a chunk cannot be matched or the output cannot be
+     *                   written.
+     */
+    private static SentenceCounts evaluateWindow(ForkJoinPool pool, List<Callable<ChunkResult>> windowTasks,
+            BufferedOutputStream writer, SentenceCounts counts) throws Exception {
+        var sentences = counts.sentences();
+        var accepted = counts.accepted();
+        for (var result : pool.invokeAll(windowTasks)) {
+            var chunkResult = result.get();
+            sentences += chunkResult.sentences();
+            accepted += chunkResult.accepted();
+            if (writer != null) {
+                writeChunk(chunkResult, writer);
+            }
+        }
+        return new SentenceCounts(sentences, accepted);
+    }
+
+    /**
+     * Find the end of the line that holds the byte before a position.
+     *
+     * @param channel    The file channel.
+     * @param position   The position to start from, at least 1.
+     * @param scanBuffer The buffer used to read the file.
+     * @return The position after the next line break, or the file size.
+     * @throws Exception If the file cannot be read.
+     */
+    private static long findLineEnd(FileChannel channel, long position, ByteBuffer scanBuffer) throws Exception {
+        position--;
+        while (true) {
+            scanBuffer.clear();
+            var read = channel.read(scanBuffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                var value = scanBuffer.get(i);
+                if (value == '\n') {
+                    return position + i + 1;
+                }
+                if (value == '\r') {
+                    return isLineFeed(channel, position + i + 1, scanBuffer, i + 1 < read ? i + 1 : -1)
+                            ? position + i + 2
+                            : position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Check if the byte after a {@code \r} is a {@code \n}, from the scan
+     * buffer when it holds it or from the file when the {@code \r} was the last
+     * byte read.
+     */
+    private static boolean isLineFeed(FileChannel channel, long position, ByteBuffer scanBuffer, int index)
+            throws Exception {
+        if (index >= 0) {
+            return scanBuffer.get(index) == '\n';
+        }
+        scanBuffer.clear().limit(1);
+        return channel.read(scanBuffer, position) == 1 && scanBuffer.get(0) == '\n';
+    }
+
+    /**
+     * Map a chunk of whole lines and match every line of it.
+     *
+     * @param channel     The file channel.
+     * @param start       The position of the first line of the chunk.
+     * @param end         The position after the last line of the chunk.
+     * @param compiledDfa The compiled DFA.
+     * @param keepsLines  If the accepted lines and the mapping are kept to
+     *                    write the lines.
+     * @return The counts of the chunk, with its accepted lines and mapping
+     *         when they are kept.
+     * @throws Exception If the chunk cannot be mapped.
+     */
+    private static ChunkResult evaluateChunk(FileChannel channel, long start, long end, CompiledDFA compiledDfa,
+            boolean keepsLines) throws Exception {
+        var chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        var limit = chunk.limit();
+        var acceptedLines = keepsLines ? new long[1] : null;
+        var sentences = 0L;
+        var accepted = 0L;
+        for (int lineStart = 0; lineStart < limit;) {
+            var lineEnd = findTerminator(chunk, lineStart);
+            if (compiledDfa.matches(chunk, lineStart, lineEnd)) {
+                if (keepsLines) {
+                    var word = (int) (sentences >>> 6);
+                    if (word == acceptedLines.length) {
+                        acceptedLines = Arrays.copyOf(acceptedLines, word * 2);
+                    }
+                    acceptedLines[word] |= 1L << sentences;
+                }
+                accepted++;
+            }
+            sentences++;
+            lineStart = skipTerminator(chunk, lineEnd);
+        }
+        return keepsLines ? new ChunkResult(chunk, sentences, accepted, acceptedLines)
+                : new ChunkResult(null, sentences, accepted, null);
+    }
+
+    /**
+     * Write the result of every line of a chunk.
+     *
+     * @param chunkResult The matched chunk.
+     * @param writer      The buffered output.
+     * @throws Exception If the output cannot be written.
+     */
+    private static void writeChunk(ChunkResult chunkResult, BufferedOutputStream writer) throws Exception {
+        var chunk = chunkResult.chunk();
+        var acceptedLines = chunkResult.acceptedLines();
+        var lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        var bytes = new byte[PRINT_BLOCK_SIZE];
+        var line = 0;
+        for (int lineStart = 0; lineStart < chunk.limit(); line++) {
+            var lineEnd = findTerminator(chunk, lineStart);
+            var word = line >>> 6;
+            var isAccepted = word < acceptedLines.length && (acceptedLines[word] & 1L << line) != 0;
+            writer.write(isAccepted ? ACCEPTED : REJECTED);
+            for (int from = lineStart; from < lineEnd; from += bytes.length) {
+                var length = Math.min(bytes.length, lineEnd - from);
+                chunk.get(from, bytes, 0, length);
+                writer.write(bytes, 0, length);
+            }
+            writer.write(lineSeparator);
+            lineStart = skipTerminator(chunk, lineEnd);
+        }
+    }
+
+    /**
+     * Find the first line break at or after a position.
+     *
+     * @return The position of the line break, or the limit of the chunk.
+     */
+    private static int findTerminator(ByteBuffer chunk, int from) {
+        var limit = chunk.limit();
+        for (int i = from; i < limit; i++) {
+            var value = chunk.get(i);
+            if (value == '\n' || value == '\r') {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Get the position after the line break at a position, taking a
+     * {@code \r\n} as one line break.
+     */
+    private static int skipTerminator(ByteBuffer chunk, int lineEnd) {
+        if (lineEnd + 1 < chunk.limit() && chunk.get(lineEnd) == '\r' && chunk.get(lineEnd + 1) == '\n') {
+            return lineEnd + 2;
+        }
+        return lineEnd + 1;
+    }
+}
\ No newline at end of file
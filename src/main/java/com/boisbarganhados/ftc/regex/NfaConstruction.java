@@ -0,0 +1,68 @@
+package com.boisbarganhados.ftc.regex;
+
+import com.boisbarganhados.ftc.dfa.RegexDFElement;
+import com.boisbarganhados.ftc.regex.ast.RegexNode;
+
+import lombok.Getter;
+
+/**
+ * NFA construction used to compile a regex. Both produce a lambda-free NFA
+ * ready for {@link RegexUtils#convertToDeterministic}.
+ */
+@Getter
+public enum NfaConstruction {
+
+    THOMPSON("thompson"),
+    GLUSHKOV("glushkov");
+
+    private final String name;
+
+    private NfaConstruction(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the lambda-free NFA from a regex string with this construction.
+     * 
+     * @param regex The regex to be converted to NFA.
+     * @return The NFA structure equivalent to the regex.
+     * @throws Exception If the regex is invalid or any error occurs.
+     */
+    public RegexDFElement getNfaFromRegex(String regex) throws Exception {
+        if (this == GLUSHKOV) {
+            return Glushkov.getNfaFromRegex(regex);
+        }
+        return Thompson.getNfaFromRegex(regex);
+    }
+
+    /**
+     * Get the lambda-free NFA from an already parsed regex tree with this
+     * construction.
+     * 
+     * @param root The root of the regex tree.
+     * @return The NFA structure equivalent to the regex.
+     * @throws Exception If any error occurs.
+     */
+    public RegexDFElement getNfaFromAst(RegexNode root) throws Exception {
+        if (this == GLUSHKOV) {
+            return Glushkov.getNfaFromAst(root);
+        }
+        return Thompson.getNfaFromAst(root);
+    }
+
+    /**
+     * Get the construction by its name, ignoring case.
+     * 
+     * @param name The name of the construction.
+     * @return The construction with the given name.
+     * @throws Exception If there is no construction with the given name.
+     */
+    public static NfaConstruction getByName(String name) throws Exception {
+        for (NfaConstruction construction : NfaConstruction.values()) {
+            if (construction.getName().equalsIgnoreCase(name)) {
+                return construction;
+            }
+        }
+        throw new Exception("Invalid NFA construction: " + name);
+    }
+}
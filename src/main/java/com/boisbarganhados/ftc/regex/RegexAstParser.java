@@ -0,0 +1,154 @@
+package com.boisbarganhados.ftc.regex;
+
+import java.util.ArrayList;
+
+import com.boisbarganhados.ftc.regex.ast.ConcatNode;
+import com.boisbarganhados.ftc.regex.ast.LambdaNode;
+import com.boisbarganhados.ftc.regex.ast.RegexNode;
+import com.boisbarganhados.ftc.regex.ast.StarNode;
+import com.boisbarganhados.ftc.regex.ast.SymbolNode;
+import com.boisbarganhados.ftc.regex.ast.UnionNode;
+
+/**
+ * Single pass recursive-descent parser that turns a regex string into a
+ * {@link RegexNode} tree.
+ *
+ * Grammar (lowest to highest priority, same as {@link Operations}):
+ *
+ * <pre>
+ * union  := concat ('+' concat)*
+ * concat := star star*
+ * star   := atom '*'*
+ * atom   := '(' union ')' | 'λ' | '\' char | char
+ * </pre>
+ */
+public final class RegexAstParser {
+
+    private static final char UNION = Operations.UNION.getSymbol().charAt(0);
+    private static final char STAR = Operations.STAR.getSymbol().charAt(0);
+    private static final char LAMBDA = RegexUtils.LAMBDA.charAt(0);
+    private static final char OPEN = '(';
+    private static final char CLOSE = ')';
+
+    private final String regex;
+    private int position;
+
+    private RegexAstParser(String regex) {
+        this.regex = regex;
+        this.position = 0;
+    }
+
+    /**
+     * Parse the regex string into its syntax tree.
+     *
+     * @param regex The regex to be parsed.
+     * @return The root node of the regex tree.
+     * @throws Exception If the regex is empty or malformed.
+     */
+    public static RegexNode parse(String regex) throws Exception {
+        if (regex == null || regex.isEmpty()) {
+            throw new Exception("Regex cannot be null or empty.");
+        }
+        var parser = new RegexAstParser(regex);
+        var root = parser.parseUnion();
+        if (parser.position < regex.length()) {
+            throw parser.error("Unexpected '" + regex.charAt(parser.position) + "'");
+        }
+        return root;
+    }
+
+    /**
+     * Parse a union of concatenations.
+     *
+     * @return The union node, or the single option when there is no union.
+     * @throws Exception If an option is empty or malformed.
+     */
+    private RegexNode parseUnion() throws Exception {
+        var options = new ArrayList<RegexNode>();
+        options.add(parseConcat());
+        while (hasNext() && peek() == UNION) {
+            position++;
+            options.add(parseConcat());
+        }
+        return options.size() == 1 ? options.get(0) : new UnionNode(options);
+    }
+
+    /**
+     * Parse a concatenation of starred atoms.
+     *
+     * @return The concatenation node, or the single item when there is only one.
+     * @throws Exception If the concatenation is empty or malformed.
+     */
+    private RegexNode parseConcat() throws Exception {
+        var items = new ArrayList<RegexNode>();
+        while (hasNext() && peek() != UNION && peek() != CLOSE) {
+            items.add(parseStar());
+        }
+        if (items.isEmpty()) {
+            throw error("Missing operand");
+        }
+        return items.size() == 1 ? items.get(0) : new ConcatNode(items);
+    }
+
+    /**
+     * Parse an atom followed by any number of Kleene stars.
+     *
+     * @return The starred atom.
+     * @throws Exception If the atom is malformed.
+     */
+    private RegexNode parseStar() throws Exception {
+        var node = parseAtom();
+        while (hasNext() && peek() == STAR) {
+            position++;
+            if (!(node instanceof StarNode)) {
+                node = new StarNode(node);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Parse a group, λ, an escaped symbol or a plain symbol.
+     *
+     * @return The atom node.
+     * @throws Exception If the atom is malformed.
+     */
+    private RegexNode parseAtom() throws Exception {
+        var current = peek();
+        if (current == STAR) {
+            throw error("Missing operand for '" + STAR + "'");
+        }
+        position++;
+        if (current == OPEN) {
+            var group = parseUnion();
+            if (!hasNext() || peek() != CLOSE) {
+                throw error("Missing ')'");
+            }
+            position++;
+            return group;
+        }
+        if (current == LAMBDA) {
+            return new LambdaNode();
+        }
+        if (current == RegexUtils.EXPANSION) {
+            if (!hasNext()) {
+                throw error("Missing symbol after '" + RegexUtils.EXPANSION + "'");
+            }
+            position++;
+            return new SymbolNode(regex.substring(position - RegexUtils.CUT_KEY_SIZE, position));
+        }
+        return new SymbolNode(String.valueOf(current));
+    }
+
+    private boolean hasNext() {
+        return position < regex.length();
+    }
+
+    private char peek() {
+        return regex.charAt(position);
+    }
+
+    private Exception error(String message) {
+        return new Exception("Invalid regex. " + message + " at position " + position + ": " + regex);
+    }
+}
@@ -0,0 +1,320 @@
+package com.boisbarganhados.ftc.regex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.boisbarganhados.ftc.dfa.Alphabet;
+import com.boisbarganhados.ftc.dfa.CompactNFA;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.regex.ast.ConcatNode;
+import com.boisbarganhados.ftc.regex.ast.LambdaNode;
+import com.boisbarganhados.ftc.regex.ast.RegexNode;
+import com.boisbarganhados.ftc.regex.ast.StarNode;
+import com.boisbarganhados.ftc.regex.ast.SymbolNode;
+import com.boisbarganhados.ftc.regex.ast.UnionNode;
+import com.boisbarganhados.ftc.regex.records.SearchMatch;
+
+/**
+ * Unanchored search of a regex inside longer texts, reporting leftmost-longest
+ * matches as char offsets. Three DFAs are built with the Glushkov construction:
+ * <ul>
+ * <li>a forward unanchored DFA, that finds if and where the first match ends
+ * and quickly rejects texts without matches;</li>
+ * <li>a reverse unanchored DFA of the reversed regex, that reads the text from
+ * its end and marks every position where a match starts;</li>
+ * <li>a forward anchored DFA, that finds the longest match from a start.</li>
+ * </ul>
+ * The text is read one character at a time, so an escaped regex symbol such as
+ * {@code \+} matches the two characters {@code \+} of the text. Characters
+ * outside the regex alphabet cannot be part of a match.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class RegexSearcher {
+
+    private final CompiledDFA forwardSearch;
+    private final CompiledDFA reverseSearch;
+    private final CompiledDFA forwardMatch;
+
+    private RegexSearcher(CompiledDFA forwardSearch, CompiledDFA reverseSearch, CompiledDFA forwardMatch) {
+        this.forwardSearch = forwardSearch;
+        this.reverseSearch = reverseSearch;
+        this.forwardMatch = forwardMatch;
+    }
+
+    /**
+     * Compile the search automata of a regex.
+     *
+     * @param regex The regex to be searched.
+     * @return The searcher of the regex.
+     * @throws Exception If the regex is invalid or any error occurs.
+     */
+    public static RegexSearcher of(String regex) throws Exception {
+        var root = expandEscapes(RegexAstParser.parse(regex));
+        return new RegexSearcher(compile(root, true), compile(reverse(root), true), compile(root, false));
+    }
+
+    /**
+     * Find the first leftmost-longest match of the text.
+     *
+     * @param text The text to be searched.
+     * @return The first match, or null if there is none.
+     */
+    public SearchMatch find(CharSequence text) {
+        return find(text, 0);
+    }
+
+    /**
+     * Find the first leftmost-longest match that starts at or after an offset.
+     *
+     * Every call reads the text from the offset to the first match end and then
+     * reads it again backwards from its end down to the offset, since the
+     * leftmost match may end after the first match to end. A call costs O(n) in
+     * the text length, so calling it in a loop to walk over the matches costs
+     * O(n²); use {@link #findAll(CharSequence)} or {@link #count(CharSequence)}
+     * instead, which share one backward pass between all the matches.
+     *
+     * @param text The text to be searched.
+     * @param from The offset where the search starts.
+     * @return The first match, or null if there is none.
+     */
+    public SearchMatch find(CharSequence text, int from) {
+        Objects.checkIndex(from, text.length() + 1);
+        if (findFirstEnd(text, from) < 0) {
+            return null;
+        }
+        var start = findLeftmostStart(text, from);
+        return new SearchMatch(start, findLongestEnd(text, start));
+    }
+
+    /**
+     * Find every non-overlapping leftmost-longest match. After an empty match
+     * the search goes on from the next character.
+     *
+     * @param text The text to be searched.
+     * @return The matches, in text order.
+     */
+    public List<SearchMatch> findAll(CharSequence text) {
+        if (findFirstEnd(text, 0) < 0) {
+            return Collections.emptyList();
+        }
+        var matches = new ArrayList<SearchMatch>();
+        var starts = findStarts(text);
+        for (int from = 0; from <= text.length();) {
+            var start = starts.nextSetBit(from);
+            if (start < 0) {
+                break;
+            }
+            var end = findLongestEnd(text, start);
+            matches.add(new SearchMatch(start, end));
+            from = end > start ? end : end + 1;
+        }
+        return matches;
+    }
+
+    /**
+     * Count the non-overlapping leftmost-longest matches, as
+     * {@link #findAll(CharSequence)} would find them.
+     *
+     * @param text The text to be searched.
+     * @return The number of matches.
+     */
+    public int count(CharSequence text) {
+        if (findFirstEnd(text, 0) < 0) {
+            return 0;
+        }
+        var count = 0;
+        var starts = findStarts(text);
+        for (int from = 0; from <= text.length();) {
+            var start = starts.nextSetBit(from);
+            if (start < 0) {
+                break;
+            }
+            var end = findLongestEnd(text, start);
+            count++;
+            from = end > start ? end : end + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Run the forward unanchored DFA until the first match ends. A character out
+     * of the alphabet cannot be matched, so the search starts over after it.
+     *
+     * @param text The text to be searched.
+     * @param from The offset where the search starts.
+     * @return The end of the first match to end, or -1 if there is no match.
+     */
+    private int findFirstEnd(CharSequence text, int from) {
+        var state = forwardSearch.getInitialState();
+        if (forwardSearch.isAccepting(state)) {
+            return from;
+        }
+        for (int i = from; i < text.length(); i++) {
+            state = step(forwardSearch, state, text.charAt(i));
+            if (forwardSearch.isAccepting(state)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Run the reverse unanchored DFA from the end of the text down to an offset.
+     * The DFA accepts at a position when a match starts there.
+     *
+     * @param text The text to be searched.
+     * @param from The lowest offset read.
+     * @return The lowest offset where a match starts, or -1 if there is none.
+     */
+    private int findLeftmostStart(CharSequence text, int from) {
+        var state = reverseSearch.getInitialState();
+        var start = reverseSearch.isAccepting(state) ? text.length() : -1;
+        for (int i = text.length() - 1; i >= from; i--) {
+            state = step(reverseSearch, state, text.charAt(i));
+            if (reverseSearch.isAccepting(state)) {
+                start = i;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Mark every offset of the text where a match starts, in one backward pass
+     * of the reverse unanchored DFA.
+     *
+     * @param text The text to be searched.
+     * @return The offsets where a match starts.
+     */
+    private BitSet findStarts(CharSequence text) {
+        var starts = new BitSet(text.length() + 1);
+        var state = reverseSearch.getInitialState();
+        if (reverseSearch.isAccepting(state)) {
+            starts.set(text.length());
+        }
+        for (int i = text.length() - 1; i >= 0; i--) {
+            state = step(reverseSearch, state, text.charAt(i));
+            if (reverseSearch.isAccepting(state)) {
+                starts.set(i);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Run the forward anchored DFA from a start until it has no transition.
+     *
+     * @param text  The text to be searched.
+     * @param start The offset where a match starts.
+     * @return The end of the longest match from the start.
+     */
+    private int findLongestEnd(CharSequence text, int start) {
+        var state = forwardMatch.getInitialState();
+        var end = forwardMatch.isAccepting(state) ? start : -1;
+        var alphabet = forwardMatch.getAlphabet();
+        for (int i = start; i < text.length(); i++) {
+            var classId = alphabet.classOf(text.charAt(i));
+            if (classId == Alphabet.NO_CLASS) {
+                break;
+            }
+            state = forwardMatch.next(state, classId);
+            if (state == CompiledDFA.NO_STATE) {
+                break;
+            }
+            if (forwardMatch.isAccepting(state)) {
+                end = i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Read one character with an unanchored DFA. Its initial state loops on every
+     * symbol, so a character out of the alphabet only drops the partial matches.
+     *
+     * @param dfa       The unanchored DFA.
+     * @param state     The current state.
+     * @param character The character read.
+     * @return The next state.
+     */
+    private static int step(CompiledDFA dfa, int state, char character) {
+        var classId = dfa.getAlphabet().classOf(character);
+        if (classId == Alphabet.NO_CLASS) {
+            return dfa.getInitialState();
+        }
+        return dfa.next(state, classId);
+    }
+
+    /**
+     * Build the DFA of a regex tree whose symbols are single characters.
+     *
+     * @param root       The root of the regex tree.
+     * @param unanchored True to let the DFA skip any prefix of the text.
+     * @return The compiled DFA.
+     * @throws Exception If any error occurs.
+     */
+    private static CompiledDFA compile(RegexNode root, boolean unanchored) throws Exception {
+        var nfa = Glushkov.getNfaFromAst(root);
+        if (unanchored) {
+            for (var symbol : nfa.getAlphabetSet()) {
+                nfa.addNewTransition(nfa.getInitialState(), nfa.getInitialState(), symbol);
+            }
+        }
+        return CompiledDFA.of(SubsetConstruction.determinize(CompactNFA.of(nfa, false)));
+    }
+
+    /**
+     * Replace every escaped symbol by the concatenation of its characters.
+     *
+     * @param node The node to be expanded.
+     * @return The node with single character symbols only.
+     */
+    private static RegexNode expandEscapes(RegexNode node) {
+        if (node instanceof SymbolNode symbolNode) {
+            if (symbolNode.symbol().length() == 1) {
+                return node;
+            }
+            var characters = new ArrayList<RegexNode>();
+            for (var character : symbolNode.symbol().toCharArray()) {
+                characters.add(new SymbolNode(String.valueOf(character)));
+            }
+            return new ConcatNode(characters);
+        }
+        if (node instanceof LambdaNode) {
+            return node;
+        }
+        if (node instanceof StarNode starNode) {
+            return new StarNode(expandEscapes(starNode.child()));
+        }
+        if (node instanceof UnionNode unionNode) {
+            return new UnionNode(unionNode.options().stream().map(RegexSearcher::expandEscapes).toList());
+        }
+        return new ConcatNode(((ConcatNode) node).items().stream().map(RegexSearcher::expandEscapes).toList());
+    }
+
+    /**
+     * Reverse a regex tree, so it matches the reversed words.
+     *
+     * @param node The node to be reversed.
+     * @return The reversed node.
+     */
+    private static RegexNode reverse(RegexNode node) {
+        if (node instanceof StarNode starNode) {
+            return new StarNode(reverse(starNode.child()));
+        }
+        if (node instanceof UnionNode unionNode) {
+            return new UnionNode(unionNode.options().stream().map(RegexSearcher::reverse).toList());
+        }
+        if (node instanceof ConcatNode concatNode) {
+            var items = new ArrayList<RegexNode>();
+            for (int i = concatNode.items().size() - 1; i >= 0; i--) {
+                items.add(reverse(concatNode.items().get(i)));
+            }
+            return new ConcatNode(items);
+        }
+        return node;
+    }
+}
@@ -4,19 +4,32 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import com.boisbarganhados.ftc.dfa.BitParallelNFA;
+import com.boisbarganhados.ftc.dfa.CompactNFA;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
 import com.boisbarganhados.ftc.dfa.DFA;
 import com.boisbarganhados.ftc.dfa.DFAState;
+import com.boisbarganhados.ftc.dfa.Prefilter;
 import com.boisbarganhados.ftc.dfa.RegexDFElement;
-import com.boisbarganhados.ftc.regex.records.DFABody;
+import com.boisbarganhados.ftc.dfa.SentenceMatcher;
+import com.boisbarganhados.ftc.dfa.TaggedDFA;
+import com.boisbarganhados.ftc.minimization.DFATrimmer;
+import com.boisbarganhados.ftc.minimization.HopcroftDFAMinimizer;
 
 public final class RegexUtils {
 
     public static final char EXPANSION = '\\';
     public static final int CUT_KEY_SIZE = 2;
+    public static final String LAMBDA = "λ";
+
+    private static final int PRINT_BLOCK_SIZE = 1 << 16;
 
     /**
      * Simulate the DFA with the given sentences and print the results.
@@ -26,18 +39,179 @@ public final class RegexUtils {
      * @throws Exception If an error occurs while simulating the DFA.
      */
     public static void simulateDFA(RegexDFElement regexDfa, List<String> sentences) throws Exception {
+        simulateDFA(CompiledDFA.of(regexDfa), sentences);
+    }
+
+    /**
+     * Simulate the compiled DFA with the given sentences and print the results.
+     * The sentences are evaluated in parallel on every available processor and
+     * printed in their original order, a block of lines at a time.
+     * 
+     * @param compiledDfa The compiled DFA to be simulated.
+     * @param sentences   The sentences to be tested.
+     * @throws Exception If the sentences list is null or empty.
+     */
+    public static void simulateDFA(CompiledDFA compiledDfa, List<String> sentences) throws Exception {
         if (sentences == null || sentences.isEmpty())
             throw new Exception("Sentences list cannot be null or empty.");
-        sentences.forEach(sentence -> {
-            try {
-                if (regexDfa.simulate(sentence)) {
-                    System.out.println("Accepted by DFA: " + sentence);
-                } else
-                    System.out.println("Rejected by DFA: " + sentence);
-            } catch (Exception e) {
-                System.err.println("Error while simulating DFA: " + e.getMessage());
+        var accepted = evaluateSentences(compiledDfa, sentences, Runtime.getRuntime().availableProcessors());
+        var output = new StringBuilder();
+        for (int i = 0; i < sentences.size(); i++) {
+            output.append(accepted.get(i) ? "Accepted by DFA: " : "Rejected by DFA: ")
+                    .append(sentences.get(i)).append(System.lineSeparator());
+            if (output.length() >= PRINT_BLOCK_SIZE) {
+                System.out.print(output);
+                output.setLength(0);
             }
-        });
+        }
+        System.out.print(output);
+    }
+
+    /**
+     * Evaluate the sentences against a shared matcher. The list is split in
+     * ranges aligned to 64 sentences, so every task writes its own words of the
+     * result and the result does not depend on the scheduling.
+     * 
+     * @param matcher     The immutable matcher, shared by every worker.
+     * @param sentences   The sentences to be tested.
+     * @param parallelism The number of worker threads, 1 to evaluate in the
+     *                    calling thread. The number of available processors
+     *                    uses the common pool instead of a new one.
+     * @return The indexes of the accepted sentences, so the number of accepted
+     *         sentences is its cardinality.
+     * @throws Exception If the sentences list is null or the parallelism is not
+     *                   positive.
+     */
+    public static BitSet evaluateSentences(SentenceMatcher matcher, List<String> sentences, int parallelism)
+            throws Exception {
+        if (sentences == null)
+            throw new Exception("Sentences list cannot be null.");
+        if (parallelism < 1)
+            throw new Exception("Parallelism must be at least 1: " + parallelism);
+        var accepted = new long[(sentences.size() + 63) >>> 6];
+        var task = new EvaluationTask(matcher, sentences, accepted, 0, accepted.length);
+        if (parallelism == 1) {
+            task.evaluate();
+            return BitSet.valueOf(accepted);
+        }
+        // The common pool is shared with the rest of the JVM and ignores
+        // shutdown, so only a pool of another size is created per call.
+        var pool = parallelism == Runtime.getRuntime().availableProcessors() ? ForkJoinPool.commonPool()
+                : new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(task);
+        } finally {
+            pool.shutdown();
+        }
+        return BitSet.valueOf(accepted);
+    }
+
+    /**
+     * Fork/join task that evaluates the sentences of a range of result words.
+     */
+    private static final class EvaluationTask extends RecursiveAction {
+
+        private static final int WORDS_PER_TASK = 64;
+
+        private final SentenceMatcher matcher;
+        private final List<String> sentences;
+        private final long[] accepted;
+        private final int fromWord;
+        private final int toWord;
+
+        EvaluationTask(SentenceMatcher matcher, List<String> sentences, long[] accepted, int fromWord,
+                int toWord) {
+            this.matcher = matcher;
+            this.sentences = sentences;
+            this.accepted = accepted;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWord - fromWord <= WORDS_PER_TASK) {
+                evaluate();
+                return;
+            }
+            var middle = (fromWord + toWord) >>> 1;
+            invokeAll(new EvaluationTask(matcher, sentences, accepted, fromWord, middle),
+                    new EvaluationTask(matcher, sentences, accepted, middle, toWord));
+        }
+
+        void evaluate() {
+            var end = Math.min(sentences.size(), toWord << 6);
+            for (int i = fromWord << 6; i < end; i++) {
+                if (matcher.matches(sentences.get(i))) {
+                    accepted[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compile a regex straight to the compiled DFA form, without building the
+     * intermediate deterministic regex element. The DFA is minimized on its
+     * transition table, so every regex gets its smallest automaton, and its
+     * universal state is marked, so matching stops running the DFA once the
+     * word is sure to be accepted. The literals every word must have are
+     * attached as a prefilter, so most sentences that cannot match are rejected
+     * before the DFA runs.
+     * 
+     * @param regex        The regex to be compiled.
+     * @param construction The NFA construction to be used.
+     * @return The minimal compiled DFA equivalent to the regex, numbered in
+     *         breadth-first order from the initial state 0.
+     * @throws Exception If the regex is invalid or any error occurs.
+     */
+    public static CompiledDFA compile(String regex, NfaConstruction construction) throws Exception {
+        var root = RegexAstParser.parse(regex);
+        var nfa = CompactNFA.of(construction.getNfaFromAst(root));
+        var compiledDfa = HopcroftDFAMinimizer.minimize(CompiledDFA.of(SubsetConstruction.determinize(nfa)));
+        return compiledDfa.withUniversalStates(DFATrimmer.findUniversalStates(compiledDfa))
+                .withPrefilter(Prefilter.of(LiteralAnalyzer.analyze(root)));
+    }
+
+    /**
+     * Compile a regex to the cheapest matcher. When its NFA is small enough for
+     * {@link BitParallelNFA} no subset construction runs at all and matching can
+     * start right away, otherwise the regex is compiled as in
+     * {@link #compile(String, NfaConstruction)}.
+     * 
+     * @param regex        The regex to be compiled.
+     * @param construction The NFA construction to be used, Glushkov's always
+     *                     gives an NFA the bit-parallel matcher can run.
+     * @return The matcher equivalent to the regex.
+     * @throws Exception If the regex is invalid or any error occurs.
+     */
+    public static SentenceMatcher compileMatcher(String regex, NfaConstruction construction) throws Exception {
+        var root = RegexAstParser.parse(regex);
+        var nfa = CompactNFA.of(construction.getNfaFromAst(root));
+        var bitParallelNfa = BitParallelNFA.of(nfa);
+        if (bitParallelNfa != null) {
+            return bitParallelNfa;
+        }
+        var compiledDfa = HopcroftDFAMinimizer.minimize(CompiledDFA.of(SubsetConstruction.determinize(nfa)));
+        return compiledDfa.withUniversalStates(DFATrimmer.findUniversalStates(compiledDfa))
+                .withPrefilter(Prefilter.of(LiteralAnalyzer.analyze(root)));
+    }
+
+    /**
+     * Compile many regexes into a single tagged DFA, so one pass over a sentence
+     * reports every matching regex.
+     * 
+     * @param regexes      The regexes to be compiled, in priority order.
+     * @param construction The NFA construction to be used.
+     * @return The tagged DFA, where pattern i is the regex at index i.
+     * @throws Exception If the list is empty, a regex is invalid or any error
+     *                   occurs.
+     */
+    public static TaggedDFA compileAll(List<String> regexes, NfaConstruction construction) throws Exception {
+        var nfas = new ArrayList<RegexDFElement>(regexes.size());
+        for (var regex : regexes) {
+            nfas.add(construction.getNfaFromRegex(regex));
+        }
+        return TaggedDFA.of(nfas);
     }
 
     /**
@@ -79,20 +253,7 @@ public final class RegexUtils {
     }
 
     /**
-     * Get the transition that is expandable in the given map.
-     * 
-     * @param transitionMap The map containing the transitions.
-     * @return String The expandable transition.
-     */
-    public static String findNextSymbol(HashMap<String, List<Integer>> transitionMap) {
-        return transitionMap.keySet().stream()
-                .filter(key -> key.length() > RegexUtils.CUT_KEY_SIZE - 1
-                        && !(key.length() == RegexUtils.CUT_KEY_SIZE && key.charAt(0) == RegexUtils.EXPANSION))
-                .findFirst().orElse(null);
-    }
-
-    /**
-     * Parse the DFA to a JFlap DFA.
+     * Parse the DFA to a JFlap DFA, keeping the universal marks.
      * 
      * @param regexDfa The DFA to be parsed.
      * @return The JFlap DFA equivalent to the given DFA.
@@ -116,6 +277,7 @@ public final class RegexUtils {
             if (regexDfa.getInitialState() == state) {
                 dfaState.setInitialState(true);
             }
+            dfaState.setUniversalState(regexDfa.getUniversalStates().contains(state));
             dfa.addState(dfaState);
         });
         var transitions = regexDfa.getTransitions();
@@ -132,54 +294,43 @@ public final class RegexUtils {
     }
 
     /**
-     * Convert a NFA to a DFA created with Thompson's algorithm.
+     * Convert a NFA to a DFA created with Thompson's algorithm. The unreachable
+     * and dead states of the subset construction are pruned and its universal
+     * states are marked, so {@link RegexDFElement#simulate} stops walking the
+     * DFA once the outcome of a word is decided.
      * 
      * @param targetNfaStructure The NFA to be converted.
      * @return The DFA equivalent to the NFA.
+     * @throws Exception If the NFA still has lambda transitions.
      */
-    public static RegexDFElement convertToDeterministic(RegexDFElement targetNfaStructure) {
+    public static RegexDFElement convertToDeterministic(RegexDFElement targetNfaStructure) throws Exception {
+        var compiledDfa = DFATrimmer.withEarlyTermination(
+                CompiledDFA.of(SubsetConstruction.determinize(CompactNFA.of(targetNfaStructure))));
         var targetDfaStructure = RegexDFElement.builder().alphabetSet(targetNfaStructure.getAlphabetSet())
-                .finalStates(new HashSet<>())
+                .finalStates(new HashSet<>()).universalStates(new HashSet<>())
                 .transitions(new ArrayList<>()).deterministic(true).build();
-        var dfaBody = new DFABody(new HashMap<>(), new ArrayList<>(), new ArrayList<>());
-        dfaBody.initialStates().add(targetNfaStructure.getInitialState());
-        dfaBody.createdStates().put(dfaBody.initialStates(), targetDfaStructure.getTransitionsTotal());
-        if (targetNfaStructure.getFinalStates().contains(targetNfaStructure.getInitialState())) {
-            targetDfaStructure.getFinalStates().add(targetDfaStructure.getTransitionsTotal());
+        var alphabet = compiledDfa.getAlphabet();
+        var stateCount = compiledDfa.getStateCount();
+        for (int state = 0; state < stateCount; state++) {
+            var stateTransitions = new HashMap<String, List<Integer>>();
+            for (int classId = 0; classId < alphabet.size(); classId++) {
+                var target = compiledDfa.next(state, classId);
+                if (target >= 0) {
+                    var targets = new ArrayList<Integer>(1);
+                    targets.add(target);
+                    stateTransitions.put(alphabet.getSymbol(classId), targets);
+                }
+            }
+            targetDfaStructure.getTransitions().add(stateTransitions);
         }
-        targetDfaStructure.getTransitions().add(new HashMap<String, List<Integer>>());
-        dfaBody.processWaitList().add(dfaBody.initialStates());
-        while (dfaBody.processWaitList().size() > 0) {
-            iterateOverNFA(targetNfaStructure, targetDfaStructure, dfaBody);
+        for (int state = 0; state < stateCount; state++) {
+            if (compiledDfa.isAccepting(state)) {
+                targetDfaStructure.getFinalStates().add(state);
+            }
+            if (compiledDfa.isUniversal(state)) {
+                targetDfaStructure.getUniversalStates().add(state);
+            }
         }
-        targetDfaStructure.setDeterministic(true);
         return targetDfaStructure;
     }
-
-    /**
-     * Iterate over the NFA to convert it to a DFA.
-     * 
-     * @param targetNfaStructure The NFA structure to be converted.
-     * @param targetDfaStructure The DFA structure to be created.
-     * @param dfaBody            The DFA body to be used.
-     */
-    private static void iterateOverNFA(RegexDFElement targetNfaStructure, RegexDFElement targetDfaStructure,
-            DFABody dfaBody) {
-        var processWaitingList = dfaBody.processWaitList().get(0);
-        dfaBody.processWaitList().remove(0);
-        var targetState = dfaBody.createdStates().get(processWaitingList);
-        var alphabetUsed = new HashSet<String>();
-        processWaitingList.forEach(statesTransition -> {
-            targetNfaStructure.getTransitions().get(statesTransition).keySet().forEach(key -> {
-                alphabetUsed.add(key);
-            });
-        });
-        RegexParser.alphabetTransitionsConversor(
-                targetNfaStructure,
-                targetDfaStructure,
-                dfaBody,
-                targetState,
-                alphabetUsed,
-                processWaitingList);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.boisbarganhados.ftc.regex;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing table that interns sets of NFA states. Each set is stored as
+ * a sorted int array with its hash computed once, and gets a dense id in
+ * insertion order, which is the id of the matching DFA state.
+ */
+public final class StateSetTable {
+
+    private static final int EMPTY_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[][] sets;
+    private int[] hashes;
+    private int[] slots;
+    private int size;
+
+    public StateSetTable() {
+        clear();
+    }
+
+    /**
+     * Compute the hash of a sorted set of states.
+     *
+     * @param states The sorted states.
+     * @param length The number of states used from the array.
+     * @return The hash of the set.
+     */
+    public static int hash(int[] states, int length) {
+        var hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + states[i];
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * Find the id of a set.
+     *
+     * @param states The sorted states.
+     * @param length The number of states used from the array.
+     * @param hash   The hash computed with {@link #hash}.
+     * @return The id of the set or -1 if it was not added.
+     */
+    public int find(int[] states, int length, int hash) {
+        var mask = slots.length - 1;
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            var id = slots[slot];
+            if (id == EMPTY_SLOT) {
+                return -1;
+            }
+            if (hashes[id] == hash && sameStates(sets[id], states, length)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Add a set that is not in the table yet. The states are copied.
+     *
+     * @param states The sorted states.
+     * @param length The number of states used from the array.
+     * @param hash   The hash computed with {@link #hash}.
+     * @return The id of the new set.
+     */
+    public int add(int[] states, int length, int hash) {
+        if (size == sets.length) {
+            sets = Arrays.copyOf(sets, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        if ((size + 1) * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        var id = size++;
+        sets[id] = Arrays.copyOf(states, length);
+        hashes[id] = hash;
+        insertSlot(id);
+        return id;
+    }
+
+    /**
+     * Get the sorted states of a set. The returned array must not be modified.
+     *
+     * @param id The id of the set.
+     * @return The sorted states.
+     */
+    public int[] get(int id) {
+        return sets[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove every set from the table.
+     */
+    public void clear() {
+        sets = new int[INITIAL_CAPACITY][];
+        hashes = new int[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(slots, EMPTY_SLOT);
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        Arrays.fill(slots, EMPTY_SLOT);
+        for (int id = 0; id < size; id++) {
+            insertSlot(id);
+        }
+    }
+
+    private void insertSlot(int id) {
+        var mask = slots.length - 1;
+        var slot = hashes[id] & mask;
+        while (slots[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id;
+    }
+
+    private static boolean sameStates(int[] set, int[] states, int length) {
+        return set.length == length && Arrays.equals(set, 0, length, states, 0, length);
+    }
+}
@@ -0,0 +1,118 @@
+package com.boisbarganhados.ftc.regex;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.boisbarganhados.ftc.dfa.CompactNFA;
+import com.boisbarganhados.ftc.regex.records.SubsetTable;
+
+/**
+ * Subset construction over a {@link CompactNFA}. The target of a set of states
+ * is collected in a reusable buffer, deduplicated with a dense bitset instead
+ * of list lookups, and interned in a {@link StateSetTable}.
+ *
+ * An instance keeps scratch buffers and must not be shared between threads.
+ */
+public final class SubsetConstruction {
+
+    private final CompactNFA nfa;
+    private final BitSet marks;
+    private int[] buffer;
+    private int length;
+
+    public SubsetConstruction(CompactNFA nfa) {
+        this.nfa = nfa;
+        this.marks = new BitSet(nfa.getStateCount());
+        this.buffer = new int[Math.max(1, nfa.getStateCount())];
+        this.length = 0;
+    }
+
+    /**
+     * Determinize the whole NFA. Only the sets reachable from the initial state
+     * are built, and DFA state ids follow the discovery order, the initial state
+     * being 0.
+     *
+     * @param nfa The lambda-free NFA.
+     * @return The transition table of the DFA, -1 meaning no transition.
+     */
+    public static SubsetTable determinize(CompactNFA nfa) {
+        var classCount = nfa.getAlphabet().size();
+        var construction = new SubsetConstruction(nfa);
+        var stateSets = new StateSetTable();
+        var acceptingStates = new BitSet();
+        var transitions = new int[Math.max(1, classCount) * 16];
+        construction.start();
+        construction.intern(stateSets, acceptingStates);
+        for (int state = 0; state < stateSets.size(); state++) {
+            if ((state + 1) * classCount > transitions.length) {
+                transitions = Arrays.copyOf(transitions, transitions.length * 2);
+            }
+            for (int classId = 0; classId < classCount; classId++) {
+                transitions[state * classCount + classId] = construction.move(stateSets.get(state), classId)
+                        ? construction.intern(stateSets, acceptingStates)
+                        : -1;
+            }
+        }
+        transitions = Arrays.copyOf(transitions, stateSets.size() * classCount);
+        return new SubsetTable(nfa.getAlphabet(), transitions, acceptingStates, stateSets);
+    }
+
+    /**
+     * Load the set with only the NFA initial state in the buffer.
+     */
+    public void start() {
+        clearMarks();
+        buffer[0] = nfa.getInitialState();
+        marks.set(buffer[0]);
+        length = 1;
+    }
+
+    /**
+     * Load the sorted set of targets of the source states for a symbol class in
+     * the buffer.
+     *
+     * @param sourceStates The sorted source states.
+     * @param classId      The symbol class read.
+     * @return True if the target set is not empty.
+     */
+    public boolean move(int[] sourceStates, int classId) {
+        clearMarks();
+        for (var sourceState : sourceStates) {
+            for (var target : nfa.getTargets(sourceState, classId)) {
+                if (!marks.get(target)) {
+                    marks.set(target);
+                    buffer[length++] = target;
+                }
+            }
+        }
+        Arrays.sort(buffer, 0, length);
+        return length > 0;
+    }
+
+    /**
+     * Find the set in the buffer in the table, adding it when it is new. New
+     * sets with a final state are marked in the accepting states.
+     *
+     * @param stateSets       The table of interned sets.
+     * @param acceptingStates The accepting DFA states.
+     * @return The id of the set.
+     */
+    public int intern(StateSetTable stateSets, BitSet acceptingStates) {
+        var hash = StateSetTable.hash(buffer, length);
+        var id = stateSets.find(buffer, length, hash);
+        if (id < 0) {
+            id = stateSets.add(buffer, length, hash);
+            if (nfa.intersectsFinalStates(marks)) {
+                acceptingStates.set(id);
+            }
+        }
+        return id;
+    }
+
+    private void clearMarks() {
+        for (int i = 0; i < length; i++) {
+            marks.clear(buffer[i]);
+        }
+        length = 0;
+    }
+}
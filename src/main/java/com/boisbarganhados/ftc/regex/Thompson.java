@@ -6,7 +6,12 @@ import java.util.HashSet;
 import java.util.List;
 
 import com.boisbarganhados.ftc.dfa.RegexDFElement;
-import com.boisbarganhados.ftc.regex.records.ThompsonIteration;
+import com.boisbarganhados.ftc.regex.ast.ConcatNode;
+import com.boisbarganhados.ftc.regex.ast.LambdaNode;
+import com.boisbarganhados.ftc.regex.ast.RegexNode;
+import com.boisbarganhados.ftc.regex.ast.StarNode;
+import com.boisbarganhados.ftc.regex.ast.SymbolNode;
+import com.boisbarganhados.ftc.regex.ast.UnionNode;
 
 /**
  * Thompson'nextWord algorithm implementation.
@@ -17,102 +22,71 @@ public final class Thompson {
 
     /**
      * Get the NFA from a regex string.
-     * 
+     *
      * @param regex The regex to be converted to NFA with the Thompson's algorithm.
      * @return The NFA structure equivalent to the regex.
      * @throws Exception If the regex is invalid or any error occurs.
      */
     public static RegexDFElement getNfaFromRegex(String regex) throws Exception {
-        RegexDFElement targetNfaStructure = RegexDFElement.builder().alphabetSet(new HashSet<>())
+        return getNfaFromAst(RegexAstParser.parse(regex));
+    }
+
+    /**
+     * Get the NFA from an already parsed regex tree. The tree is walked once, so
+     * the construction is linear in the size of the regex.
+     *
+     * @param root The root of the regex tree.
+     * @return The NFA structure equivalent to the regex.
+     * @throws Exception If any error occurs while removing the lambda transitions.
+     */
+    public static RegexDFElement getNfaFromAst(RegexNode root) throws Exception {
+        RegexDFElement targetNfaStructure = RegexDFElement.builder()
+                .alphabetSet(RegexParser.getAlphabetFromAst(root))
                 .finalStates(new HashSet<>())
                 .transitions(new ArrayList<>()).deterministic(false).build();
-        targetNfaStructure.startNfaStructure(regex);
-        for (int i = 0; i < targetNfaStructure.getTransitionsTotal(); i++) {
-            var statesTransition = targetNfaStructure.getTransitions().get(i);
-            iterateOverStates(targetNfaStructure, i, statesTransition,
-                    RegexUtils.findNextSymbol(statesTransition));
-        }
+        targetNfaStructure.getTransitions().add(new HashMap<String, List<Integer>>());
+        var finalState = build(targetNfaStructure, root, targetNfaStructure.getInitialState());
+        targetNfaStructure.getFinalStates().add(finalState);
         LambdaSolver.removeLambda(targetNfaStructure);
         return targetNfaStructure;
     }
 
     /**
-     * Iterate over the set of states to run the Thompson's iteration.
-     * 
-     * @param targetNfaStructure The NFA structure to run the iteration.
-     * @param index              The index of the NFA structure.
-     * @param statesTransition   The set of states to run the iteration.
-     * @param nextWord           The next word to run the iteration.
-     * @throws Exception If the operation is invalid or any error occurs.
+     * Build the fragment of a node starting at the given state. Every fragment
+     * ends in a fresh state and only back edges of a star point to a fresh loop
+     * state, so fragments can be chained without extra lambda transitions.
+     *
+     * @param targetNfaStructure The NFA structure being built.
+     * @param node               The node to be converted.
+     * @param fromState          The state where the fragment starts.
+     * @return The state where the fragment ends.
      */
-    private static void iterateOverStates(RegexDFElement targetNfaStructure, int index,
-            HashMap<String, List<Integer>> statesTransition, String nextWord)
-            throws Exception {
-        while (nextWord != null) {
-            var actualPosition = -1;
-            var operationFinded = Character.MIN_VALUE;
-            var result = runThompsonIteration(targetNfaStructure, index, statesTransition,
-                    new ThompsonIteration(actualPosition, operationFinded, nextWord));
-            nextWord = result.nextWord();
-            actualPosition = result.actualPosition();
-            operationFinded = result.actualCharacter();
-            var operation = Operations.getOperationBySymbol(operationFinded);
-            if (operation == null) {
-                throw new Exception(
-                        "Invalid operation or Regex could not be recognized. Operation: " + operationFinded);
-            }
-            operation.doOperation(targetNfaStructure, index, nextWord, actualPosition);
-            nextWord = RegexUtils.findNextSymbol(statesTransition);
+    private static int build(RegexDFElement targetNfaStructure, RegexNode node, int fromState) {
+        if (node instanceof SymbolNode symbolNode) {
+            return targetNfaStructure.addNewState(fromState, symbolNode.symbol());
         }
-    }
-
-    /**
-     * Run the Thompson's iteration over the set of states.
-     * 
-     * @param targetNfaStructure The NFA structure to run the iteration.
-     * @param index              The index of the NFA structure.
-     * @param statesTransition   The set of states to run the iteration.
-     * @param nextWord           The next word to run the iteration.
-     * @param thompsonIteration  The Thompson's iteration record
-     * @return The Thompson's iteration record after the iteration.
-     */
-    private static ThompsonIteration runThompsonIteration(RegexDFElement targetNfaStructure, int index,
-            HashMap<String, List<Integer>> statesTransition, ThompsonIteration thompsonIteration) {
-        for (int wordIndex = 0; wordIndex < thompsonIteration.nextWord().length() - 1;) {
-            if (thompsonIteration.nextWord().charAt(wordIndex) == RegexUtils.EXPANSION) {
-                wordIndex += RegexUtils.CUT_KEY_SIZE;
-            } else if (thompsonIteration.nextWord().charAt(wordIndex) == '(') {
-                wordIndex = RegexParser.findParenthesis(thompsonIteration.nextWord(), wordIndex);
-            } else {
-                wordIndex++;
-            }
-            if (thompsonIteration.actualPosition() == -1 && wordIndex == thompsonIteration.nextWord().length()) {
-                var statesSet = statesTransition.get(thompsonIteration.nextWord());
-                statesTransition.remove(thompsonIteration.nextWord());
-                thompsonIteration = new ThompsonIteration(thompsonIteration.actualPosition(),
-                        thompsonIteration.actualCharacter(),
-                        thompsonIteration.nextWord().substring(1, thompsonIteration.nextWord().length() - 1));
-                var checkWord = thompsonIteration.nextWord();
-                statesSet.forEach(state -> targetNfaStructure.addNewTransition(index, state, checkWord));
-                wordIndex = 0;
-                continue;
+        if (node instanceof LambdaNode) {
+            return targetNfaStructure.addNewState(fromState, RegexUtils.LAMBDA);
+        }
+        if (node instanceof ConcatNode concatNode) {
+            var actualState = fromState;
+            for (var item : concatNode.items()) {
+                actualState = build(targetNfaStructure, item, actualState);
             }
-            if (thompsonIteration.actualPosition() == -1
-                    || Operations.getOperationBySymbol((thompsonIteration.nextWord().charAt(wordIndex)))
-                            .getPriority() > Operations
-                                    .getOperationBySymbol((thompsonIteration.actualCharacter())).getPriority()) {
-                thompsonIteration = new ThompsonIteration(wordIndex, thompsonIteration.actualCharacter(),
-                        thompsonIteration.nextWord());
-                if (thompsonIteration.nextWord().charAt(wordIndex) != Operations.UNION.getSymbol().charAt(0)
-                        && thompsonIteration.nextWord().charAt(wordIndex) != Operations.STAR.getSymbol().charAt(0)) {
-                    thompsonIteration = new ThompsonIteration(thompsonIteration.actualPosition(),
-                            Operations.CONCAT.getSymbol().charAt(0), thompsonIteration.nextWord());
-                } else {
-                    thompsonIteration = new ThompsonIteration(thompsonIteration.actualPosition(),
-                            thompsonIteration.nextWord().charAt(wordIndex), thompsonIteration.nextWord());
-                }
+            return actualState;
+        }
+        if (node instanceof UnionNode unionNode) {
+            var toState = targetNfaStructure.addNewState();
+            for (var option : unionNode.options()) {
+                var optionEnd = build(targetNfaStructure, option, fromState);
+                targetNfaStructure.addNewTransition(optionEnd, toState, RegexUtils.LAMBDA);
             }
+            return toState;
         }
-        return thompsonIteration;
+        var starNode = (StarNode) node;
+        var loopState = targetNfaStructure.addNewState(fromState, RegexUtils.LAMBDA);
+        var childEnd = build(targetNfaStructure, starNode.child(), loopState);
+        targetNfaStructure.addNewTransition(childEnd, loopState, RegexUtils.LAMBDA);
+        return targetNfaStructure.addNewState(loopState, RegexUtils.LAMBDA);
     }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.boisbarganhados.ftc.regex.ast;
+
+import java.util.List;
+
+import lombok.NonNull;
+
+/**
+ * Concatenation of two or more nodes, kept flat so long literals do not nest.
+ */
+public record ConcatNode(@NonNull List<RegexNode> items) implements RegexNode {
+}
@@ -0,0 +1,7 @@
+package com.boisbarganhados.ftc.regex.ast;
+
+/**
+ * The empty word (λ).
+ */
+public record LambdaNode() implements RegexNode {
+}
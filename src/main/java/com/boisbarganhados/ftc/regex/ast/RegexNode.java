@@ -0,0 +1,8 @@
+package com.boisbarganhados.ftc.regex.ast;
+
+/**
+ * Node of the typed regex syntax tree produced by
+ * {@link com.boisbarganhados.ftc.regex.RegexAstParser}.
+ */
+public sealed interface RegexNode permits SymbolNode, LambdaNode, ConcatNode, UnionNode, StarNode {
+}
@@ -0,0 +1,9 @@
+package com.boisbarganhados.ftc.regex.ast;
+
+import lombok.NonNull;
+
+/**
+ * Kleene star (*) of a node.
+ */
+public record StarNode(@NonNull RegexNode child) implements RegexNode {
+}
@@ -0,0 +1,10 @@
+package com.boisbarganhados.ftc.regex.ast;
+
+import lombok.NonNull;
+
+/**
+ * A single alphabet symbol. Escaped symbols keep the expansion character, e.g.
+ * {@code \+}.
+ */
+public record SymbolNode(@NonNull String symbol) implements RegexNode {
+}
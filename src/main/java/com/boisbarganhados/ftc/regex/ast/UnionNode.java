@@ -0,0 +1,11 @@
+package com.boisbarganhados.ftc.regex.ast;
+
+import java.util.List;
+
+import lombok.NonNull;
+
+/**
+ * Union (+) of two or more nodes, kept flat like {@link ConcatNode}.
+ */
+public record UnionNode(@NonNull List<RegexNode> options) implements RegexNode {
+}
@@ -0,0 +1,11 @@
+package com.boisbarganhados.ftc.regex.records;
+
+import java.util.BitSet;
+
+import lombok.NonNull;
+
+public record GlushkovBody(
+        boolean nullable,
+        @NonNull BitSet firstPositions,
+        @NonNull BitSet lastPositions) {
+}
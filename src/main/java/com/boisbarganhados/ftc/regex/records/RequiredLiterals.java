@@ -0,0 +1,11 @@
+package com.boisbarganhados.ftc.regex.records;
+
+import lombok.NonNull;
+
+public record RequiredLiterals(
+        int minLength,
+        String exact,
+        @NonNull String prefix,
+        @NonNull String suffix,
+        @NonNull String inner) {
+}
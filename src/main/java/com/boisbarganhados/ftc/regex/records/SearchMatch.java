@@ -0,0 +1,6 @@
+package com.boisbarganhados.ftc.regex.records;
+
+public record SearchMatch(
+        int start,
+        int end) {
+}
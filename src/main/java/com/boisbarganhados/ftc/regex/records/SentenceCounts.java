@@ -0,0 +1,6 @@
+package com.boisbarganhados.ftc.regex.records;
+
+public record SentenceCounts(
+        long sentences,
+        long accepted) {
+}
@@ -0,0 +1,15 @@
+package com.boisbarganhados.ftc.regex.records;
+
+import java.util.BitSet;
+
+import com.boisbarganhados.ftc.dfa.Alphabet;
+import com.boisbarganhados.ftc.regex.StateSetTable;
+
+import lombok.NonNull;
+
+public record SubsetTable(
+        @NonNull Alphabet alphabet,
+        @NonNull int[] transitions,
+        @NonNull BitSet acceptingStates,
+        @NonNull StateSetTable stateSets) {
+}
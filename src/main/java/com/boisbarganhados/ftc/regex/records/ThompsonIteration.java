@@ -1,7 +0,0 @@
-package com.boisbarganhados.ftc.regex.records;
-
-public record ThompsonIteration(
-                int actualPosition,
-                char actualCharacter,
-                String nextWord) {
-}
\ No newline at end of file
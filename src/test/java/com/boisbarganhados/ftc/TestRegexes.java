@@ -0,0 +1,129 @@
+package com.boisbarganhados.ftc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import com.boisbarganhados.ftc.dfa.CompactNFA;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexAstParser;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+import com.boisbarganhados.ftc.regex.SubsetConstruction;
+
+/**
+ * Seeded regexes and words shared by the tests, and the translation of the
+ * regex syntax of the project to {@link java.util.regex}, which is the
+ * reference the matchers are checked against.
+ */
+public final class TestRegexes {
+
+    public static final long SEED = 42;
+    public static final String SYMBOLS = "abc";
+
+    private static final String[] FIXED = { "a", "λ", "a*(λ+bc)", "(a+b)*a(a+b)(a+b)", "(ab+ba)*",
+            "((a*)*b)*", "(a+b+c)*c(a+b)*", "ab*c+ba*c+c", "(λ+a)(λ+a)aa", "(a+bc)*(c+λ)b" };
+
+    private TestRegexes() {
+    }
+
+    /**
+     * Translate a regex of the project to a {@link Pattern}: {@code +} is the
+     * union, {@code λ} the empty word and an escaped symbol matches its two
+     * characters.
+     *
+     * @param regex The regex of the project.
+     * @return The equivalent pattern.
+     */
+    public static Pattern toPattern(String regex) {
+        var pattern = new StringBuilder();
+        for (int i = 0; i < regex.length(); i++) {
+            var character = regex.charAt(i);
+            switch (character) {
+                case '+' -> pattern.append('|');
+                case '(' -> pattern.append("(?:");
+                case ')', '*' -> pattern.append(character);
+                case 'λ' -> pattern.append("(?:)");
+                case RegexUtils.EXPANSION -> pattern.append("(?:").append(Pattern.quote(regex.substring(i, i + 2)))
+                        .append(')');
+                default -> pattern.append(Pattern.quote(String.valueOf(character)));
+            }
+            if (character == RegexUtils.EXPANSION) {
+                i++;
+            }
+        }
+        return Pattern.compile(pattern.toString());
+    }
+
+    /**
+     * Get the fixed regexes followed by random ones over {@link #SYMBOLS}.
+     *
+     * @param seed  The seed of the random regexes.
+     * @param count The number of random regexes.
+     * @return The regexes.
+     */
+    public static List<String> regexes(long seed, int count) {
+        var random = new Random(seed);
+        var regexes = new ArrayList<>(List.of(FIXED));
+        for (int i = 0; i < count; i++) {
+            regexes.add(randomRegex(random, 4));
+        }
+        return regexes;
+    }
+
+    /**
+     * Build a random regex of unions, stars and concatenations.
+     *
+     * @param random The random source.
+     * @param depth  The maximum depth of the regex tree.
+     * @return The regex.
+     */
+    public static String randomRegex(Random random, int depth) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return random.nextInt(12) == 0 ? "λ" : String.valueOf(SYMBOLS.charAt(random.nextInt(SYMBOLS.length())));
+        }
+        return switch (random.nextInt(4)) {
+            case 0 -> "(" + randomRegex(random, depth - 1) + "+" + randomRegex(random, depth - 1) + ")";
+            case 1 -> "(" + randomRegex(random, depth - 1) + ")*";
+            default -> randomRegex(random, depth - 1) + randomRegex(random, depth - 1);
+        };
+    }
+
+    /**
+     * Build random words over {@link #SYMBOLS}, with an occasional character
+     * outside of it.
+     *
+     * @param random    The random source.
+     * @param count     The number of words.
+     * @param maxLength The maximum length of a word.
+     * @return The words, the empty word first.
+     */
+    public static List<String> words(Random random, int count, int maxLength) {
+        var words = new ArrayList<String>(count);
+        words.add("");
+        for (int i = 1; i < count; i++) {
+            var word = new StringBuilder();
+            var length = random.nextInt(maxLength + 1);
+            for (int j = 0; j < length; j++) {
+                word.append(random.nextInt(40) == 0 ? 'd' : SYMBOLS.charAt(random.nextInt(SYMBOLS.length())));
+            }
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    /**
+     * Build the DFA of the subset construction of a regex, before it is
+     * minimized.
+     *
+     * @param regex        The regex.
+     * @param construction The NFA construction.
+     * @return The compiled subset DFA.
+     * @throws Exception If the regex is invalid.
+     */
+    public static CompiledDFA subsetDfa(String regex, NfaConstruction construction) throws Exception {
+        var nfa = CompactNFA.of(construction.getNfaFromAst(RegexAstParser.parse(regex)));
+        return CompiledDFA.of(SubsetConstruction.determinize(nfa));
+    }
+}
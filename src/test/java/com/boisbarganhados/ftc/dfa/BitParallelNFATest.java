@@ -0,0 +1,68 @@
+package com.boisbarganhados.ftc.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.regex.Glushkov;
+import com.boisbarganhados.ftc.regex.Thompson;
+
+class BitParallelNFATest {
+
+    @Test
+    void acceptsTheWordsOfTheReference() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            var glushkov = BitParallelNFA.of(Glushkov.getNfaFromRegex(regex));
+            var thompson = BitParallelNFA.of(Thompson.getNfaFromRegex(regex));
+            var pattern = TestRegexes.toPattern(regex);
+            assertNotNull(glushkov, regex);
+            for (var word : words) {
+                var expected = pattern.matcher(word).matches();
+                assertEquals(expected, glushkov.matches(word), regex + " on " + word);
+                if (thompson != null) {
+                    assertEquals(expected, thompson.matches(word), regex + " on " + word);
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsEscapedSymbolsAsOneSymbol() throws Exception {
+        var regex = "(\\+a+\\*)*b";
+        var matcher = BitParallelNFA.of(Glushkov.getNfaFromRegex(regex));
+        var pattern = TestRegexes.toPattern(regex);
+        for (var word : List.of("b", "\\+b", "a\\*\\+ab", "+b", "\\b", "ab", "b\\")) {
+            assertEquals(pattern.matcher(word).matches(), matcher.matches(word), word);
+        }
+    }
+
+    @Test
+    void usesEveryBitOfTheStateSet() throws Exception {
+        var regex = "(a+b)*" + "ab".repeat(30);
+        var matcher = BitParallelNFA.of(Glushkov.getNfaFromRegex(regex));
+        var pattern = TestRegexes.toPattern(regex);
+        assertNotNull(matcher);
+        var random = new Random(TestRegexes.SEED);
+        for (int i = 0; i < 200; i++) {
+            var word = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                word.append(random.nextBoolean() ? 'a' : 'b');
+            }
+            word.append("ab".repeat(random.nextInt(3) == 0 ? 29 : 30));
+            assertEquals(pattern.matcher(word).matches(), matcher.matches(word), word.toString());
+        }
+    }
+
+    @Test
+    void rejectsNfasAboveTheStateLimit() throws Exception {
+        assertNotNull(BitParallelNFA.of(Glushkov.getNfaFromRegex("a".repeat(BitParallelNFA.MAX_STATES - 1))));
+        assertNull(BitParallelNFA.of(Glushkov.getNfaFromRegex("a".repeat(BitParallelNFA.MAX_STATES))));
+    }
+}
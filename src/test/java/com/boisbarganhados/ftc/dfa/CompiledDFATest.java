@@ -0,0 +1,210 @@
+package com.boisbarganhados.ftc.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexAstParser;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+class CompiledDFATest {
+
+    private static final String PADDING = "\\é";
+
+    @Test
+    void acceptsTheWordsOfTheReferenceInEveryInput() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            var pattern = TestRegexes.toPattern(regex);
+            for (var construction : NfaConstruction.values()) {
+                var dfa = RegexUtils.compile(regex, construction);
+                for (var word : words) {
+                    assertMatches(pattern.matcher(word).matches(), dfa, word, regex + " on " + word);
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchesLikeTheAutomataItIsCompiledFrom() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            for (var construction : NfaConstruction.values()) {
+                var regexDfa = RegexUtils
+                        .convertToDeterministic(construction.getNfaFromAst(RegexAstParser.parse(regex)));
+                var jflapDfa = RegexUtils.parseToJFlapDFA(regexDfa);
+                var fromElement = CompiledDFA.of(regexDfa);
+                var fromModel = CompiledDFA.of(jflapDfa);
+                for (var word : words) {
+                    var expected = regexDfa.simulate(word);
+                    assertMatches(expected, fromElement, word, regex + " on " + word);
+                    assertEquals(expected, jflapDfa.runDFA(word), regex + " on " + word);
+                    assertMatches(expected, fromModel, word, regex + " on " + word);
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsEscapedSymbolsInEveryInput() throws Exception {
+        var regex = "(\\+a+\\*)*b";
+        var dfa = RegexUtils.compile(regex, NfaConstruction.GLUSHKOV);
+        var pattern = TestRegexes.toPattern(regex);
+        for (var word : List.of("b", "\\+ab", "\\*\\+ab", "+ab", "\\b", "\\", "b\\", "\\*\\*b")) {
+            assertMatches(pattern.matcher(word).matches(), dfa, word, word);
+        }
+    }
+
+    @Test
+    void decodesMalformedUtf8LikeString() throws Exception {
+        var dfa = RegexUtils.compile("(a+é+\uFFFD+𝄞)*", NfaConstruction.THOMPSON);
+        byte[][] pieces = { "a".getBytes(StandardCharsets.UTF_8), "é".getBytes(StandardCharsets.UTF_8),
+                "𝄞".getBytes(StandardCharsets.UTF_8), { (byte) 0x80 }, { (byte) 0xBF }, { (byte) 0xC0 },
+                { (byte) 0xC3 }, { (byte) 0xE0 }, { (byte) 0xED }, { (byte) 0xA0 }, { (byte) 0x9F },
+                { (byte) 0xF0 }, { (byte) 0xF4 }, { (byte) 0x90 }, { (byte) 0xFF }, { 'b' } };
+        var random = new Random(TestRegexes.SEED);
+        for (int i = 0; i < 5000; i++) {
+            var output = new ByteArrayOutputStream();
+            for (int j = random.nextInt(8); j > 0; j--) {
+                output.writeBytes(pieces[random.nextInt(pieces.length)]);
+            }
+            var bytes = output.toByteArray();
+            var expected = dfa.matches(new String(bytes, StandardCharsets.UTF_8));
+            var message = HexFormat.of().formatHex(bytes);
+            assertEquals(expected, dfa.matches(bytes, 0, bytes.length), message);
+            var direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            assertEquals(expected, dfa.matches(direct), message);
+        }
+    }
+
+    @Test
+    void givesTheSameResultsWithAndWithoutThePrefilter() throws Exception {
+        assertNull(RegexUtils.compile("(a+b)*a", NfaConstruction.GLUSHKOV).getPrefilter());
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 2000, 16);
+        String[][] regexes = { { "(a+b)*abca(a+b+c)*", "abca" }, { "(ab+ba)*ccé(a+λ)", "ccé" },
+                { "a*(bc+cb)a*(bc+cb)", "bccb" }, { "\\+\\+a*", "\\+\\+" } };
+        for (var regex : regexes) {
+            var dfa = RegexUtils.compile(regex[0], NfaConstruction.GLUSHKOV);
+            var pattern = TestRegexes.toPattern(regex[0]);
+            assertNotNull(dfa.getPrefilter(), regex[0]);
+            var accepted = 0;
+            for (var word : words) {
+                // Half of the words get the literal, so some of them match.
+                var middle = word.length() / 2;
+                var sentence = word.length() % 2 == 0 ? word
+                        : word.substring(0, middle) + regex[1] + word.substring(middle);
+                var expected = pattern.matcher(sentence).matches();
+                assertMatches(expected, dfa, sentence, regex[0] + " on " + sentence);
+                assertMatches(expected, dfa.withPrefilter(null), sentence, regex[0] + " on " + sentence);
+                accepted += expected ? 1 : 0;
+            }
+            assertTrue(accepted > 0, regex[0]);
+        }
+    }
+
+    @Test
+    void stopsReadingAtADeadOrUniversalState() throws Exception {
+        var dfa = RegexUtils.compile("a(a+b)*", NfaConstruction.GLUSHKOV);
+        assertNull(dfa.getPrefilter());
+        assertTrue(dfa.isUniversal(dfa.next(dfa.getInitialState(), dfa.getAlphabet().getClassId("a"))));
+        var accepted = new CountingSequence("a" + "b".repeat(1000));
+        assertTrue(dfa.matchesInAlphabet(accepted));
+        assertEquals(1, accepted.reads);
+        var rejected = new CountingSequence("b" + "a".repeat(1000));
+        assertFalse(dfa.matches(rejected));
+        assertEquals(1, rejected.reads);
+        // Only the known alphabet lets a universal state skip the rest.
+        assertFalse(dfa.matches("abd"));
+        assertTrue(dfa.matchesInAlphabet("abd"));
+        assertFalse(dfa.matches("ab\\"));
+    }
+
+    @Test
+    void givesTheSameResultsWithAndWithoutTheUniversalStates() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        var universalTotal = 0;
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            var dfa = RegexUtils.compile(regex, NfaConstruction.THOMPSON);
+            var unmarked = dfa.withUniversalStates(new BitSet());
+            for (int state = 0; state < dfa.getStateCount(); state++) {
+                universalTotal += dfa.isUniversal(state) ? 1 : 0;
+            }
+            for (var word : words) {
+                var expected = unmarked.matches(word);
+                assertMatches(expected, dfa, word, regex + " on " + word);
+                if (word.chars().allMatch(character -> dfa.getAlphabet().classOf((char) character) != Alphabet.NO_CLASS)) {
+                    assertEquals(expected, dfa.matchesInAlphabet(word), regex + " on " + word);
+                }
+            }
+        }
+        assertTrue(universalTotal > 0);
+    }
+
+    /**
+     * Check every matches overload, with the word in the middle of a larger
+     * input so the offsets are read.
+     */
+    private static void assertMatches(boolean expected, CompiledDFA dfa, String word, String message) {
+        assertEquals(expected, dfa.matches(word), message);
+        var chars = (PADDING + word + PADDING).toCharArray();
+        assertEquals(expected, dfa.matches(chars, PADDING.length(), word.length()), message);
+        var padding = PADDING.getBytes(StandardCharsets.UTF_8).length;
+        var wordBytes = word.getBytes(StandardCharsets.UTF_8);
+        var bytes = (PADDING + word + PADDING).getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, dfa.matches(bytes, padding, wordBytes.length), message);
+        var heap = ByteBuffer.wrap(bytes);
+        assertEquals(expected, dfa.matches(heap, padding, padding + wordBytes.length), message);
+        var direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        direct.position(padding).limit(padding + wordBytes.length);
+        assertEquals(expected, dfa.matches(direct), message);
+        assertEquals(padding, direct.position(), message);
+    }
+
+    /**
+     * Character sequence that counts the characters read.
+     */
+    private static final class CountingSequence implements CharSequence {
+
+        private final String text;
+        private int reads;
+
+        private CountingSequence(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            reads++;
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.boisbarganhados.ftc.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.minimization.HopcroftDFAMinimizer;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+import com.boisbarganhados.ftc.regex.Thompson;
+
+class DFAEquivalenceTest {
+
+    private static final int MAX_WORD_LENGTH = 6;
+
+    @Test
+    void findsKnownIdentities() throws Exception {
+        var identities = new String[][] { { "(a+b)*", "(a*b*)*" }, { "a(ba)*", "(ab)*a" }, { "(λ+a)*", "a*" },
+                { "(a+b)*a(a+b)", "(a+b)*(aa+ab)" }, { "a+λ+aa*", "a*" } };
+        for (var identity : identities) {
+            for (var construction : NfaConstruction.values()) {
+                assertNull(DFAEquivalence.findCounterexample(identity[0], identity[1], construction), identity[0]);
+            }
+        }
+    }
+
+    @Test
+    void matchesTheConstructionsAndTheMinimizedDfa() throws Exception {
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 60)) {
+            var thompson = TestRegexes.subsetDfa(regex, NfaConstruction.THOMPSON);
+            var glushkov = TestRegexes.subsetDfa(regex, NfaConstruction.GLUSHKOV);
+            assertTrue(DFAEquivalence.equivalent(thompson, glushkov), regex);
+            assertTrue(DFAEquivalence.equivalent(thompson, HopcroftDFAMinimizer.minimize(glushkov)), regex);
+        }
+    }
+
+    @Test
+    void givesACounterexampleOnlyOneRegexAccepts() throws Exception {
+        var regexes = TestRegexes.regexes(TestRegexes.SEED + 1, 30);
+        var words = allWords();
+        for (var first : regexes) {
+            for (var second : regexes) {
+                var firstPattern = TestRegexes.toPattern(first);
+                var secondPattern = TestRegexes.toPattern(second);
+                var counterexample = DFAEquivalence.findCounterexample(
+                        TestRegexes.subsetDfa(first, NfaConstruction.GLUSHKOV),
+                        TestRegexes.subsetDfa(second, NfaConstruction.THOMPSON));
+                if (counterexample != null) {
+                    assertNotEquals(firstPattern.matcher(counterexample).matches(),
+                            secondPattern.matcher(counterexample).matches(), first + " / " + second);
+                    continue;
+                }
+                for (var word : words) {
+                    assertEquals(firstPattern.matcher(word).matches(), secondPattern.matcher(word).matches(),
+                            first + " / " + second + " on " + word);
+                }
+            }
+        }
+    }
+
+    @Test
+    void comparesDfaModels() throws Exception {
+        var first = RegexUtils.parseToJFlapDFA(RegexUtils.convertToDeterministic(Thompson.getNfaFromRegex("(ab)*a")));
+        var second = RegexUtils.parseToJFlapDFA(RegexUtils.convertToDeterministic(Thompson.getNfaFromRegex("a(ba)*")));
+        var third = RegexUtils.parseToJFlapDFA(RegexUtils.convertToDeterministic(Thompson.getNfaFromRegex("(ab)*")));
+        assertNull(DFAEquivalence.findCounterexample(first, second));
+        assertNotNull(DFAEquivalence.findCounterexample(first, third));
+    }
+
+    /**
+     * Get every word over the symbols up to the maximum length.
+     */
+    private static List<String> allWords() {
+        var words = new ArrayList<String>();
+        words.add("");
+        for (int from = 0; from < words.size(); from++) {
+            var word = words.get(from);
+            if (word.length() == MAX_WORD_LENGTH) {
+                break;
+            }
+            for (var symbol : TestRegexes.SYMBOLS.toCharArray()) {
+                words.add(word + symbol);
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,48 @@
+package com.boisbarganhados.ftc.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.generator.RegexFamilies;
+import com.boisbarganhados.ftc.regex.Glushkov;
+import com.boisbarganhados.ftc.regex.Thompson;
+
+class LazyDFATest {
+
+    @Test
+    void acceptsTheWordsOfTheReference() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            var thompson = LazyDFA.of(Thompson.getNfaFromRegex(regex));
+            var glushkov = LazyDFA.of(Glushkov.getNfaFromRegex(regex));
+            var pattern = TestRegexes.toPattern(regex);
+            for (var word : words) {
+                var expected = pattern.matcher(word).matches();
+                assertEquals(expected, thompson.simulate(word), regex + " on " + word);
+                assertEquals(expected, glushkov.simulate(word), regex + " on " + word);
+            }
+        }
+    }
+
+    @Test
+    void staysCorrectWhenTheCacheIsFlushed() throws Exception {
+        var regex = RegexFamilies.nthFromLast(12);
+        var lazyDfa = new LazyDFA(CompactNFA.of(Glushkov.getNfaFromRegex(regex)), 16 * 1024);
+        var pattern = TestRegexes.toPattern(regex);
+        var random = new Random(TestRegexes.SEED);
+        for (int i = 0; i < 50; i++) {
+            var word = new StringBuilder();
+            for (int j = 0; j < 500; j++) {
+                word.append(random.nextBoolean() ? 'a' : 'b');
+            }
+            assertEquals(pattern.matcher(word).matches(), lazyDfa.simulate(word.toString()));
+        }
+        assertTrue(lazyDfa.getCacheFlushes() > 0);
+        assertTrue(lazyDfa.getCachedStates() < 1 << 12);
+    }
+}
@@ -0,0 +1,134 @@
+package com.boisbarganhados.ftc.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.generator.SentenceCorpus;
+import com.boisbarganhados.ftc.regex.LiteralAnalyzer;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+class PrefilterTest {
+
+    private static final List<String> REGEXES = List.of("(a+b)*abca(a+b+c)*", "(ab+ba)*ccé(a+λ)",
+            "\\+\\*(a+b)*\\+", "ção(a+b)*ã", "a*(bc+cb)a*(bc+cb)", "(ab+ba)(a+b)", "éé(é)*", "ãb", "(a+b)(ã+b)c");
+
+    @Test
+    void neverRejectsAWordOfTheLanguage() throws Exception {
+        var random = new Random(TestRegexes.SEED);
+        var regexes = new ArrayList<>(REGEXES);
+        regexes.addAll(TestRegexes.regexes(TestRegexes.SEED, 100));
+        var filtered = 0;
+        for (var regex : regexes) {
+            var dfa = RegexUtils.compile(regex, NfaConstruction.GLUSHKOV).withPrefilter(null);
+            var prefilter = Prefilter.of(LiteralAnalyzer.analyze(regex));
+            if (prefilter == null) {
+                continue;
+            }
+            filtered++;
+            var pattern = TestRegexes.toPattern(regex);
+            var accepted = 0;
+            for (var sentence : sentences(dfa, random)) {
+                var expected = dfa.matches(sentence);
+                assertEquals(pattern.matcher(sentence).matches(), expected, regex + " on " + sentence);
+                if (expected) {
+                    assertTrue(prefilter.mayMatch(sentence), regex + " on " + sentence);
+                    accepted++;
+                }
+            }
+            assertTrue(accepted > 0, regex);
+        }
+        assertTrue(filtered >= REGEXES.size());
+    }
+
+    @Test
+    void givesTheSameAnswerOnEveryInput() throws Exception {
+        var random = new Random(TestRegexes.SEED);
+        for (var regex : REGEXES) {
+            var prefilter = Prefilter.of(LiteralAnalyzer.analyze(regex));
+            assertNotNull(prefilter, regex);
+            var rejected = 0;
+            for (var sentence : sentences(RegexUtils.compile(regex, NfaConstruction.THOMPSON), random)) {
+                var expected = prefilter.mayMatch(sentence);
+                assertMayMatch(expected, prefilter, sentence, regex + " on " + sentence);
+                rejected += expected ? 0 : 1;
+            }
+            assertTrue(rejected > 0, regex);
+        }
+    }
+
+    @Test
+    void checksTheMinimumLengthOnCharactersOfUtf8Input() throws Exception {
+        var prefilter = Prefilter.of(LiteralAnalyzer.analyze("(a+b)(ã+b)c"));
+        assertNotNull(prefilter);
+        // Two characters in three bytes are still too short.
+        assertMayMatch(false, prefilter, "aã", "aã");
+        assertMayMatch(true, prefilter, "aãc", "aãc");
+        // Malformed bytes decode to at most one character each.
+        var malformed = new byte[] { 'a', (byte) 0xE3, 'c' };
+        assertTrue(prefilter.mayMatch(malformed, 0, malformed.length));
+        assertTrue(prefilter.mayMatch(ByteBuffer.allocateDirect(3).put(malformed).flip(), 0, 3));
+    }
+
+    @Test
+    void isNotMadeWithoutAUsefulLiteral() throws Exception {
+        assertNull(Prefilter.of(LiteralAnalyzer.analyze("a+b")));
+        assertNull(Prefilter.of(LiteralAnalyzer.analyze("(a+bc)*")));
+        var lengthOnly = Prefilter.of(LiteralAnalyzer.analyze("ab+ba"));
+        assertNotNull(lengthOnly);
+        assertMayMatch(true, lengthOnly, "cc", "cc");
+        assertMayMatch(false, lengthOnly, "a", "a");
+        assertFalse(lengthOnly.mayMatch(""));
+    }
+
+    /**
+     * Get accepted and rejected sentences of a DFA, some of them with a
+     * character of another alphabet or one outside the BMP.
+     */
+    private static List<String> sentences(CompiledDFA dfa, Random random) throws Exception {
+        var sentences = new ArrayList<String>();
+        for (int length = 0; length <= 8; length++) {
+            for (var sentence : SentenceCorpus.generate(dfa, random.nextLong(), 40, length, 0.5)) {
+                sentences.add(sentence);
+                if (!sentence.isEmpty()) {
+                    var index = random.nextInt(sentence.length() + 1);
+                    var foreign = random.nextBoolean() ? "😀" : "d";
+                    sentences.add(sentence.substring(0, index) + foreign + sentence.substring(index));
+                }
+            }
+        }
+        return sentences;
+    }
+
+    /**
+     * Check every mayMatch overload on the same sentence, with the bytes and
+     * characters in the middle of larger arrays and buffers.
+     */
+    private static void assertMayMatch(boolean expected, Prefilter prefilter, String sentence, String message) {
+        assertEquals(expected, prefilter.mayMatch(sentence), message);
+        var chars = ("xy" + sentence + "z").toCharArray();
+        assertEquals(expected, prefilter.mayMatch(chars, 2, sentence.length()), message);
+        var bytes = sentence.getBytes(StandardCharsets.UTF_8);
+        var padded = new byte[bytes.length + 3];
+        System.arraycopy(bytes, 0, padded, 2, bytes.length);
+        assertEquals(expected, prefilter.mayMatch(padded, 2, bytes.length), message);
+        assertEquals(expected, prefilter.mayMatch(ByteBuffer.wrap(padded), 2, bytes.length + 2), message);
+        var sliced = ByteBuffer.wrap(padded, 1, padded.length - 1).slice();
+        assertEquals(expected, prefilter.mayMatch(sliced, 1, bytes.length + 1), message);
+        var direct = ByteBuffer.allocateDirect(padded.length).put(padded).flip();
+        assertEquals(expected, prefilter.mayMatch(direct, 2, bytes.length + 2), message);
+        assertEquals(0, direct.position(), message);
+    }
+}
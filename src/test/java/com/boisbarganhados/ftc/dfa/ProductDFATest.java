@@ -0,0 +1,82 @@
+package com.boisbarganhados.ftc.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+class ProductDFATest {
+
+    @Test
+    void matchesTheBooleanOperationsOfTheReference() throws Exception {
+        var regexes = TestRegexes.regexes(TestRegexes.SEED, 20);
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 200, 8);
+        for (var first : regexes) {
+            for (var second : regexes) {
+                var firstDfa = RegexUtils.compile(first, NfaConstruction.THOMPSON);
+                var secondDfa = RegexUtils.compile(second, NfaConstruction.GLUSHKOV);
+                var intersection = ProductDFA.intersection(firstDfa, secondDfa);
+                var union = ProductDFA.union(firstDfa, secondDfa);
+                var difference = ProductDFA.difference(firstDfa, secondDfa);
+                var firstPattern = TestRegexes.toPattern(first);
+                var secondPattern = TestRegexes.toPattern(second);
+                for (var word : words) {
+                    var inFirst = firstPattern.matcher(word).matches();
+                    var inSecond = secondPattern.matcher(word).matches();
+                    var message = first + " / " + second + " on " + word;
+                    assertEquals(inFirst && inSecond, intersection.matches(word), message);
+                    assertEquals(inFirst || inSecond, union.matches(word), message);
+                    assertEquals(inFirst && !inSecond, difference.matches(word), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void complementsOverTheOwnAlphabet() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 40)) {
+            var dfa = RegexUtils.compile(regex, NfaConstruction.GLUSHKOV);
+            var complement = ProductDFA.complement(dfa);
+            var pattern = TestRegexes.toPattern(regex);
+            for (var word : words) {
+                var expected = inAlphabet(dfa.getAlphabet(), word) && !pattern.matcher(word).matches();
+                assertEquals(expected, complement.matches(word), regex + " on " + word);
+            }
+        }
+    }
+
+    @Test
+    void buildsTheSameLanguageItMatches() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        var regexes = TestRegexes.regexes(TestRegexes.SEED + 1, 10);
+        for (int i = 0; i + 1 < regexes.size(); i++) {
+            var first = RegexUtils.compile(regexes.get(i), NfaConstruction.THOMPSON);
+            var second = RegexUtils.compile(regexes.get(i + 1), NfaConstruction.THOMPSON);
+            var lazy = ProductDFA.difference(first, second);
+            var built = ProductDFA.difference(first, second).build(false);
+            var minimized = ProductDFA.difference(first, second).build(true);
+            for (var word : words) {
+                assertEquals(lazy.matches(word), built.matches(word), word);
+                assertEquals(lazy.matches(word), minimized.matches(word), word);
+            }
+            assertTrue(DFAEquivalence.equivalent(built, minimized));
+            assertTrue(lazy.getCachedStates() <= (first.getStateCount() + 1) * (second.getStateCount() + 1));
+        }
+    }
+
+    private static boolean inAlphabet(Alphabet alphabet, String word) {
+        for (var character : word.toCharArray()) {
+            if (alphabet.getClassId(String.valueOf(character)) == Alphabet.NO_CLASS) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
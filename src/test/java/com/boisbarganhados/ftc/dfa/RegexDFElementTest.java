@@ -0,0 +1,69 @@
+package com.boisbarganhados.ftc.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.minimization.DFATrimmer;
+import com.boisbarganhados.ftc.regex.Glushkov;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+import com.boisbarganhados.ftc.regex.Thompson;
+
+class RegexDFElementTest {
+
+    @Test
+    void keepsNoDeadStateAndMarksTheUniversalStates() throws Exception {
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            var regexDfa = RegexUtils.convertToDeterministic(Thompson.getNfaFromRegex(regex));
+            var compiledDfa = CompiledDFA.of(regexDfa);
+            var liveStates = DFATrimmer.findLiveStates(compiledDfa);
+            if (!liveStates.isEmpty()) {
+                assertEquals(compiledDfa.getStateCount(), liveStates.cardinality(), regex);
+            }
+            assertEquals(DFATrimmer.findUniversalStates(compiledDfa).stream().boxed().toList(),
+                    regexDfa.getUniversalStates().stream().sorted().toList(), regex);
+        }
+        var universal = RegexUtils.convertToDeterministic(Glushkov.getNfaFromRegex("a(a+b)*"));
+        assertFalse(universal.getUniversalStates().contains(universal.getInitialState()));
+        assertTrue(universal.getUniversalStates()
+                .contains(universal.getTransitions().get(universal.getInitialState()).get("a").get(0)));
+    }
+
+    @Test
+    void simulatesTheSameLanguageWithAndWithoutTheUniversalStates() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            var marked = RegexUtils.convertToDeterministic(Glushkov.getNfaFromRegex(regex));
+            var unmarked = RegexUtils.convertToDeterministic(Glushkov.getNfaFromRegex(regex));
+            unmarked.setUniversalStates(new HashSet<>());
+            var pattern = TestRegexes.toPattern(regex);
+            for (var word : words) {
+                var expected = pattern.matcher(word).matches();
+                assertEquals(expected, marked.simulate(word), regex + " on " + word);
+                assertEquals(expected, unmarked.simulate(word), regex + " on " + word);
+            }
+        }
+    }
+
+    @Test
+    void stopsAtADeadOrUniversalState() throws Exception {
+        var regexDfa = RegexUtils.convertToDeterministic(Glushkov.getNfaFromRegex("a(a+b)*"));
+        assertTrue(regexDfa.simulate("abba"));
+        // The word is rejected before its incomplete escape is read.
+        assertFalse(regexDfa.simulate("b\\"));
+        assertFalse(regexDfa.simulate("abd"));
+        assertFalse(regexDfa.simulate("ab\\*"));
+
+        var jflapDfa = RegexUtils.parseToJFlapDFA(regexDfa);
+        assertTrue(jflapDfa.getInitialState().getTransitionState("a").isUniversalState());
+        assertTrue(jflapDfa.runDFA("abba"));
+        assertFalse(jflapDfa.runDFA("b\\"));
+        assertFalse(jflapDfa.runDFA("abd"));
+    }
+}
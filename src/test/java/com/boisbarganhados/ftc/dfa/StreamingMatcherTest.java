@@ -0,0 +1,86 @@
+package com.boisbarganhados.ftc.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+class StreamingMatcherTest {
+
+    @Test
+    void acceptsTheWordsOfTheReferenceInAnyChunks() throws Exception {
+        var random = new Random(TestRegexes.SEED);
+        var words = TestRegexes.words(random, 300, 12);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            var matcher = new StreamingMatcher(RegexUtils.compile(regex, NfaConstruction.GLUSHKOV));
+            var pattern = TestRegexes.toPattern(regex);
+            for (var word : words) {
+                matcher.reset();
+                feedInChunks(matcher, word, random);
+                var expected = pattern.matcher(word).matches();
+                assertEquals(expected, matcher.isAccepting(), regex + " on " + word);
+                if (matcher.isDead()) {
+                    assertFalse(expected, regex + " on " + word);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keepsAnEscapeSplitBetweenChunks() throws Exception {
+        var regex = "(\\+a+\\*)*b";
+        var matcher = new StreamingMatcher(RegexUtils.compile(regex, NfaConstruction.THOMPSON));
+        var pattern = TestRegexes.toPattern(regex);
+        var random = new Random(TestRegexes.SEED);
+        for (var word : List.of("b", "\\+b", "a\\*\\+ab", "+b", "\\b", "ab", "\\+\\+\\*b")) {
+            for (int split = 0; split <= word.length(); split++) {
+                matcher.reset();
+                matcher.feed(word.substring(0, split)).feed(word.toCharArray(), split, word.length() - split);
+                assertEquals(pattern.matcher(word).matches(), matcher.isAccepting(), word + " split at " + split);
+            }
+            matcher.reset();
+            feedInChunks(matcher, word, random);
+            assertEquals(pattern.matcher(word).matches(), matcher.isAccepting(), word);
+        }
+        matcher.reset();
+        assertFalse(matcher.feed("\\*\\").isAccepting());
+        assertFalse(matcher.isDead());
+        assertTrue(matcher.feed("*b").isAccepting());
+    }
+
+    @Test
+    void staysDeadOnceRejected() throws Exception {
+        var matcher = new StreamingMatcher(RegexUtils.compile("a*b", NfaConstruction.GLUSHKOV));
+        assertTrue(matcher.feed("aab").isAccepting());
+        assertTrue(matcher.feed("b").isDead());
+        assertFalse(matcher.feed("").feed("a*b").isAccepting());
+        matcher.reset();
+        assertFalse(matcher.isDead());
+        assertTrue(matcher.feed(new char[] { 'a', 'b' }, 0, 2).isAccepting());
+    }
+
+    /**
+     * Feed a word in random chunks, some of them empty, alternating between
+     * both overloads.
+     */
+    private static void feedInChunks(StreamingMatcher matcher, String word, Random random) {
+        var chars = word.toCharArray();
+        for (int from = 0; from < chars.length;) {
+            var length = random.nextInt(Math.min(4, chars.length - from) + 1);
+            if (random.nextBoolean()) {
+                matcher.feed(word.subSequence(from, from + length));
+            } else {
+                matcher.feed(chars, from, length);
+            }
+            from += length;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.boisbarganhados.ftc.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+class TaggedDFATest {
+
+    @Test
+    void reportsThePatternsOfTheReference() throws Exception {
+        // More than 64 patterns, so the tags of a state take two words.
+        var regexes = TestRegexes.regexes(TestRegexes.SEED, 60);
+        var patterns = regexes.stream().map(TestRegexes::toPattern).toList();
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        for (var construction : NfaConstruction.values()) {
+            var taggedDfa = RegexUtils.compileAll(regexes, construction);
+            assertEquals(regexes.size(), taggedDfa.getPatternCount());
+            for (var word : words) {
+                var expected = new BitSet(regexes.size());
+                for (int pattern = 0; pattern < patterns.size(); pattern++) {
+                    expected.set(pattern, patterns.get(pattern).matcher(word).matches());
+                }
+                assertEquals(expected, taggedDfa.matchingPatterns(word), word);
+                var first = expected.isEmpty() ? TaggedDFA.NO_PATTERN : expected.nextSetBit(0);
+                assertEquals(first, taggedDfa.firstMatchingPattern(word), word);
+                assertEquals(!expected.isEmpty(), taggedDfa.matches(word), word);
+            }
+        }
+    }
+
+    @Test
+    void prefersTheLowestIndex() throws Exception {
+        var taggedDfa = RegexUtils.compileAll(List.of("ab", "a*b", "(a+b)*"), NfaConstruction.GLUSHKOV);
+        assertEquals(0, taggedDfa.firstMatchingPattern("ab"));
+        assertEquals(1, taggedDfa.firstMatchingPattern("aab"));
+        assertEquals(2, taggedDfa.firstMatchingPattern("ba"));
+        assertEquals(2, taggedDfa.firstMatchingPattern(""));
+        assertEquals(TaggedDFA.NO_PATTERN, taggedDfa.firstMatchingPattern("abc"));
+        assertEquals(new BitSet(), taggedDfa.getPatterns(CompiledDFA.NO_STATE));
+    }
+
+    @Test
+    void rejectsAnEmptyPatternList() {
+        assertThrows(Exception.class, () -> RegexUtils.compileAll(List.of(), NfaConstruction.THOMPSON));
+    }
+}
@@ -0,0 +1,99 @@
+package com.boisbarganhados.ftc.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+
+class RandomDFAGeneratorTest {
+
+    @Test
+    void givesTheSameDfaForTheSameSeed() throws Exception {
+        var first = RandomDFAGenerator.partial(TestRegexes.SEED, 500, 5, 0.4, 0.3);
+        var second = RandomDFAGenerator.partial(TestRegexes.SEED, 500, 5, 0.4, 0.3);
+        var other = RandomDFAGenerator.partial(TestRegexes.SEED + 1, 500, 5, 0.4, 0.3);
+        var compiled = first.toCompiledDFA();
+        var differences = 0;
+        for (int state = 0; state < first.getStateCount(); state++) {
+            assertEquals(first.isFinal(state), second.isFinal(state));
+            assertEquals(first.isFinal(state), compiled.isAccepting(state));
+            for (int symbol = 0; symbol < first.getAlphabetSize(); symbol++) {
+                assertEquals(first.next(state, symbol), second.next(state, symbol));
+                var classId = compiled.getAlphabet().getClassId(first.getSymbol(symbol));
+                assertEquals(first.next(state, symbol), compiled.next(state, classId));
+                differences += first.next(state, symbol) != other.next(state, symbol) ? 1 : 0;
+            }
+        }
+        assertNotEquals(0, differences);
+        assertEquals(0, compiled.getInitialState());
+    }
+
+    @Test
+    void reachesEveryStateThroughTheStrideTransitions() throws Exception {
+        for (var stateCount : new int[] { 1, 2, 7, 12, 97, 360, 1000 }) {
+            // Without random transitions only the stride transitions are left.
+            var generator = RandomDFAGenerator.partial(stateCount, stateCount, 3, 0, 0.5);
+            var reached = new BitSet(stateCount);
+            var queue = new ArrayDeque<Integer>();
+            reached.set(0);
+            queue.add(0);
+            while (!queue.isEmpty()) {
+                var state = queue.poll();
+                var defined = 0;
+                for (int symbol = 0; symbol < generator.getAlphabetSize(); symbol++) {
+                    var target = generator.next(state, symbol);
+                    if (target == CompiledDFA.NO_STATE) {
+                        continue;
+                    }
+                    defined++;
+                    if (!reached.get(target)) {
+                        reached.set(target);
+                        queue.add(target);
+                    }
+                }
+                assertEquals(1, defined, stateCount + " states");
+            }
+            assertEquals(stateCount, reached.cardinality(), stateCount + " states");
+        }
+    }
+
+    @Test
+    void definesTransitionsWithTheGivenDensity() throws Exception {
+        var stateCount = 4000;
+        var alphabetSize = 6;
+        var complete = RandomDFAGenerator.complete(TestRegexes.SEED, stateCount, alphabetSize, 0.25);
+        var partial = RandomDFAGenerator.partial(TestRegexes.SEED, stateCount, alphabetSize, 0.3, 0.25);
+        var partialDefined = 0;
+        var finalStates = 0;
+        for (int state = 0; state < stateCount; state++) {
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                assertTrue(complete.next(state, symbol) != CompiledDFA.NO_STATE);
+                partialDefined += partial.next(state, symbol) != CompiledDFA.NO_STATE ? 1 : 0;
+            }
+            finalStates += complete.isFinal(state) ? 1 : 0;
+        }
+        // One stride transition per state, and the density of the others.
+        var expectedDefined = stateCount + 0.3 * stateCount * (alphabetSize - 1);
+        assertEquals(expectedDefined, partialDefined, 0.03 * stateCount * alphabetSize);
+        assertEquals(0.25 * stateCount, finalStates, 0.03 * stateCount);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(Exception.class, () -> RandomDFAGenerator.complete(1, 0, 2, 0.5));
+        assertThrows(Exception.class, () -> RandomDFAGenerator.complete(1, RandomDFAGenerator.MAX_STATES + 1, 2, 0.5));
+        assertThrows(Exception.class, () -> RandomDFAGenerator.complete(1, 10, 0, 0.5));
+        assertThrows(Exception.class,
+                () -> RandomDFAGenerator.complete(1, 10, RandomDFAGenerator.SYMBOLS.length() + 1, 0.5));
+        assertThrows(Exception.class, () -> RandomDFAGenerator.partial(1, 10, 2, 1.5, 0.5));
+        assertThrows(Exception.class, () -> RandomDFAGenerator.partial(1, 10, 2, 0.5, Double.NaN));
+    }
+}
@@ -0,0 +1,56 @@
+package com.boisbarganhados.ftc.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+class RegexFamiliesTest {
+
+    @Test
+    void buildsAnNthFromLastDfaWithTwoToTheNStates() throws Exception {
+        for (int n = 1; n <= 10; n++) {
+            for (var construction : NfaConstruction.values()) {
+                var dfa = RegexUtils.compile(RegexFamilies.nthFromLast(n), construction);
+                assertEquals(1 << n, dfa.getStateCount(), "n = " + n);
+            }
+        }
+    }
+
+    @Test
+    void buildsTheLanguageOfEveryFamily() throws Exception {
+        var random = new Random(TestRegexes.SEED);
+        var words = TestRegexes.words(random, 300, 12);
+        var regexes = List.of(RegexFamilies.nthFromLast(3), RegexFamilies.optionalChain(4),
+                RegexFamilies.nestedStars(5), RegexFamilies.wordUnion(TestRegexes.SEED, 20, 3, 3));
+        assertEquals("(((((a)*)*)*)*)*", RegexFamilies.nestedStars(5));
+        for (var regex : regexes) {
+            var pattern = TestRegexes.toPattern(regex);
+            var dfa = RegexUtils.compile(regex, NfaConstruction.THOMPSON);
+            for (var word : words) {
+                assertEquals(pattern.matcher(word).matches(), dfa.matches(word), regex + " on " + word);
+            }
+        }
+        var optional = RegexUtils.compile(RegexFamilies.optionalChain(4), NfaConstruction.GLUSHKOV);
+        for (int length = 0; length <= 10; length++) {
+            assertEquals(length >= 4 && length <= 8, optional.matches("a".repeat(length)), "a^" + length);
+        }
+    }
+
+    @Test
+    void buildsFamiliesByName() throws Exception {
+        assertEquals(RegexFamilies.nthFromLast(4), RegexFamilies.build("nth-from-last", 0, 4));
+        assertEquals(RegexFamilies.optionalChain(2), RegexFamilies.build("Optional-Chain", 0, 2));
+        assertEquals(RegexFamilies.nestedStars(3), RegexFamilies.build("nested-stars", 0, 3));
+        assertEquals(RegexFamilies.wordUnion(7, 5, 8, 4), RegexFamilies.build("word-union", 7, 5));
+        assertThrows(Exception.class, () -> RegexFamilies.build("unknown", 0, 3));
+        assertThrows(Exception.class, () -> RegexFamilies.build("nth-from-last", 0, 0));
+    }
+}
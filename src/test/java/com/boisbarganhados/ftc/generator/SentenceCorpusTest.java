@@ -0,0 +1,65 @@
+package com.boisbarganhados.ftc.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+
+class SentenceCorpusTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givesTheSameCorpusForTheSameSeed() throws Exception {
+        var dfa = RandomDFAGenerator.partial(TestRegexes.SEED, 200, 4, 0.6, 0.3).toCompiledDFA();
+        var first = SentenceCorpus.generate(dfa, TestRegexes.SEED, 300, 12, 0.4);
+        assertEquals(first, SentenceCorpus.generate(dfa, TestRegexes.SEED, 300, 12, 0.4));
+        assertNotEquals(first, SentenceCorpus.generate(dfa, TestRegexes.SEED + 1, 300, 12, 0.4));
+
+        var path = directory.resolve("sentences.txt");
+        SentenceCorpus.write(dfa, TestRegexes.SEED, 300, 12, 0.4, path.toString());
+        assertEquals(first, Files.readAllLines(path));
+        assertEquals(first, RegexUtils.readSentences(path.toString()));
+    }
+
+    @Test
+    void acceptsTheGivenFractionOfSentences() throws Exception {
+        var dfas = List.of(RandomDFAGenerator.complete(TestRegexes.SEED, 300, 3, 0.05).toCompiledDFA(),
+                RandomDFAGenerator.partial(TestRegexes.SEED, 300, 5, 0.3, 0.9).toCompiledDFA(),
+                RegexUtils.compile("(a+b)*abba(a+b)*", NfaConstruction.GLUSHKOV),
+                RegexUtils.compile("(a+b+c)*a(a+b)(a+b)", NfaConstruction.THOMPSON));
+        for (var dfa : dfas) {
+            for (var acceptRatio : new double[] { 0, 0.1, 0.5, 0.97, 1 }) {
+                var count = 999;
+                var sentences = SentenceCorpus.generate(dfa, TestRegexes.SEED, count, 16, acceptRatio);
+                assertEquals(count, sentences.size());
+                var accepted = sentences.stream().filter(dfa::matches).count();
+                assertEquals(count * acceptRatio, accepted, 0.5, "accept ratio " + acceptRatio);
+            }
+        }
+    }
+
+    @Test
+    void rejectsRatiosTheDfaCannotGive() throws Exception {
+        var everything = RegexUtils.compile("(a+b)*", NfaConstruction.GLUSHKOV);
+        var nothing = CompiledDFA.of(everything.getAlphabet(), new int[] { 0, 0 }, new BitSet(), 0);
+        assertEquals(List.of("", "", ""), SentenceCorpus.generate(everything, 1, 3, 0, 1));
+        assertThrows(Exception.class, () -> SentenceCorpus.generate(everything, 1, 3, 4, 0.5));
+        assertThrows(Exception.class, () -> SentenceCorpus.generate(nothing, 1, 3, 4, 0.5));
+        assertThrows(Exception.class, () -> SentenceCorpus.generate(everything, 1, 3, 4, 1.5));
+        assertThrows(Exception.class, () -> SentenceCorpus.generate(everything, 1, -1, 4, 1));
+    }
+}
@@ -0,0 +1,130 @@
+package com.boisbarganhados.ftc.jflap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+import com.boisbarganhados.ftc.jflap.utils.Automaton;
+import com.boisbarganhados.ftc.jflap.utils.State;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+import com.boisbarganhados.ftc.regex.RegexUtils;
+import com.boisbarganhados.ftc.regex.Thompson;
+
+class JFFStreamWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesADfaThatIsReadBack() throws Exception {
+        var dfa = RegexUtils.parseToJFlapDFA(RegexUtils.convertToDeterministic(Thompson.getNfaFromRegex("(a+b)*a\\+b")));
+        var path = directory.resolve("dfa.jff").toString();
+        JFFStreamWriter.write(dfa, path);
+        assertTags(path, 1, dfa.getFinalStates().size());
+
+        var automaton = XMLController.reader(path);
+        assertEquals(dfa.getStates().size(), automaton.getAutomaton().getStates().size());
+        var states = statesById(automaton);
+        for (var dfaState : dfa.getStates()) {
+            var state = states.get(dfaState.getId());
+            assertEquals(dfaState.getName(), state.getName());
+            assertEquals(dfaState.isInitialState(), state.isStateInitial());
+            assertEquals(dfaState.isFinalState(), state.isStateFinal());
+            assertEquals(dfaState.getId() * 50.0, state.getX());
+            assertEquals(dfaState.getId() * 50.0, state.getY());
+        }
+        assertEquals(transitions(dfa), transitions(automaton));
+    }
+
+    @Test
+    void writesACompiledDfaThatIsReadBack() throws Exception {
+        var compiledDfa = RegexUtils.compile("(a+b)*abb(c+λ)", NfaConstruction.GLUSHKOV);
+        var path = directory.resolve("compiled.jff").toString();
+        JFFStreamWriter.write(compiledDfa, path);
+        var finalStates = 0;
+        for (int state = 0; state < compiledDfa.getStateCount(); state++) {
+            finalStates += compiledDfa.isAccepting(state) ? 1 : 0;
+        }
+        assertTags(path, 1, finalStates);
+
+        var automaton = XMLController.reader(path);
+        assertEquals(compiledDfa.getStateCount(), automaton.getAutomaton().getStates().size());
+        var states = statesById(automaton);
+        var expectedTransitions = new HashSet<String>();
+        for (int state = 0; state < compiledDfa.getStateCount(); state++) {
+            assertEquals("q" + state, states.get(state).getName());
+            assertEquals(state == compiledDfa.getInitialState(), states.get(state).isStateInitial());
+            assertEquals(compiledDfa.isAccepting(state), states.get(state).isStateFinal());
+            for (int classId = 0; classId < compiledDfa.getClassCount(); classId++) {
+                var target = compiledDfa.next(state, classId);
+                if (target != CompiledDFA.NO_STATE) {
+                    expectedTransitions.add(state + " " + target + " " + compiledDfa.getAlphabet().getSymbol(classId));
+                }
+            }
+        }
+        assertEquals(expectedTransitions, transitions(automaton));
+        assertEquals(expectedTransitions, transitions(compiledDfa.toDFA()));
+    }
+
+    @Test
+    void rejectsAStateAfterATransition() throws Exception {
+        var path = directory.resolve("order.jff").toString();
+        try (var writer = JFFStreamWriter.open(path)) {
+            writer.writeState(0, "q0", true, false);
+            writer.writeState(1, "q1", false, true);
+            writer.writeTransition(0, 1, "a");
+            assertThrows(Exception.class, () -> writer.writeState(2, "q2", false, false));
+        }
+        var automaton = XMLController.reader(path);
+        assertEquals(2, automaton.getAutomaton().getStates().size());
+        assertEquals(Set.of("0 1 a"), transitions(automaton));
+    }
+
+    /**
+     * Check the number of empty initial and final tags JFLAP expects, before
+     * the reader rewrites them.
+     */
+    private static void assertTags(String path, int initialTags, int finalTags) throws Exception {
+        var content = Files.readString(Path.of(path));
+        assertEquals(initialTags, content.split("<initial/>", -1).length - 1);
+        assertEquals(finalTags, content.split("<final/>", -1).length - 1);
+    }
+
+    private static HashMap<Integer, State> statesById(Automaton automaton) {
+        var states = new HashMap<Integer, State>();
+        for (var state : automaton.getAutomaton().getStates()) {
+            states.put(state.getId(), state);
+        }
+        return states;
+    }
+
+    private static Set<String> transitions(Automaton automaton) {
+        var transitions = new HashSet<String>();
+        for (var transition : automaton.getAutomaton().getTransitions()) {
+            transitions.add(transition.getFrom() + " " + transition.getTo() + " " + transition.getRead());
+        }
+        return transitions;
+    }
+
+    private static Set<String> transitions(DFA dfa) {
+        var transitions = new HashSet<String>();
+        for (var state : dfa.getStates()) {
+            for (var entry : state.getTransitions().entrySet()) {
+                for (var target : entry.getValue()) {
+                    transitions.add(state.getId() + " " + target.getId() + " " + entry.getKey());
+                }
+            }
+        }
+        return transitions;
+    }
+}
@@ -0,0 +1,59 @@
+package com.boisbarganhados.ftc.minimization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFAEquivalence;
+import com.boisbarganhados.ftc.generator.RandomDFAGenerator;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+
+class AdaptiveDFAMinimizerTest {
+
+    @Test
+    void matchesHopcroftOnRegexDfas() throws Exception {
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            for (var construction : NfaConstruction.values()) {
+                assertMinimal(TestRegexes.subsetDfa(regex, construction), regex);
+            }
+        }
+    }
+
+    @Test
+    void matchesHopcroftOnRandomDfas() throws Exception {
+        for (int seed = 0; seed < 40; seed++) {
+            var density = seed % 2 == 0 ? 1 : 0.3;
+            var dfa = RandomDFAGenerator.partial(seed, 10 + seed * 3, 2 + seed % 4, density, 0.3).toCompiledDFA();
+            assertMinimal(dfa, "seed " + seed);
+        }
+    }
+
+    @Test
+    void selectsValmariLehtinenForLargeSparseDfas() throws Exception {
+        var sparse = RandomDFAGenerator.partial(TestRegexes.SEED, AdaptiveDFAMinimizer.SPARSE_MIN_STATES, 62, 0.01,
+                0.5).toCompiledDFA();
+        assertEquals(AdaptiveDFAMinimizer.Method.VALMARI_LEHTINEN, AdaptiveDFAMinimizer.select(sparse));
+        assertMinimal(sparse, "sparse");
+    }
+
+    @Test
+    void selectsHopcroftOtherwise() throws Exception {
+        var dense = RandomDFAGenerator.complete(TestRegexes.SEED, AdaptiveDFAMinimizer.SPARSE_MIN_STATES, 62, 0.5)
+                .toCompiledDFA();
+        var small = RandomDFAGenerator.partial(TestRegexes.SEED, AdaptiveDFAMinimizer.SPARSE_MIN_STATES - 1, 62, 0.01,
+                0.5).toCompiledDFA();
+        assertEquals(AdaptiveDFAMinimizer.Method.HOPCROFT, AdaptiveDFAMinimizer.select(dense));
+        assertEquals(AdaptiveDFAMinimizer.Method.HOPCROFT, AdaptiveDFAMinimizer.select(small));
+        assertEquals(AdaptiveDFAMinimizer.Method.HOPCROFT,
+                AdaptiveDFAMinimizer.select(TestRegexes.subsetDfa("(a+b)*a(a+b)", NfaConstruction.THOMPSON)));
+    }
+
+    private static void assertMinimal(CompiledDFA dfa, String message) throws Exception {
+        var minimized = AdaptiveDFAMinimizer.minimize(dfa);
+        assertEquals(HopcroftDFAMinimizer.minimize(dfa).getStateCount(), minimized.getStateCount(), message);
+        assertTrue(DFAEquivalence.equivalent(dfa, minimized), message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.boisbarganhados.ftc.minimization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFAEquivalence;
+import com.boisbarganhados.ftc.generator.RandomDFAGenerator;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+
+class BrzozowskiDFAMinimizerTest {
+
+    @Test
+    void matchesHopcroftOnRegexDfas() throws Exception {
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            for (var construction : NfaConstruction.values()) {
+                assertMinimal(TestRegexes.subsetDfa(regex, construction), regex);
+            }
+        }
+    }
+
+    @Test
+    void matchesHopcroftOnRandomDfas() throws Exception {
+        for (int seed = 0; seed < 40; seed++) {
+            var density = seed % 2 == 0 ? 1 : 0.3;
+            var dfa = RandomDFAGenerator.partial(seed, 4 + seed % 12, 2 + seed % 4, density, 0.3).toCompiledDFA();
+            assertMinimal(dfa, "seed " + seed);
+        }
+    }
+
+    private static void assertMinimal(CompiledDFA dfa, String message) throws Exception {
+        var minimized = BrzozowskiDFAMinimizer.minimize(dfa);
+        assertEquals(HopcroftDFAMinimizer.minimize(dfa).getStateCount(), minimized.getStateCount(), message);
+        assertTrue(DFAEquivalence.equivalent(dfa, minimized), message);
+    }
+}
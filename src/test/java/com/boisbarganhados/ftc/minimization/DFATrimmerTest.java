@@ -0,0 +1,168 @@
+package com.boisbarganhados.ftc.minimization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.Alphabet;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFAEquivalence;
+import com.boisbarganhados.ftc.generator.RandomDFAGenerator;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+
+class DFATrimmerTest {
+
+    @Test
+    void findsTheLiveAndUniversalStatesOfRandomDfas() throws Exception {
+        for (int seed = 0; seed < 60; seed++) {
+            var dfa = randomDfa(seed);
+            var live = new BitSet();
+            for (int state = 0; state < dfa.getStateCount(); state++) {
+                live.set(state, reachesAccepting(dfa, state));
+            }
+            assertEquals(live, DFATrimmer.findLiveStates(dfa), "seed " + seed);
+            assertEquals(universalStates(dfa), DFATrimmer.findUniversalStates(dfa), "seed " + seed);
+        }
+    }
+
+    @Test
+    void marksTheUniversalStatesOfRegexDfas() throws Exception {
+        var dfa = TestRegexes.subsetDfa("(a+b)*a(a+b)*", NfaConstruction.GLUSHKOV);
+        var universal = DFATrimmer.findUniversalStates(dfa);
+        assertFalse(universal.get(dfa.getInitialState()));
+        assertTrue(universal.get(dfa.next(dfa.getInitialState(), dfa.getAlphabet().getClassId("a"))));
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 60)) {
+            var subsetDfa = TestRegexes.subsetDfa(regex, NfaConstruction.THOMPSON);
+            assertEquals(universalStates(subsetDfa), DFATrimmer.findUniversalStates(subsetDfa), regex);
+        }
+    }
+
+    @Test
+    void prunesUnreachableAndDeadStates() throws Exception {
+        for (int seed = 0; seed < 60; seed++) {
+            var dfa = seed % 2 == 0 ? randomDfa(seed)
+                    : RandomDFAGenerator.partial(seed, 10 + seed, 2 + seed % 3, 0.5, 0.2).toCompiledDFA();
+            var trimmed = DFATrimmer.withEarlyTermination(dfa);
+            assertTrue(DFAEquivalence.equivalent(dfa, trimmed), "seed " + seed);
+            assertEquals(0, trimmed.getInitialState());
+            var live = DFATrimmer.findLiveStates(trimmed);
+            if (live.isEmpty()) {
+                assertEquals(1, trimmed.getStateCount(), "seed " + seed);
+                continue;
+            }
+            assertEquals(trimmed.getStateCount(), live.cardinality(), "seed " + seed);
+            assertEquals(trimmed.getStateCount(), DFATrimmer.removeUnreachable(trimmed).getStateCount());
+            var universal = DFATrimmer.findUniversalStates(trimmed);
+            for (int state = 0; state < trimmed.getStateCount(); state++) {
+                assertEquals(universal.get(state), trimmed.isUniversal(state), "seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    void trimsDfaModelsAndKeepsTheirLanguage() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 10);
+        for (int seed = 0; seed < 20; seed++) {
+            var compiledDfa = randomDfa(seed);
+            var dfa = compiledDfa.toDFA();
+            var trimmed = DFATrimmer.trim(dfa);
+            assertEquals(DFATrimmer.trim(compiledDfa).getStateCount(), trimmed.getStates().size(), "seed " + seed);
+            for (var state : trimmed.getStates()) {
+                assertEquals(DFATrimmer.findUniversalStates(CompiledDFA.of(trimmed)).get(state.getId()),
+                        state.isUniversalState(), "seed " + seed);
+            }
+            // The words also have symbols outside of the alphabet after the
+            // universal states.
+            for (var word : words) {
+                assertEquals(dfa.runDFA(word), trimmed.runDFA(word), "seed " + seed + " on " + word);
+            }
+        }
+    }
+
+    /**
+     * Build a random DFA over a, b and c with three regions: a lower half with
+     * transitions anywhere, a mostly accepting upper half that only leads to
+     * itself and a rejecting trap of two states that only leads to itself. It
+     * has universal states, dead states and missing transitions in turn.
+     */
+    static CompiledDFA randomDfa(long seed) {
+        var random = new Random(seed);
+        var stateCount = 6 + random.nextInt(30);
+        var half = stateCount / 2;
+        var trap = stateCount - 2;
+        var alphabet = Alphabet.of(List.of("a", "b", "c"), false);
+        var transitions = new int[stateCount * alphabet.size()];
+        var acceptingStates = new BitSet(stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            for (int classId = 0; classId < alphabet.size(); classId++) {
+                int target;
+                if (state >= trap) {
+                    target = random.nextInt(3) == 0 ? CompiledDFA.NO_STATE : trap + random.nextInt(2);
+                } else if (state >= half) {
+                    target = random.nextInt(40) == 0 ? CompiledDFA.NO_STATE
+                            : random.nextInt(40) == 0 ? trap : half + random.nextInt(trap - half);
+                } else {
+                    target = random.nextInt(6) == 0 ? CompiledDFA.NO_STATE : random.nextInt(stateCount);
+                }
+                transitions[state * alphabet.size() + classId] = target;
+            }
+            var accepting = state < half ? random.nextInt(3) == 0 : state < trap && random.nextInt(20) != 0;
+            acceptingStates.set(state, accepting);
+        }
+        return CompiledDFA.of(alphabet, transitions, acceptingStates, 0);
+    }
+
+    /**
+     * Find the universal states as the greatest set of accepting states whose
+     * transitions are all defined and stay in the set.
+     */
+    static BitSet universalStates(CompiledDFA dfa) {
+        var universal = new BitSet();
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            universal.set(state, dfa.isAccepting(state));
+        }
+        for (var changed = true; changed;) {
+            changed = false;
+            for (int state = universal.nextSetBit(0); state >= 0; state = universal.nextSetBit(state + 1)) {
+                for (int classId = 0; classId < dfa.getClassCount(); classId++) {
+                    var target = dfa.next(state, classId);
+                    if (target == CompiledDFA.NO_STATE || !universal.get(target)) {
+                        universal.clear(state);
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return universal;
+    }
+
+    private static boolean reachesAccepting(CompiledDFA dfa, int from) {
+        var seen = new BitSet();
+        var queue = new ArrayDeque<Integer>();
+        seen.set(from);
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            var state = queue.poll();
+            if (dfa.isAccepting(state)) {
+                return true;
+            }
+            for (int classId = 0; classId < dfa.getClassCount(); classId++) {
+                var target = dfa.next(state, classId);
+                if (target != CompiledDFA.NO_STATE && !seen.get(target)) {
+                    seen.set(target);
+                    queue.add(target);
+                }
+            }
+        }
+        return false;
+    }
+}
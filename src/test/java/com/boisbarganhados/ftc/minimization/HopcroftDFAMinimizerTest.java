@@ -0,0 +1,158 @@
+package com.boisbarganhados.ftc.minimization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFA;
+import com.boisbarganhados.ftc.dfa.DFAEquivalence;
+import com.boisbarganhados.ftc.generator.RandomDFAGenerator;
+import com.boisbarganhados.ftc.generator.RegexFamilies;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+
+class HopcroftDFAMinimizerTest {
+
+    @Test
+    void minimizesRegexDfasToTheNerodeClasses() throws Exception {
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            for (var construction : NfaConstruction.values()) {
+                var dfa = TestRegexes.subsetDfa(regex, construction);
+                var minimized = HopcroftDFAMinimizer.minimize(dfa);
+                assertEquals(countNerodeClasses(dfa), minimized.getStateCount(), regex);
+                assertTrue(DFAEquivalence.equivalent(dfa, minimized), regex);
+            }
+        }
+    }
+
+    @Test
+    void minimizesRandomDfasToTheNerodeClasses() throws Exception {
+        for (int seed = 0; seed < 40; seed++) {
+            var density = seed % 2 == 0 ? 1 : 0.3;
+            var dfa = RandomDFAGenerator.partial(seed, 10 + seed * 3, 2 + seed % 4, density, 0.3).toCompiledDFA();
+            var minimized = HopcroftDFAMinimizer.minimize(dfa);
+            assertEquals(countNerodeClasses(dfa), minimized.getStateCount(), "seed " + seed);
+            assertTrue(DFAEquivalence.equivalent(dfa, minimized), "seed " + seed);
+        }
+    }
+
+    @Test
+    void keepsEveryStateOfNthFromLast() throws Exception {
+        for (int n = 1; n <= 8; n++) {
+            var dfa = TestRegexes.subsetDfa(RegexFamilies.nthFromLast(n), NfaConstruction.GLUSHKOV);
+            assertEquals(1 << n, HopcroftDFAMinimizer.minimize(dfa).getStateCount());
+        }
+    }
+
+    @Test
+    void minimizesTheGeneratedTestDfa() throws Exception {
+        var dfa = DFA.generateDoubleStateTest(64);
+        var expected = countNerodeClasses(CompiledDFA.of(DFA.generateDoubleStateTest(64)));
+        assertEquals(expected, HopcroftDFAMinimizer.minimizeDFA(dfa).getStates().size());
+    }
+
+    @Test
+    void isIdempotent() throws Exception {
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 20)) {
+            var minimized = HopcroftDFAMinimizer.minimize(TestRegexes.subsetDfa(regex, NfaConstruction.THOMPSON));
+            assertEquals(minimized.getStateCount(), HopcroftDFAMinimizer.minimize(minimized).getStateCount());
+        }
+    }
+
+    /**
+     * Count the states of the minimal partial DFA with the table filling
+     * algorithm over the reachable states that can still accept, the
+     * quadratic reference the minimizers are checked against.
+     */
+    static int countNerodeClasses(CompiledDFA dfa) {
+        var stateCount = dfa.getStateCount();
+        var reachable = new BitSet(stateCount);
+        var queue = new ArrayDeque<Integer>();
+        reachable.set(dfa.getInitialState());
+        queue.add(dfa.getInitialState());
+        while (!queue.isEmpty()) {
+            var state = queue.poll();
+            for (int classId = 0; classId < dfa.getClassCount(); classId++) {
+                var target = dfa.next(state, classId);
+                if (target != CompiledDFA.NO_STATE && !reachable.get(target)) {
+                    reachable.set(target);
+                    queue.add(target);
+                }
+            }
+        }
+        var live = new BitSet(stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            live.set(state, dfa.isAccepting(state));
+        }
+        for (var changed = true; changed;) {
+            changed = false;
+            for (int state = 0; state < stateCount; state++) {
+                for (int classId = 0; !live.get(state) && classId < dfa.getClassCount(); classId++) {
+                    var target = dfa.next(state, classId);
+                    if (target != CompiledDFA.NO_STATE && live.get(target)) {
+                        live.set(state);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        reachable.and(live);
+        if (reachable.isEmpty()) {
+            return 1;
+        }
+        // The dead sink is the state stateCount, distinct from every live state.
+        var sink = stateCount;
+        var distinct = new boolean[stateCount + 1][stateCount + 1];
+        for (int first = 0; first <= stateCount; first++) {
+            for (int second = 0; second <= stateCount; second++) {
+                distinct[first][second] = accepts(dfa, first, sink) != accepts(dfa, second, sink);
+            }
+        }
+        for (var changed = true; changed;) {
+            changed = false;
+            for (int first = 0; first <= stateCount; first++) {
+                for (int second = 0; second <= stateCount; second++) {
+                    for (int classId = 0; !distinct[first][second] && classId < dfa.getClassCount(); classId++) {
+                        var firstTarget = target(dfa, first, classId, live, sink);
+                        var secondTarget = target(dfa, second, classId, live, sink);
+                        if (distinct[firstTarget][secondTarget]) {
+                            distinct[first][second] = true;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        var classes = 0;
+        for (int state = reachable.nextSetBit(0); state >= 0; state = reachable.nextSetBit(state + 1)) {
+            var first = true;
+            for (int other = reachable.nextSetBit(0); other < state; other = reachable.nextSetBit(other + 1)) {
+                if (!distinct[state][other]) {
+                    first = false;
+                    break;
+                }
+            }
+            if (first) {
+                classes++;
+            }
+        }
+        return classes;
+    }
+
+    private static boolean accepts(CompiledDFA dfa, int state, int sink) {
+        return state != sink && dfa.isAccepting(state);
+    }
+
+    private static int target(CompiledDFA dfa, int state, int classId, BitSet live, int sink) {
+        if (state == sink) {
+            return sink;
+        }
+        var target = dfa.next(state, classId);
+        return target == CompiledDFA.NO_STATE || !live.get(target) ? sink : target;
+    }
+}
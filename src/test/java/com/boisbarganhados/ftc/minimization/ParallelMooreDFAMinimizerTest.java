@@ -0,0 +1,57 @@
+package com.boisbarganhados.ftc.minimization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFAEquivalence;
+import com.boisbarganhados.ftc.generator.RandomDFAGenerator;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+
+class ParallelMooreDFAMinimizerTest {
+
+    @Test
+    void matchesHopcroftOnRegexDfas() throws Exception {
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            for (var construction : NfaConstruction.values()) {
+                assertMinimal(TestRegexes.subsetDfa(regex, construction), regex);
+            }
+        }
+    }
+
+    @Test
+    void matchesHopcroftOnRandomDfas() throws Exception {
+        for (int seed = 0; seed < 40; seed++) {
+            var density = seed % 2 == 0 ? 1 : 0.3;
+            var dfa = RandomDFAGenerator.partial(seed, 10 + seed * 3, 2 + seed % 4, density, 0.3).toCompiledDFA();
+            assertMinimal(dfa, "seed " + seed);
+        }
+    }
+
+    @Test
+    void givesTheSameDfaForAnyParallelism() throws Exception {
+        var dfa = RandomDFAGenerator.complete(TestRegexes.SEED, 2000, 4, 0.5).toCompiledDFA();
+        var sequential = ParallelMooreDFAMinimizer.minimize(dfa, 1);
+        for (var parallelism : new int[] { 2, 3, Runtime.getRuntime().availableProcessors() }) {
+            var parallel = ParallelMooreDFAMinimizer.minimize(dfa, parallelism);
+            assertEquals(sequential.getStateCount(), parallel.getStateCount());
+            assertTrue(DFAEquivalence.equivalent(sequential, parallel));
+        }
+    }
+
+    @Test
+    void rejectsANonPositiveParallelism() {
+        assertThrows(Exception.class, () -> ParallelMooreDFAMinimizer.minimize(
+                TestRegexes.subsetDfa("a", NfaConstruction.THOMPSON), 0));
+    }
+
+    private static void assertMinimal(CompiledDFA dfa, String message) throws Exception {
+        var minimized = ParallelMooreDFAMinimizer.minimize(dfa);
+        assertEquals(HopcroftDFAMinimizer.minimize(dfa).getStateCount(), minimized.getStateCount(), message);
+        assertTrue(DFAEquivalence.equivalent(dfa, minimized), message);
+    }
+}
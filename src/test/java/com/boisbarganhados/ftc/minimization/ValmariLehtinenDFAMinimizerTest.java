@@ -0,0 +1,46 @@
+package com.boisbarganhados.ftc.minimization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFAEquivalence;
+import com.boisbarganhados.ftc.generator.RandomDFAGenerator;
+import com.boisbarganhados.ftc.regex.NfaConstruction;
+
+class ValmariLehtinenDFAMinimizerTest {
+
+    @Test
+    void matchesHopcroftOnRegexDfas() throws Exception {
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            for (var construction : NfaConstruction.values()) {
+                assertMinimal(TestRegexes.subsetDfa(regex, construction), regex);
+            }
+        }
+    }
+
+    @Test
+    void matchesHopcroftOnRandomDfas() throws Exception {
+        for (int seed = 0; seed < 40; seed++) {
+            var density = seed % 2 == 0 ? 1 : 0.3;
+            var dfa = RandomDFAGenerator.partial(seed, 10 + seed * 3, 2 + seed % 4, density, 0.3).toCompiledDFA();
+            assertMinimal(dfa, "seed " + seed);
+        }
+    }
+
+    @Test
+    void keepsPartialDfasPartial() throws Exception {
+        var dfa = TestRegexes.subsetDfa("abc+cba", NfaConstruction.GLUSHKOV);
+        assertMinimal(dfa, "abc+cba");
+        assertEquals(6, ValmariLehtinenDFAMinimizer.minimize(dfa).getStateCount());
+    }
+
+    private static void assertMinimal(CompiledDFA dfa, String message) throws Exception {
+        var minimized = ValmariLehtinenDFAMinimizer.minimize(dfa);
+        assertEquals(HopcroftDFAMinimizer.minimize(dfa).getStateCount(), minimized.getStateCount(), message);
+        assertTrue(DFAEquivalence.equivalent(dfa, minimized), message);
+    }
+}
@@ -0,0 +1,48 @@
+package com.boisbarganhados.ftc.regex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+
+class GlushkovTest {
+
+    @Test
+    void acceptsTheWordsOfTheReference() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            var dfa = RegexUtils.convertToDeterministic(Glushkov.getNfaFromRegex(regex));
+            var pattern = TestRegexes.toPattern(regex);
+            for (var word : words) {
+                assertEquals(pattern.matcher(word).matches(), dfa.simulate(word), regex + " on " + word);
+            }
+        }
+    }
+
+    @Test
+    void readsEscapedSymbolsAsOneSymbol() throws Exception {
+        var regex = "(\\+a+\\*)*b";
+        var dfa = RegexUtils.convertToDeterministic(Glushkov.getNfaFromRegex(regex));
+        var pattern = TestRegexes.toPattern(regex);
+        for (var word : List.of("b", "\\+b", "a\\*\\+ab", "+b", "\\b", "ab")) {
+            assertEquals(pattern.matcher(word).matches(), dfa.simulate(word), word);
+        }
+    }
+
+    @Test
+    void buildsOneStatePerPositionWithoutLambdas() throws Exception {
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 50)) {
+            var nfa = Glushkov.getNfaFromRegex(regex);
+            var positions = regex.chars().filter(character -> TestRegexes.SYMBOLS.indexOf(character) >= 0).count();
+            assertEquals(positions + 1, nfa.getTransitions().size(), regex);
+            for (var transitions : nfa.getTransitions()) {
+                assertFalse(transitions.containsKey(RegexUtils.LAMBDA), regex);
+            }
+        }
+    }
+}
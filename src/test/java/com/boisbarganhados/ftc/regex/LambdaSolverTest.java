@@ -0,0 +1,81 @@
+package com.boisbarganhados.ftc.regex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.RegexDFElement;
+
+class LambdaSolverTest {
+
+    private static final int CHAIN_LENGTH = 200_000;
+
+    @Test
+    void solvesDifferentRegexesOneAfterTheOther() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        var regexes = List.of("(a+b)*abb", "c(a+λ)*b", "(a+b)*abb");
+        for (var regex : regexes) {
+            assertAcceptsTheReferenceWords(regex, words);
+        }
+    }
+
+    @Test
+    void solvesRegexesFromManyThreads() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        var regexes = TestRegexes.regexes(TestRegexes.SEED, 64);
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (var regex : regexes) {
+                tasks.add(() -> {
+                    assertAcceptsTheReferenceWords(regex, words);
+                    return null;
+                });
+            }
+            for (var result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void solvesALambdaChainDeeperThanTheStack() throws Exception {
+        var chain = RegexDFElement.builder().alphabetSet(new HashSet<>(Set.of("a"))).finalStates(new HashSet<>())
+                .transitions(new ArrayList<>()).deterministic(false).build();
+        var state = chain.addNewState();
+        for (int i = 1; i < CHAIN_LENGTH; i++) {
+            state = chain.addNewState(state, RegexUtils.LAMBDA);
+        }
+        chain.getFinalStates().add(chain.addNewState(state, "a"));
+        assertEquals(CHAIN_LENGTH, LambdaSolver.lambdaClosure(chain, 0).cardinality());
+
+        LambdaSolver.removeLambda(chain);
+        assertEquals(List.of(CHAIN_LENGTH), chain.getTransitions().get(0).get("a"));
+        assertFalse(chain.getTransitions().get(0).containsKey(RegexUtils.LAMBDA));
+        var regexDfa = RegexUtils.convertToDeterministic(chain);
+        assertTrue(regexDfa.simulate("a"));
+        assertFalse(regexDfa.simulate(""));
+        assertFalse(regexDfa.simulate("aa"));
+    }
+
+    private static void assertAcceptsTheReferenceWords(String regex, List<String> words) throws Exception {
+        var regexDfa = RegexUtils.convertToDeterministic(Thompson.getNfaFromRegex(regex));
+        var pattern = TestRegexes.toPattern(regex);
+        for (var word : words) {
+            assertEquals(pattern.matcher(word).matches(), regexDfa.simulate(word), regex + " on " + word);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.boisbarganhados.ftc.regex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.regex.records.RequiredLiterals;
+
+class LiteralAnalyzerTest {
+
+    @Test
+    void findsTheLiteralsOfEveryWord() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 1000, 10);
+        var withLiterals = 0;
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 200)) {
+            var literals = LiteralAnalyzer.analyze(regex);
+            var pattern = TestRegexes.toPattern(regex);
+            withLiterals += literals.inner().length() > 1 ? 1 : 0;
+            for (var word : words) {
+                if (pattern.matcher(word).matches()) {
+                    assertHasLiterals(literals, word, regex);
+                }
+            }
+        }
+        assertTrue(withLiterals > 0);
+    }
+
+    @Test
+    void keepsEscapedMetacharactersAsLiterals() throws Exception {
+        assertEquals(new RequiredLiterals(5, "\\+\\*a", "\\+\\*a", "\\+\\*a", "\\+\\*a"),
+                LiteralAnalyzer.analyze("\\+\\*a"));
+        assertEquals(new RequiredLiterals(3, null, "\\", "b", "\\"), LiteralAnalyzer.analyze("(\\+a+\\*)b"));
+        assertEquals(new RequiredLiterals(4, null, "\\(", "\\)", "\\("), LiteralAnalyzer.analyze("\\((a+b)*\\)"));
+    }
+
+    @Test
+    void keepsNonAsciiLiterals() throws Exception {
+        assertEquals(new RequiredLiterals(4, null, "ção", "ã", "ção"), LiteralAnalyzer.analyze("ção(a+b)*ã"));
+        assertEquals(new RequiredLiterals(3, null, "", "", "ñé"), LiteralAnalyzer.analyze("(a+b)ñé(a+λ)"));
+    }
+
+    @Test
+    void findsNoLiteralInUnionsWithoutOne() throws Exception {
+        assertEquals(new RequiredLiterals(2, null, "", "", ""), LiteralAnalyzer.analyze("ab+ba"));
+        assertEquals(new RequiredLiterals(1, null, "", "", ""), LiteralAnalyzer.analyze("a+bc+cb"));
+        assertEquals(new RequiredLiterals(0, null, "", "", ""), LiteralAnalyzer.analyze("(ab+c)*"));
+        assertEquals(new RequiredLiterals(2, null, "a", "", "a"), LiteralAnalyzer.analyze("ab+ac"));
+    }
+
+    private static void assertHasLiterals(RequiredLiterals literals, String word, String regex) {
+        var message = regex + " on " + word;
+        assertTrue(word.length() >= literals.minLength(), message);
+        if (literals.exact() != null) {
+            assertEquals(literals.exact(), word, message);
+        }
+        assertTrue(word.startsWith(literals.prefix()), message);
+        assertTrue(word.endsWith(literals.suffix()), message);
+        assertTrue(word.contains(literals.inner()), message);
+    }
+}
@@ -0,0 +1,109 @@
+package com.boisbarganhados.ftc.regex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.regex.records.SentenceCounts;
+
+class MappedSentencesTest {
+
+    private static final String[] LINE_BREAKS = { "\n", "\r\n", "\r" };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void evaluatesEveryLineLikeTheReader() throws Exception {
+        var random = new Random(TestRegexes.SEED);
+        var dfa = RegexUtils.compile("(a+é)*b(a+b+c)*", NfaConstruction.GLUSHKOV);
+        for (int file = 0; file < 40; file++) {
+            var content = randomContent(random);
+            var path = directory.resolve("sentences" + file + ".txt");
+            Files.writeString(path, content, StandardCharsets.UTF_8);
+            var expectedOutput = new StringBuilder();
+            var expected = expectedCounts(content, dfa, expectedOutput);
+            for (var chunkSize : new int[] { 1, 3, 7, 64, MappedSentences.DEFAULT_CHUNK_SIZE }) {
+                for (var parallelism : new int[] { 1, 3 }) {
+                    var message = content.replace("\r", "\\r").replace("\n", "\\n") + " in chunks of " + chunkSize;
+                    var output = new ByteArrayOutputStream();
+                    assertEquals(expected, MappedSentences.evaluate(path.toString(), dfa, parallelism, chunkSize,
+                            output), message);
+                    assertEquals(expectedOutput.toString(), output.toString(StandardCharsets.UTF_8), message);
+                    assertEquals(expected, MappedSentences.evaluate(path.toString(), dfa, parallelism, chunkSize),
+                            message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void usesTheDefaultChunkSizeAndTheCommonPool() throws Exception {
+        var path = directory.resolve("sentences.txt");
+        Files.writeString(path, "ab\nb\r\n\rcb\n", StandardCharsets.UTF_8);
+        var dfa = RegexUtils.compile("(a+c)*b", NfaConstruction.THOMPSON);
+        var parallelism = Runtime.getRuntime().availableProcessors();
+        assertEquals(new SentenceCounts(4, 3), MappedSentences.evaluate(path.toString(), dfa, parallelism));
+        assertEquals(new SentenceCounts(4, 3), MappedSentences.evaluate(path.toString(), dfa, parallelism));
+    }
+
+    @Test
+    void countsNothingInAnEmptyFile() throws Exception {
+        var path = Files.createFile(directory.resolve("empty.txt"));
+        var dfa = RegexUtils.compile("λ", NfaConstruction.GLUSHKOV);
+        var output = new ByteArrayOutputStream();
+        assertEquals(new SentenceCounts(0, 0), MappedSentences.evaluate(path.toString(), dfa, 2, 4, output));
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void rejectsInvalidArguments() throws Exception {
+        var path = Files.writeString(directory.resolve("sentences.txt"), "a\n");
+        var dfa = RegexUtils.compile("a", NfaConstruction.GLUSHKOV);
+        assertThrows(Exception.class, () -> MappedSentences.evaluate(path.toString(), dfa, 0));
+        assertThrows(Exception.class, () -> MappedSentences.evaluate(path.toString(), dfa, 1, 0));
+        var missing = directory.resolve("missing").toString();
+        assertThrows(Exception.class, () -> MappedSentences.evaluate(missing, dfa, 1));
+    }
+
+    /**
+     * Build a file of short lines, empty ones included, with mixed line breaks
+     * and sometimes no break after the last line.
+     */
+    private static String randomContent(Random random) {
+        var content = new StringBuilder();
+        for (int line = random.nextInt(12); line > 0; line--) {
+            for (int i = random.nextInt(6); i > 0; i--) {
+                content.append("abcé".charAt(random.nextInt(4)));
+            }
+            if (line > 1 || random.nextBoolean()) {
+                content.append(LINE_BREAKS[random.nextInt(LINE_BREAKS.length)]);
+            }
+        }
+        return content.toString();
+    }
+
+    private static SentenceCounts expectedCounts(String content, CompiledDFA dfa, StringBuilder output) {
+        var lines = new BufferedReader(new StringReader(content)).lines().toList();
+        var accepted = 0;
+        for (var line : lines) {
+            var matches = dfa.matches(line);
+            accepted += matches ? 1 : 0;
+            output.append(matches ? "Accepted by DFA: " : "Rejected by DFA: ").append(line)
+                    .append(System.lineSeparator());
+        }
+        return new SentenceCounts(lines.size(), accepted);
+    }
+}
@@ -0,0 +1,88 @@
+package com.boisbarganhados.ftc.regex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.regex.records.SearchMatch;
+
+class RegexSearcherTest {
+
+    @Test
+    void findsTheMatchesOfTheReference() throws Exception {
+        var texts = TestRegexes.words(new Random(TestRegexes.SEED), 150, 16);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 60)) {
+            var searcher = RegexSearcher.of(regex);
+            var pattern = TestRegexes.toPattern(regex);
+            for (var text : texts) {
+                var expected = findAll(pattern, text);
+                assertEquals(expected, searcher.findAll(text), regex + " in " + text);
+                assertEquals(expected.size(), searcher.count(text), regex + " in " + text);
+                for (int from = 0; from <= text.length(); from++) {
+                    assertEquals(find(pattern, text, from), searcher.find(text, from),
+                            regex + " in " + text + " from " + from);
+                }
+            }
+        }
+    }
+
+    @Test
+    void findsTheLeftmostMatchThatEndsLater() throws Exception {
+        var searcher = RegexSearcher.of("abcd+b");
+        assertEquals(new SearchMatch(0, 4), searcher.find("abcd"));
+        assertEquals(new SearchMatch(1, 2), searcher.find("abcd", 1));
+        assertNull(searcher.find("abcd", 2));
+    }
+
+    @Test
+    void readsEscapedSymbolsAsTwoCharacters() throws Exception {
+        var regex = "(\\+a+\\*)*b";
+        var searcher = RegexSearcher.of(regex);
+        var pattern = TestRegexes.toPattern(regex);
+        for (var text : List.of("x\\*b\\+ab", "+b*b", "\\\\*b", "\\+a\\*\\+ab b")) {
+            assertEquals(findAll(pattern, text), searcher.findAll(text), text);
+        }
+    }
+
+    @Test
+    void rejectsAnOffsetOutsideTheText() throws Exception {
+        var searcher = RegexSearcher.of("a");
+        assertThrows(IndexOutOfBoundsException.class, () -> searcher.find("aa", 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> searcher.find("aa", -1));
+    }
+
+    /**
+     * Find the leftmost-longest match from an offset by trying every substring.
+     */
+    private static SearchMatch find(Pattern pattern, String text, int from) {
+        for (int start = from; start <= text.length(); start++) {
+            for (int end = text.length(); end >= start; end--) {
+                if (pattern.matcher(text).region(start, end).matches()) {
+                    return new SearchMatch(start, end);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<SearchMatch> findAll(Pattern pattern, String text) {
+        var matches = new ArrayList<SearchMatch>();
+        for (int from = 0; from <= text.length();) {
+            var match = find(pattern, text, from);
+            if (match == null) {
+                break;
+            }
+            matches.add(match);
+            from = match.end() > match.start() ? match.end() : match.end() + 1;
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,152 @@
+package com.boisbarganhados.ftc.regex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.BitParallelNFA;
+import com.boisbarganhados.ftc.dfa.CompiledDFA;
+import com.boisbarganhados.ftc.dfa.DFAEquivalence;
+import com.boisbarganhados.ftc.dfa.SentenceMatcher;
+import com.boisbarganhados.ftc.minimization.HopcroftDFAMinimizer;
+
+class RegexUtilsTest {
+
+    @Test
+    void compilesMatchersThatAcceptTheWordsOfTheReference() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 100)) {
+            var pattern = TestRegexes.toPattern(regex);
+            for (var construction : NfaConstruction.values()) {
+                var matcher = RegexUtils.compileMatcher(regex, construction);
+                for (var word : words) {
+                    assertEquals(pattern.matcher(word).matches(), matcher.matches(word), regex + " on " + word);
+                }
+            }
+        }
+    }
+
+    @Test
+    void compilesMinimalDfasThatKeepTheLanguage() throws Exception {
+        var words = TestRegexes.words(new Random(TestRegexes.SEED), 300, 8);
+        var regexes = new ArrayList<>(List.of("(a+b)*abca(a+b+c)*", "c(a+b)*bb", "(ab+ba)*ccb(a+λ)"));
+        regexes.addAll(TestRegexes.regexes(TestRegexes.SEED, 100));
+        var prefiltered = 0;
+        for (var regex : regexes) {
+            var pattern = TestRegexes.toPattern(regex);
+            for (var construction : NfaConstruction.values()) {
+                var dfa = RegexUtils.compile(regex, construction);
+                var subsetDfa = TestRegexes.subsetDfa(regex, construction);
+                assertEquals(HopcroftDFAMinimizer.minimize(subsetDfa).getStateCount(), dfa.getStateCount(), regex);
+                assertTrue(DFAEquivalence.equivalent(subsetDfa, dfa), regex);
+                prefiltered += dfa.getPrefilter() != null ? 1 : 0;
+                for (var word : words) {
+                    var expected = pattern.matcher(word).matches();
+                    assertEquals(expected, dfa.matches(word), regex + " on " + word);
+                    assertEquals(expected, dfa.withPrefilter(null).matches(word), regex + " on " + word);
+                }
+            }
+        }
+        assertTrue(prefiltered >= 6);
+    }
+
+    @Test
+    void compilesSmallRegexesToTheBitParallelMatcher() throws Exception {
+        var small = "(a+b)*a(a+b)(a+b)";
+        var large = "(a+b)*" + "ab".repeat(BitParallelNFA.MAX_STATES / 2);
+        assertInstanceOf(BitParallelNFA.class, RegexUtils.compileMatcher(small, NfaConstruction.GLUSHKOV));
+        var matcher = RegexUtils.compileMatcher(large, NfaConstruction.GLUSHKOV);
+        assertInstanceOf(CompiledDFA.class, matcher);
+        var pattern = TestRegexes.toPattern(large);
+        for (var word : new String[] { "ab".repeat(32), "b" + "ab".repeat(32), "ab".repeat(31), "" }) {
+            assertEquals(pattern.matcher(word).matches(), matcher.matches(word), word);
+        }
+    }
+
+    @Test
+    void evaluatesSentencesLikeASequentialLoop() throws Exception {
+        var random = new Random(TestRegexes.SEED);
+        var matcher = RegexUtils.compileMatcher("(a+b)*a(a+b+c)", NfaConstruction.GLUSHKOV);
+        var processors = Runtime.getRuntime().availableProcessors();
+        var acceptedTotal = 0;
+        for (var size : new int[] { 1, 63, 64, 65, 127, 1000, 64 * 64 * 3 + 17 }) {
+            var sentences = TestRegexes.words(random, size, 6);
+            var expected = new BitSet();
+            for (int i = 0; i < sentences.size(); i++) {
+                if (matcher.matches(sentences.get(i))) {
+                    expected.set(i);
+                }
+            }
+            acceptedTotal += expected.cardinality();
+            for (var parallelism : new int[] { 1, 2, 3, processors, processors + 1 }) {
+                assertEquals(expected, RegexUtils.evaluateSentences(matcher, sentences, parallelism),
+                        size + " sentences on " + parallelism + " threads");
+            }
+        }
+        assertTrue(acceptedTotal > 0);
+    }
+
+    @Test
+    void evaluatesNoSentences() throws Exception {
+        SentenceMatcher acceptAll = sentence -> true;
+        for (var parallelism : new int[] { 1, 4 }) {
+            assertTrue(RegexUtils.evaluateSentences(acceptAll, List.of(), parallelism).isEmpty());
+        }
+    }
+
+    @Test
+    void rejectsInvalidEvaluationArguments() {
+        SentenceMatcher acceptAll = sentence -> true;
+        var sentences = List.of("a", "b");
+        assertThrows(Exception.class, () -> RegexUtils.evaluateSentences(acceptAll, sentences, 0));
+        assertThrows(Exception.class, () -> RegexUtils.evaluateSentences(acceptAll, sentences, -1));
+        assertThrows(Exception.class, () -> RegexUtils.evaluateSentences(acceptAll, null, 1));
+    }
+
+    @Test
+    void printsTheResultOfEverySentenceInOrder() throws Throwable {
+        var sentences = TestRegexes.words(new Random(TestRegexes.SEED), 4000, 8);
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 20)) {
+            var regexDfa = RegexUtils.convertToDeterministic(Thompson.getNfaFromRegex(regex));
+            var expected = new StringBuilder();
+            for (var sentence : sentences) {
+                expected.append(regexDfa.simulate(sentence) ? "Accepted by DFA: " : "Rejected by DFA: ")
+                        .append(sentence).append(System.lineSeparator());
+            }
+            assertEquals(expected.toString(), printed(() -> RegexUtils.simulateDFA(regexDfa, sentences)), regex);
+            var compiledDfa = RegexUtils.compile(regex, NfaConstruction.GLUSHKOV);
+            assertEquals(expected.toString(), printed(() -> RegexUtils.simulateDFA(compiledDfa, sentences)), regex);
+        }
+        var compiledDfa = RegexUtils.compile("a", NfaConstruction.GLUSHKOV);
+        assertThrows(Exception.class, () -> RegexUtils.simulateDFA(compiledDfa, List.of()));
+        assertThrows(Exception.class, () -> RegexUtils.simulateDFA(compiledDfa, null));
+    }
+
+    /**
+     * Run an action and get what it printed to the standard output.
+     */
+    private static String printed(Executable action) throws Throwable {
+        var standardOutput = System.out;
+        var output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            action.execute();
+        } finally {
+            System.setOut(standardOutput);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
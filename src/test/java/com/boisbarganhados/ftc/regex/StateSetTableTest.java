@@ -0,0 +1,78 @@
+package com.boisbarganhados.ftc.regex;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+
+class StateSetTableTest {
+
+    @Test
+    void internsEqualSetsToOneId() {
+        var table = new StateSetTable();
+        var states = new int[] { 1, 3, 5, 9 };
+        var id = table.add(states, 3, StateSetTable.hash(states, 3));
+        var copy = new int[] { 1, 3, 5 };
+        assertEquals(id, table.find(copy, 3, StateSetTable.hash(copy, 3)));
+        assertEquals(-1, table.find(states, 4, StateSetTable.hash(states, 4)));
+        assertEquals(-1, table.find(states, 2, StateSetTable.hash(states, 2)));
+        // The table keeps its own copy of the states.
+        states[0] = 2;
+        assertArrayEquals(new int[] { 1, 3, 5 }, table.get(id));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void growsAndRehashesWithoutLosingSets() {
+        var random = new Random(TestRegexes.SEED);
+        var table = new StateSetTable();
+        var sets = new ArrayList<int[]>();
+        for (int id = 0; id < 20_000; id++) {
+            var set = randomSet(random, id);
+            assertEquals(-1, table.find(set, set.length, StateSetTable.hash(set, set.length)));
+            assertEquals(id, table.add(set, set.length, StateSetTable.hash(set, set.length)));
+            sets.add(set);
+        }
+        assertEquals(sets.size(), table.size());
+        for (int id = 0; id < sets.size(); id++) {
+            var set = sets.get(id);
+            assertArrayEquals(set, table.get(id));
+            assertEquals(id, table.find(set, set.length, StateSetTable.hash(set, set.length)));
+        }
+        table.clear();
+        assertEquals(0, table.size());
+        assertEquals(-1, table.find(sets.get(0), sets.get(0).length, StateSetTable.hash(sets.get(0), sets.get(0).length)));
+    }
+
+    @Test
+    void findsSetsThatShareAHash() {
+        var table = new StateSetTable();
+        for (int id = 0; id < 100; id++) {
+            assertEquals(id, table.add(new int[] { id }, 1, 42));
+        }
+        for (int id = 99; id >= 0; id--) {
+            assertEquals(id, table.find(new int[] { id }, 1, 42));
+        }
+        assertEquals(-1, table.find(new int[] { 100 }, 1, 42));
+    }
+
+    /**
+     * Build a distinct sorted set: its first state is the id, and a few larger
+     * states follow.
+     */
+    private static int[] randomSet(Random random, int id) {
+        var set = new int[1 + random.nextInt(6)];
+        set[0] = id;
+        for (int i = 1; i < set.length; i++) {
+            set[i] = 20_000 + random.nextInt(1000);
+        }
+        Arrays.sort(set, 1, set.length);
+        return Arrays.stream(set).distinct().toArray();
+    }
+}
@@ -0,0 +1,112 @@
+package com.boisbarganhados.ftc.regex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.boisbarganhados.ftc.TestRegexes;
+import com.boisbarganhados.ftc.dfa.CompactNFA;
+import com.boisbarganhados.ftc.dfa.RegexDFElement;
+
+class SubsetConstructionTest {
+
+    @Test
+    void buildsTheSameSubsetsAsTheListBasedDeterminization() throws Exception {
+        var largest = 0;
+        for (var regex : TestRegexes.regexes(TestRegexes.SEED, 200)) {
+            for (var construction : NfaConstruction.values()) {
+                var nfa = construction.getNfaFromAst(RegexAstParser.parse(regex));
+                var compactNfa = CompactNFA.of(nfa);
+                var subsetTable = SubsetConstruction.determinize(compactNfa);
+                var referenceSets = new HashMap<TreeSet<Integer>, Integer>();
+                var referenceTransitions = referenceDeterminize(nfa, referenceSets);
+                assertEquals(referenceSets.size(), subsetTable.stateSets().size(), regex);
+                largest = Math.max(largest, referenceSets.size());
+
+                var alphabet = subsetTable.alphabet();
+                var classCount = alphabet.size();
+                for (int state = 0; state < subsetTable.stateSets().size(); state++) {
+                    var sourceStates = new TreeSet<Integer>();
+                    for (var compactState : subsetTable.stateSets().get(state)) {
+                        sourceStates.add(compactNfa.getSourceState(compactState));
+                    }
+                    var referenceState = referenceSets.get(sourceStates);
+                    assertNotNull(referenceState, regex);
+                    assertEquals(state == 0, referenceState == 0, regex);
+                    assertEquals(sourceStates.stream().anyMatch(nfa.getFinalStates()::contains),
+                            subsetTable.acceptingStates().get(state), regex);
+                    for (int classId = 0; classId < classCount; classId++) {
+                        var target = subsetTable.transitions()[state * classCount + classId];
+                        var referenceTarget = referenceTransitions.get(referenceState).get(alphabet.getSymbol(classId));
+                        if (referenceTarget == null) {
+                            assertEquals(-1, target, regex);
+                            continue;
+                        }
+                        var targetStates = new TreeSet<Integer>();
+                        for (var compactState : subsetTable.stateSets().get(target)) {
+                            targetStates.add(compactNfa.getSourceState(compactState));
+                        }
+                        assertEquals(referenceTarget, referenceSets.get(targetStates), regex);
+                    }
+                }
+            }
+        }
+        assertTrue(largest > 8);
+    }
+
+    @Test
+    void givesTheInitialStateTheFirstId() throws Exception {
+        var subsetTable = SubsetConstruction.determinize(CompactNFA.of(Glushkov.getNfaFromRegex("(a+b)*abb")));
+        // The initial set is not merged with the set of the (a+b)* loop.
+        assertEquals(5, subsetTable.stateSets().size());
+        assertEquals(0, subsetTable.stateSets().get(0)[0]);
+        assertEquals(1, subsetTable.stateSets().get(0).length);
+        assertEquals(1, subsetTable.acceptingStates().cardinality());
+    }
+
+    /**
+     * Determinize the NFA structure with sets of its states as keys, the way
+     * the list-based conversion did.
+     *
+     * @param nfa  The lambda-free NFA structure.
+     * @param sets Receives the id of every reachable set.
+     * @return The transitions of every set id by symbol.
+     */
+    private static List<Map<String, Integer>> referenceDeterminize(RegexDFElement nfa,
+            Map<TreeSet<Integer>, Integer> sets) {
+        var transitions = new ArrayList<Map<String, Integer>>();
+        var waitList = new ArrayDeque<TreeSet<Integer>>();
+        var initialSet = new TreeSet<Integer>(List.of(nfa.getInitialState()));
+        sets.put(initialSet, 0);
+        waitList.add(initialSet);
+        while (!waitList.isEmpty()) {
+            var set = waitList.poll();
+            var targets = new HashMap<String, TreeSet<Integer>>();
+            for (var state : set) {
+                nfa.getTransitions().get(state).forEach(
+                        (symbol, states) -> targets.computeIfAbsent(symbol, key -> new TreeSet<>()).addAll(states));
+            }
+            var setTransitions = new HashMap<String, Integer>();
+            targets.forEach((symbol, targetSet) -> {
+                var id = sets.get(targetSet);
+                if (id == null) {
+                    id = sets.size();
+                    sets.put(targetSet, id);
+                    waitList.add(targetSet);
+                }
+                setTransitions.put(symbol, id);
+            });
+            transitions.add(setTransitions);
+        }
+        return transitions;
+    }
+}